@@ -0,0 +1,112 @@
+package lexicalanalyzer;
+
+/*
+ Boundary Scanner
+
+ 	Finds the characters that end a word (whitespace and double quotes) and the ends of lines, so the lexical analyzer
+ only looks at the characters where something happens. Every other character is skipped without being classified.
+
+ 	When the source is a SourceText (a memory mapped file), 8 characters are read at once as a long and classified
+ with bit tricks on all 8 bytes together (SWAR - SIMD within a register):
+ 	-a byte equal to c: x = word ^ (c in every byte), then ~(((x & 0x7F..) + 0x7F..) | x | 0x7F..) has the high bit
+ 	set exactly in the bytes of x that are 0
+ 	-a byte from 0x09 to 0x0D (\t \n \u000B \f \r): adding 0x80 - 0x09 and 0x80 - 0x0E to the low 7 bits of every byte
+ 	sets the high bit of the bytes that are at least 0x09 and at least 0x0E. Bytes of 0x80 and above are masked out.
+ 	The masks never carry into the next byte, so the lowest set bit (the words are read little endian) is the first
+ 	boundary. Any other source, and the last few characters of a source, are scanned one character at a time.
+
+ */
+final class BoundaryScanner {
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGH = 0x8080808080808080L;
+	private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+	private static final long SPACES = ' ' * ONES;
+	private static final long QUOTES = '"' * ONES;
+	private static final long LINE_FEEDS = '\n' * ONES;
+	private static final long CARRIAGE_RETURNS = '\r' * ONES;
+	private static final long AT_LEAST_TAB = (0x80 - 0x09) * ONES;
+	private static final long AT_LEAST_SO = (0x80 - 0x0E) * ONES;
+
+	private BoundaryScanner(){
+	}
+
+	//index of the first whitespace or double quote from 'from', end if there is none
+	static int nextBoundary(CharSequence text,int from,int end){
+		int i = from;
+		if(LexicalAnalyzer.wordScanning && text instanceof SourceText){
+			SourceText source = (SourceText)text;
+			for(; i + 8 <= end; i += 8){
+				long word = source.getLong(i);
+				long mask = controls(word) | equal(word,SPACES) | equal(word,QUOTES);
+				if(mask != 0){
+					return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+				}
+			}
+		}
+		for(; i < end; i++){
+			char c = text.charAt(i);
+			if(c == '"' || KeywordTrie.isWhitespace(c)){
+				return i;
+			}
+		}
+		return end;
+	}
+
+	//index of the first double quote from 'from', -1 if there is none
+	static int nextQuote(CharSequence text,int from,int end){
+		int i = from;
+		if(LexicalAnalyzer.wordScanning && text instanceof SourceText){
+			SourceText source = (SourceText)text;
+			for(; i + 8 <= end; i += 8){
+				long mask = equal(source.getLong(i),QUOTES);
+				if(mask != 0){
+					return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+				}
+			}
+		}
+		for(; i < end; i++){
+			if(text.charAt(i) == '"'){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	//index of the first \n or \r from 'from', end if there is none
+	static int nextLineBreak(CharSequence text,int from,int end){
+		int i = from;
+		if(LexicalAnalyzer.wordScanning && text instanceof SourceText){
+			SourceText source = (SourceText)text;
+			for(; i + 8 <= end; i += 8){
+				long word = source.getLong(i);
+				long mask = equal(word,LINE_FEEDS) | equal(word,CARRIAGE_RETURNS);
+				if(mask != 0){
+					return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+				}
+			}
+		}
+		for(; i < end; i++){
+			char c = text.charAt(i);
+			if(c == '\n' || c == '\r'){
+				return i;
+			}
+		}
+		return end;
+	}
+
+	//high bit set in the bytes of the word equal to the byte repeated in pattern
+	private static long equal(long word,long pattern){
+		long x = word ^ pattern;
+		return ~(((x & LOW7) + LOW7) | x | LOW7);
+	}
+
+	//high bit set in the bytes of the word from 0x09 to 0x0D
+	private static long controls(long word){
+		long low = word & LOW7;
+		long atLeastTab = (low + AT_LEAST_TAB) & HIGH;
+		long atLeastSo = (low + AT_LEAST_SO) & HIGH;
+		return atLeastTab & ~atLeastSo & ~word & HIGH;
+	}
+}
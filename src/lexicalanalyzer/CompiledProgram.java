@@ -0,0 +1,327 @@
+package lexicalanalyzer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import parser.ast.ErrorStatement;
+import symboltable.LiteralPool;
+import symboltable.NameTable;
+
+/*
+ Compiled Program (.lolc)
+
+ 	A lexed program saved next to its .lol file, so a program that is run again and again is only lexed once.
+ The file holds the token buffer of the program as is, and the result of checking it once it has been checked:
+
+ 	-header: magic ("LOLC"), format version, SHA-256 hash of the .lol file, token count, name count, literal count,
+ 	text length, error count (-1 if the program has not been checked)
+ 	-errors: the errors found by checking the program (see parser.Parser.check()), by line (line, int length or -1
+ 	for no message, and UTF-16 characters of each message)
+ 	-kinds, lines, starts, ends and ids of every token (see TokenBuffer)
+ 	-names: the name table, in the order of the IDs (int length and ISO-8859-1 bytes of each name)
+ 	-literals: the literal pool, in the order of the indexes (length and UTF-16 characters of each decoded literal)
+ 	-text: the text of the tokens (comments and whitespace between tokens are left out, tokens with the same text
+ 	share it). The starts and ends of the tokens are offsets in this text.
+
+ 	The file is loaded through a memory map. The arrays are read with bulk gets and the text is used in place
+ through a SourceText, so loading costs a few array copies instead of lexing. A .lolc file is only used if its version
+ is the current one and its hash is the hash of the .lol file, else the program is lexed and the .lolc file written again.
+ A checked program is not even loaded by --check: its errors are read from the section after the header (see
+ loadErrors()).
+
+ 	The syntax tree itself is not saved. Parsing the loaded tokens costs about as much as lexing did, but reading a
+ saved tree back would build the same nodes in a pass of the same length.
+
+ 	A .lolc file is never changed in place, as another run of the program may have it mapped: it is written to a
+ temporary file next to it, which then replaces it in one atomic move.
+
+ */
+public final class CompiledProgram {
+
+	public static final String EXTENSION = ".lolc";
+
+	private static final int MAGIC = 0x4C4F4C43;	//"LOLC"
+	private static final int VERSION = 8;			//changes whenever the layout, the token types, the lexing rules or the checks change
+	private static final int HASH_LENGTH = 32;		//SHA-256
+	private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH + 4 + 4 + 4 + 4 + 4;
+	private static final int NOT_CHECKED = -1;
+
+	private CompiledProgram(){
+	}
+
+	//the .lolc file of a .lol file (input.lol - input.lolc)
+	public static File compiledFileOf(File sourceFile){
+		String name = sourceFile.getName();
+		int dot = name.lastIndexOf('.');
+		if(dot > 0){
+			name = name.substring(0,dot);
+		}
+		return new File(sourceFile.getParentFile(),name + EXTENSION);
+	}
+
+	//SHA-256 hash of the bytes of a source (see LexicalAnalyzer.readSource). the same bytes are lexed when the
+	//.lolc file has to be written again, so the tokens saved are always the tokens of the hashed contents
+	public static byte[] hashOf(ByteBuffer source) throws IOException {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(source.duplicate());
+			return digest.digest();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/*
+	 Load
+
+	 	Maps the .lolc file and creates the token buffer saved in it. Returns null if the file does not exist,
+	 is not a .lolc file of the current version or was made from a different source (hash mismatch).
+	 */
+	public static TokenBuffer load(File compiledFile,byte[] sourceHash){
+		try (FileChannel channel = open(compiledFile)){
+			ByteBuffer buffer = map(channel,sourceHash);
+			if(buffer == null){
+				return null;
+			}
+			int size = buffer.getInt();
+			int nameCount = buffer.getInt();
+			int literalCount = buffer.getInt();
+			int textLength = buffer.getInt();
+			readErrors(buffer);
+
+			//tokens
+			short[] kinds = new short[size];
+			int[] lines = new int[size];
+			int[] starts = new int[size];
+			int[] ends = new int[size];
+			int[] ids = new int[size];
+			buffer.asShortBuffer().get(kinds);
+			buffer.position(buffer.position() + size * 2);
+			for(int[] array:new int[][]{lines,starts,ends,ids}){
+				buffer.asIntBuffer().get(array);
+				buffer.position(buffer.position() + size * 4);
+			}
+
+			//names, interned in the order of their IDs
+			NameTable names = new NameTable();
+			for(int id = 0; id < nameCount; id++){
+				int length = buffer.getInt();
+				SourceText name = new SourceText(slice(buffer,length));
+				if(names.intern(name,0,length) != id){
+					return null;
+				}
+				buffer.position(buffer.position() + length);
+			}
+
+			//literals, interned in the order of their indexes
+			LiteralPool literals = new LiteralPool();
+			for(int index = 0; index < literalCount; index++){
+				char[] value = new char[buffer.getInt()];
+				buffer.asCharBuffer().get(value);
+				buffer.position(buffer.position() + value.length * 2);
+				if(literals.intern(new String(value)) != index){
+					return null;
+				}
+			}
+
+			//text of the tokens, used in place
+			SourceText text = new SourceText(slice(buffer,textLength));
+
+			return new TokenBuffer(text,names,literals,kinds,lines,starts,ends,ids,size);
+
+		} catch (IOException | RuntimeException e) {
+			//an unreadable .lolc file is treated as missing
+			return null;
+		}
+	}
+
+	/*
+	 Load Errors
+
+	 	Reads the errors saved in the .lolc file when the program was checked. Returns null if the program has not been
+	 checked, or if there is no .lolc file for the source (see load()).
+	 */
+	public static ArrayList<ErrorStatement> loadErrors(File compiledFile,byte[] sourceHash){
+		try (FileChannel channel = open(compiledFile)){
+			ByteBuffer buffer = map(channel,sourceHash);
+			if(buffer == null){
+				return null;
+			}
+			buffer.position(buffer.position() + 4 * 4);
+			return readErrors(buffer);
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	//open the .lolc file, null if there is none
+	private static FileChannel open(File compiledFile) throws IOException {
+		if(!(compiledFile.isFile())){
+			return null;
+		}
+		return FileChannel.open(compiledFile.toPath(), StandardOpenOption.READ);
+	}
+
+	//map the .lolc file and read its header up to the hash. null if it is not a .lolc file of the current version made
+	//from the source with the given hash
+	private static ByteBuffer map(FileChannel channel,byte[] sourceHash) throws IOException {
+		if(channel == null || channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE){
+			return null;
+		}
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+		if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION){
+			return null;
+		}
+		byte[] hash = new byte[HASH_LENGTH];
+		buffer.get(hash);
+		if(!(Arrays.equals(hash,sourceHash))){
+			return null;
+		}
+		return buffer;
+	}
+
+	//read the error count and the errors section, null if the program has not been checked
+	private static ArrayList<ErrorStatement> readErrors(ByteBuffer buffer){
+		int errorCount = buffer.getInt();
+		if(errorCount == NOT_CHECKED){
+			return null;
+		}
+		ArrayList<ErrorStatement> errors = new ArrayList<ErrorStatement>(errorCount);
+		for(int i = 0; i < errorCount; i++){
+			int lineNo = buffer.getInt();
+			int length = buffer.getInt();
+			String message = null;
+			if(length >= 0){
+				char[] value = new char[length];
+				buffer.asCharBuffer().get(value);
+				buffer.position(buffer.position() + length * 2);
+				message = new String(value);
+			}
+			errors.add(new ErrorStatement(lineNo,message,true));
+		}
+		return errors;
+	}
+
+	/*
+	 Write
+
+	 	Saves the token buffer of the source with the given hash into the .lolc file, through a temporary file that
+	 replaces it once complete. errors are the errors found by checking the program, null if it has not been checked.
+	 */
+	public static void write(File compiledFile,byte[] sourceHash,TokenBuffer tokenBuffer,ArrayList<ErrorStatement> errors) throws IOException {
+		int size = tokenBuffer.size();
+		NameTable names = tokenBuffer.getNameTable();
+		LiteralPool literals = tokenBuffer.getLiteralPool();
+
+		//copy the text of every token into the text section, sharing the text of tokens that are the same
+		StringBuilder text = new StringBuilder();
+		HashMap<String,Integer> offsets = new HashMap<String,Integer>();
+		int[] starts = new int[size];
+		int[] ends = new int[size];
+		for(int i = 0; i < size; i++){
+			String tokenText = tokenBuffer.getText(i);
+			Integer offset = offsets.get(tokenText);
+			if(offset == null){
+				offset = text.length();
+				offsets.put(tokenText,offset);
+				text.append(tokenText);
+			}
+			starts[i] = offset;
+			ends[i] = offset + tokenText.length();
+		}
+
+		File directory = compiledFile.getAbsoluteFile().getParentFile();
+		File temporaryFile = File.createTempFile(compiledFile.getName() + ".",".tmp",directory);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))){
+			//header
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.write(sourceHash);
+			out.writeInt(size);
+			out.writeInt(names.size());
+			out.writeInt(literals.size());
+			out.writeInt(text.length());
+			out.writeInt(errors == null ? NOT_CHECKED : errors.size());
+
+			//errors
+			if(errors != null){
+				for(ErrorStatement error:errors){
+					out.writeInt(error.getLineNo());
+					if(error.getMessage() == null){
+						out.writeInt(-1);
+					}else{
+						out.writeInt(error.getMessage().length());
+						out.writeChars(error.getMessage());
+					}
+				}
+			}
+
+			//tokens
+			for(int i = 0; i < size; i++){
+				out.writeShort(tokenBuffer.getClassifier(i).ordinal());
+			}
+			for(int i = 0; i < size; i++){
+				out.writeInt(tokenBuffer.getLineNo(i));
+			}
+			for(int i = 0; i < size; i++){
+				out.writeInt(starts[i]);
+			}
+			for(int i = 0; i < size; i++){
+				out.writeInt(ends[i]);
+			}
+			for(int i = 0; i < size; i++){
+				out.writeInt(tokenBuffer.getId(i));
+			}
+
+			//names
+			for(int id = 0; id < names.size(); id++){
+				String name = names.getName(id);
+				out.writeInt(name.length());
+				out.writeBytes(name);
+			}
+
+			//literals
+			for(int index = 0; index < literals.size(); index++){
+				String value = literals.getString(index);
+				out.writeInt(value.length());
+				out.writeChars(value);
+			}
+
+			//text (every character fits in a byte, the source is read as ISO-8859-1)
+			out.writeBytes(text.toString());
+		} catch (IOException e) {
+			temporaryFile.delete();
+			throw e;
+		}
+
+		try {
+			Files.move(temporaryFile.toPath(),compiledFile.toPath(),StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			temporaryFile.delete();
+			throw e;
+		}
+	}
+
+	//a view of the next length bytes of the buffer
+	private static ByteBuffer slice(ByteBuffer buffer,int length){
+		ByteBuffer slice = buffer.slice();
+		slice.limit(length);
+		return slice;
+	}
+}
@@ -0,0 +1,202 @@
+package lexicalanalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+import lexicalanalyzer.LexicalAnalyzer.Mode;
+import symboltable.LiteralPool;
+import symboltable.NameTable;
+
+/*
+ Incremental Token Stream
+
+ 	A token stream of a file that is kept between runs of the program (see Watcher). The tokens are held per line,
+ together with the text of the line and the mode of the lexical analyzer at the start of the line.
+
+ 	When the file changes, update() compares the new lines to the old ones. Lines before the first changed line and
+ after the last changed line are kept. The changed lines are lexed again starting from the mode recorded at the first
+ changed line, and lexing continues past the changed lines only until the mode at the start of a line is the same as
+ the one recorded for it (e.g. an OBTW added or removed changes the lines after it up to the next TLDR).
+ The new lines are spliced into the retained ones, so lexing an edit costs time proportional to the change. Finding
+ the change does not: the whole file is read and its lines are compared to the retained ones.
+
+ 	Line numbers are not stored with the tokens, they are given by the position of the line when the
+ stream is read. Every line shares the name table and literal pool of the lexical analyzer, so a variable keeps its ID
+ across edits.
+
+ */
+public class IncrementalTokenStream {
+
+	//a line of the file
+	private static class Line {
+		private String text;			//contents of the line
+		private Mode startMode;			//mode of the lexical analyzer at the start of the line
+		private TokenBuffer tokens;		//tokens of the line
+	}
+
+	private File file;
+	private LexicalAnalyzer lexicalAnalyzer;
+	private ArrayList<Line> lines;
+	private Mode endMode;				//mode at the end of the last line
+
+	public IncrementalTokenStream(File file) throws IOException {
+		this.file = file;
+		this.lexicalAnalyzer = new LexicalAnalyzer();
+		this.lines = new ArrayList<Line>();
+		this.endMode = Mode.DEFAULT;
+
+		ArrayList<String> text = readLines();
+		relex(text,0,0,text.size());
+	}
+
+	/*
+	 Update
+
+	 	Reads the file again and lexes the lines that changed. Returns the number of lines lexed.
+	 */
+	public int update() throws IOException {
+		ArrayList<String> text = readLines();
+		int oldCount = this.lines.size();
+		int newCount = text.size();
+
+		//unchanged lines at the start
+		int prefix = 0;
+		while(prefix < oldCount && prefix < newCount && this.lines.get(prefix).text.equals(text.get(prefix))){
+			prefix++;
+		}
+
+		//unchanged lines at the end
+		int suffix = 0;
+		while(suffix < oldCount - prefix && suffix < newCount - prefix &&
+				this.lines.get(oldCount - 1 - suffix).text.equals(text.get(newCount - 1 - suffix))){
+			suffix++;
+		}
+
+		return relex(text,prefix,oldCount - suffix,newCount - suffix);
+	}
+
+	/*
+	 Relex
+
+	 	Replaces the old lines from changeStart up to oldChangeEnd with the new lines from changeStart up to
+	 newChangeEnd. Lines after the change are lexed again as long as their start mode is different from before.
+	 */
+	private int relex(ArrayList<String> text,int changeStart,int oldChangeEnd,int newChangeEnd){
+		int oldCount = this.lines.size();
+		int shift = text.size() - oldCount;
+
+		Mode mode = changeStart < oldCount ? this.lines.get(changeStart).startMode : this.endMode;
+
+		ArrayList<Line> relexed = new ArrayList<Line>();
+		int lineIndex = changeStart;
+		while(lineIndex < text.size()){
+			//resynchronised: the rest of the old lines start in the same mode as before
+			if(lineIndex >= newChangeEnd && this.lines.get(lineIndex - shift).startMode == mode){
+				break;
+			}
+
+			Line line = new Line();
+			line.text = text.get(lineIndex);
+			line.startMode = mode;
+			line.tokens = this.lexicalAnalyzer.analyzeLine(line.text,mode);
+			mode = this.lexicalAnalyzer.getMode();
+
+			relexed.add(line);
+			lineIndex++;
+		}
+
+		//splice the new lines in place of the old ones
+		int oldEnd = lineIndex - shift;
+		this.lines.subList(changeStart,oldEnd).clear();
+		this.lines.addAll(changeStart,relexed);
+
+		if(lineIndex == text.size()){
+			this.endMode = mode;
+		}
+
+		return relexed.size();
+	}
+
+	//read the lines of the file the same way BufferedReader.readLine() does
+	private ArrayList<String> readLines() throws IOException {
+		String text = new String(Files.readAllBytes(this.file.toPath()),StandardCharsets.ISO_8859_1);
+		ArrayList<String> lines = new ArrayList<String>();
+
+		int length = text.length();
+		int lineStart = 0;
+		while(lineStart < length){
+			int lineEnd = lineStart;
+			char c = 0;
+			while(lineEnd < length && (c = text.charAt(lineEnd)) != '\n' && c != '\r'){
+				lineEnd++;
+			}
+			lines.add(text.substring(lineStart,lineEnd));
+
+			lineStart = lineEnd + 1;
+			if(c == '\r' && lineStart < length && text.charAt(lineStart) == '\n'){
+				lineStart++;
+			}
+		}
+		return lines;
+	}
+
+	//number of lines in the stream
+	public int lineCount(){
+		return this.lines.size();
+	}
+
+	//a token source that hands out the tokens of every line, followed by the eof lexeme
+	public TokenSource cursor(){
+		return new Cursor();
+	}
+
+	private class Cursor implements TokenSource {
+		private int lineIndex = 0;		//line of the next token
+		private int tokenIndex = 0;		//index of the next token in its line
+		private boolean endOfFile = false;
+
+		@Override
+		public NameTable getNameTable() {
+			return lexicalAnalyzer.getNameTable();
+		}
+
+		@Override
+		public LiteralPool getLiteralPool() {
+			return lexicalAnalyzer.getLiteralPool();
+		}
+
+		@Override
+		public boolean hasNext() {
+			//skip lines with no tokens left
+			while(this.lineIndex < lines.size() && this.tokenIndex == lines.get(this.lineIndex).tokens.size()){
+				this.lineIndex++;
+				this.tokenIndex = 0;
+			}
+			return this.lineIndex < lines.size() || !(this.endOfFile);
+		}
+
+		@Override
+		public Lexeme next() {
+			if(!(hasNext())){
+				throw new NoSuchElementException();
+			}
+
+			int lineNo = this.lineIndex + 1;
+
+			//the eof lexeme is on the line after the last line
+			if(this.lineIndex == lines.size()){
+				this.endOfFile = true;
+				return new Lexeme("EOF",TokenType.END_OF_FILE,KeywordTrie.abstractionOf(TokenType.END_OF_FILE),lineNo);
+			}
+
+			TokenBuffer tokens = lines.get(this.lineIndex).tokens;
+			int index = this.tokenIndex++;
+			TokenType type = tokens.getClassifier(index);
+			return new Lexeme(tokens.getValue(index),type,KeywordTrie.abstractionOf(type),lineNo,tokens.getId(index));
+		}
+	}
+}
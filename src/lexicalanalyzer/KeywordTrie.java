@@ -0,0 +1,374 @@
+package lexicalanalyzer;
+
+import java.util.Arrays;
+
+import parser.Abstraction;
+
+/*
+ Keyword Trie
+
+ 	A precompiled trie over the characters of every LOLCODE keyword, including the multiple word keywords
+ (I HAS A, SUM OF, O RLY?, etc.) and their lead ins. A finished word is classified by walking the trie once,
+ while the same walk keeps track of whether the word can still be a number literal, a string literal,
+ a variable identifier or an unknown keyword.
+
+ 	The result is the same classification the regex patterns of match() used to give, in the same order
+ of priority:
+ 		string literal > BTW/OBTW > int > float > keywords > lead ins > multiple word keywords > variable > unknown
+
+ 	Whitespace inside a word (only possible for lead ins) is a single transition that loops on itself,
+ which is the trie version of \s+ in the old patterns.
+
+ */
+final class KeywordTrie {
+
+	//result codes that are not token types
+	static final int NO_MATCH = -1;		//no lexeme is created for the word (a lead in that no keyword follows)
+	static final int LEAD_IN = -2;		//word is the start of a multiple word keyword
+
+	private static final TokenType[] TYPES = TokenType.values();
+
+	//alphabet of the trie: A-Z, ? and whitespace. every other character leads to a dead state.
+	private static final int QUESTION_MARK = 26;
+	private static final int SPACE = 27;
+	private static final int ALPHABET_SIZE = 28;
+
+	private static final int ROOT = 0;
+	private static final int DEAD = -1;
+
+	private static int[] transitions = new int[ALPHABET_SIZE * 256];	//node * ALPHABET_SIZE + symbol -> node
+	private static int[] accepts = new int[256];						//token type ordinal accepted at the node
+	private static boolean[] leadIns = new boolean[256];				//node is a lead in to a multiple word keyword
+	private static int nodeCount = 0;
+
+	//abstraction of every token type (the classifier determines both)
+	private static final Abstraction[] ABSTRACTIONS = new Abstraction[TYPES.length];
+
+	static{
+		newNode();
+
+		//literals and identifiers are not in the trie but their abstractions are needed
+		setAbstraction(TokenType.STR_LITERAL,Abstraction.LITERAL);
+		setAbstraction(TokenType.INT_LITERAL,Abstraction.LITERAL);
+		setAbstraction(TokenType.FLOAT_LITERAL,Abstraction.LITERAL);
+		setAbstraction(TokenType.VAR_IDENTIFIER,Abstraction.VARIABLE);
+		setAbstraction(TokenType.UNKNOWN_KEYWORD,Abstraction.KEYWORD);
+		setAbstraction(TokenType.END_OF_FILE,Abstraction.KEYWORD);
+
+		//Comments (these change the mode of the lexical analyzer instead of creating a lexeme)
+		addKeyword("BTW",TokenType.SINGLE_COMMENT,Abstraction.KEYWORD);
+		addKeyword("OBTW",TokenType.MULTI_COMMENT_START,Abstraction.KEYWORD);
+
+		//Boolean
+		addKeyword("WIN",TokenType.BOOL_TRUE,Abstraction.LITERAL);
+		addKeyword("FAIL",TokenType.BOOL_FALSE,Abstraction.LITERAL);
+
+		//single line keywords
+
+		//program definition
+		addKeyword("HAI",TokenType.PROGRAM_START,Abstraction.PROGRAM);
+		addKeyword("KTHXBYE",TokenType.PROGRAM_END,Abstraction.PROGRAM);
+		//I/O
+		addKeyword("VISIBLE",TokenType.PRINT,Abstraction.STATEMENT_STARTER);
+		addKeyword("GIMMEH",TokenType.USER_INPUT,Abstraction.STATEMENT_STARTER);
+		//Variables
+		addKeyword("ITZ",TokenType.VAR_INITIALIZE,Abstraction.KEYWORD);
+		addKeyword("IT",TokenType.VAR_IMPLICIT,Abstraction.VARIABLE);
+		addKeyword("R",TokenType.ASSIGNMENT,Abstraction.KEYWORD);
+		//Data Types
+		addKeyword("NOOB",TokenType.DATATYPE_NONE,Abstraction.DATATYPE);
+		addKeyword("NUMBR",TokenType.DATATYPE_INT,Abstraction.DATATYPE);
+		addKeyword("NUMBAR",TokenType.DATATYPE_FLOAT,Abstraction.DATATYPE);
+		addKeyword("YARN",TokenType.DATATYPE_STRING,Abstraction.DATATYPE);
+		addKeyword("TROOF",TokenType.DATATYPE_BOOLEAN,Abstraction.DATATYPE);
+		//Operations
+		addKeyword("AN",TokenType.EXPR_OP_SEPARATOR,Abstraction.KEYWORD);
+		addKeyword("NOT",TokenType.BOOL_NOT,Abstraction.BOOLEAN_OPERATOR);
+		addKeyword("MKAY",TokenType.BOOL_INF_END,Abstraction.KEYWORD);
+		addKeyword("SMOOSH",TokenType.STR_CONCAT,Abstraction.KEYWORD);
+		addKeyword("DIFFRINT",TokenType.COMP_NOT_EQUAL,Abstraction.COMPARISON_OPERATOR);
+		//Control Flow
+		addKeyword("MEBBE",TokenType.CTRL_ELSEIF,Abstraction.JUMP);
+		addKeyword("WTF?",TokenType.CTRL_SWITCH,Abstraction.STATEMENT_STARTER);
+		addKeyword("OMG",TokenType.CTRL_CASE,Abstraction.JUMP);
+		addKeyword("OMGWTF",TokenType.CTRL_CASE_DEFAULT,Abstraction.JUMP);
+		addKeyword("GTFO",TokenType.BREAK,Abstraction.STATEMENT_STARTER);
+		addKeyword("OIC",TokenType.CTRL_END,Abstraction.JUMP);
+		//Loops
+		addKeyword("UPPIN",TokenType.LOOP_INCREMENT,Abstraction.KEYWORD);
+		addKeyword("NERFIN",TokenType.LOOP_DECREMENT,Abstraction.KEYWORD);
+		addKeyword("TIL",TokenType.LOOP_UNTIL,Abstraction.KEYWORD);
+		addKeyword("WILE",TokenType.LOOP_WHILE,Abstraction.KEYWORD);
+		addKeyword("YR",TokenType.VAR_MARKER,Abstraction.KEYWORD);
+		//TypeCasting
+		addKeyword("MAEK",TokenType.TYPECAST,Abstraction.KEYWORD);
+		addKeyword("A",TokenType.TYPECAST_SEPARATOR,Abstraction.KEYWORD);
+
+		//lead ins (the current word is returned to pick up the next word)
+		addLeadIn("I");
+		addLeadIn("I HAS");
+		addLeadIn("SUM");
+		addLeadIn("DIFF");
+		addLeadIn("PRODUKT");
+		addLeadIn("QUOSHUNT");
+		addLeadIn("MOD");
+		addLeadIn("BIGGR");
+		addLeadIn("SMALLR");
+		addLeadIn("BOTH");
+		addLeadIn("EITHER");
+		addLeadIn("WON");
+		addLeadIn("ALL");
+		addLeadIn("ANY");
+		addLeadIn("O");
+		addLeadIn("YA");
+		addLeadIn("NO");
+		addLeadIn("IM");
+		addLeadIn("IM IN");
+		addLeadIn("IM OUTTA");
+		addLeadIn("HOW");
+		addLeadIn("HOW IZ");
+		addLeadIn("IF");
+		addLeadIn("IF U");
+		addLeadIn("IF U SAY");
+		addLeadIn("FOUND");
+
+		//multi line keywords
+
+		//Variables (I HAS A also accepts trailing whitespace)
+		addKeyword("I HAS A",TokenType.VAR_DECLARE,Abstraction.STATEMENT_STARTER);
+		addTrailingSpace("I HAS A",TokenType.VAR_DECLARE);
+		//Operations
+		addKeyword("SUM OF",TokenType.EXPR_ADD,Abstraction.ARITHMETIC_OPERATOR);
+		addKeyword("DIFF OF",TokenType.EXPR_SUB,Abstraction.ARITHMETIC_OPERATOR);
+		addKeyword("PRODUKT OF",TokenType.EXPR_MUL,Abstraction.ARITHMETIC_OPERATOR);
+		addKeyword("QUOSHUNT OF",TokenType.EXPR_DIV,Abstraction.ARITHMETIC_OPERATOR);
+		addKeyword("MOD OF",TokenType.EXPR_MOD,Abstraction.ARITHMETIC_OPERATOR);
+		addKeyword("BIGGR OF",TokenType.EXPR_MAX,Abstraction.ARITHMETIC_OPERATOR);
+		addKeyword("SMALLR OF",TokenType.EXPR_MIN,Abstraction.ARITHMETIC_OPERATOR);
+		addKeyword("BOTH OF",TokenType.BOOL_AND,Abstraction.BOOLEAN_OPERATOR);
+		addKeyword("EITHER OF",TokenType.BOOL_OR,Abstraction.BOOLEAN_OPERATOR);
+		addKeyword("WON OF",TokenType.BOOL_XOR,Abstraction.BOOLEAN_OPERATOR);
+		addKeyword("ALL OF",TokenType.BOOL_INF_AND,Abstraction.BOOL_INF_OPERATOR);
+		addKeyword("ANY OF",TokenType.BOOL_INF_OR,Abstraction.BOOL_INF_OPERATOR);
+		addKeyword("BOTH SAEM",TokenType.COMP_EQUAL,Abstraction.COMPARISON_OPERATOR);
+		//Control Flow
+		addKeyword("O RLY?",TokenType.CTRL_IF_THEN,Abstraction.STATEMENT_STARTER);
+		addKeyword("YA RLY",TokenType.CTRL_IF,Abstraction.JUMP);
+		addKeyword("NO WAI",TokenType.CTRL_ELSE,Abstraction.JUMP);
+		//Loops
+		addKeyword("IM IN YR",TokenType.LOOP_START,Abstraction.STATEMENT_STARTER);
+		addKeyword("IM OUTTA YR",TokenType.LOOP_END,Abstraction.JUMP);
+		//Functions
+		addKeyword("HOW IZ I",TokenType.FUNC_DEFINE,Abstraction.STATEMENT_STARTER);
+		addKeyword("IF U SAY SO",TokenType.FUNC_END,Abstraction.JUMP);
+		addKeyword("FOUND YR",TokenType.FUNC_RETURN,Abstraction.STATEMENT_STARTER);
+		addKeyword("I IZ",TokenType.FUNC_CALL,Abstraction.FUNCTION_CALL);
+	}
+
+	private KeywordTrie(){
+	}
+
+	//get the abstraction of a token type
+	static Abstraction abstractionOf(TokenType type){
+		return ABSTRACTIONS[type.ordinal()];
+	}
+
+	//get the token type of a result code
+	static TokenType typeOf(int result){
+		return TYPES[result];
+	}
+
+	/*
+	 Classify
+
+	 	Walks the characters of the word from start to end once and returns the ordinal of the token type
+	 of the word, LEAD_IN or NO_MATCH.
+	 */
+	static int classify(CharSequence text,int start,int end){
+
+		if(start == end){
+			return NO_MATCH;
+		}
+
+		char first = text.charAt(start);
+
+		//string literal: starts and ends with a double quote, no line terminators in between
+		if(first == '"'){
+			if(end - start >= 2 && text.charAt(end - 1) == '"' && !containsLineTerminator(text,start,end)){
+				return TokenType.STR_LITERAL.ordinal();
+			}
+		}
+
+		int node = ROOT;
+		boolean hasWhitespace = false;
+
+		//number literal states
+		int intDigits = 0;		//digits before the decimal point
+		int fracDigits = 0;		//digits after the decimal point
+		boolean hasPoint = false;
+		boolean isNumber = true;
+
+		//identifier state
+		boolean isIdentifier = isLetter(first);
+
+		for(int i = start; i < end; i++){
+			char c = text.charAt(i);
+
+			//trie
+			if(node != DEAD){
+				int symbol = symbolOf(c);
+				node = symbol < 0 ? DEAD : transitions[node * ALPHABET_SIZE + symbol];
+			}
+
+			if(isWhitespace(c)){
+				hasWhitespace = true;
+			}
+
+			//number
+			if(isNumber){
+				if(c >= '0' && c <= '9'){
+					if(hasPoint){
+						fracDigits++;
+					}else{
+						intDigits++;
+					}
+				}else if(c == '.' && !hasPoint){
+					hasPoint = true;
+				}else if(!(c == '-' && i == start)){
+					isNumber = false;
+				}
+			}
+
+			//identifier
+			if(isIdentifier && i > start && !(isLetter(c) || (c >= '0' && c <= '9'))){
+				isIdentifier = false;
+			}
+		}
+
+		//Handle Numbers. (keywords never contain digits so they cannot be shadowed by numbers)
+		if(isNumber){
+			if(!hasPoint && intDigits > 0){
+				return TokenType.INT_LITERAL.ordinal();
+			}
+			if(hasPoint && fracDigits > 0){
+				return TokenType.FLOAT_LITERAL.ordinal();
+			}
+		}
+
+		//Handle comments, keywords and lead ins
+		if(node != DEAD){
+			if(accepts[node] >= 0){
+				return accepts[node];
+			}
+			if(leadIns[node]){
+				return LEAD_IN;
+			}
+		}
+
+		//variable(Starts with a letter)
+		if(isIdentifier){
+			return TokenType.VAR_IDENTIFIER.ordinal();
+		}
+
+		//unknowns
+		if(!hasWhitespace){
+			return TokenType.UNKNOWN_KEYWORD.ordinal();
+		}
+
+		return NO_MATCH;
+	}
+
+	//whitespace as defined by \s
+	static boolean isWhitespace(char c){
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	//line terminators are not matched by . in the string literal pattern
+	private static boolean containsLineTerminator(CharSequence text,int start,int end){
+		for(int i = start; i < end; i++){
+			char c = text.charAt(i);
+			if(c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029'){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isLetter(char c){
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+	}
+
+	//map a character to the alphabet of the trie
+	private static int symbolOf(char c){
+		if(c >= 'A' && c <= 'Z'){
+			return c - 'A';
+		}
+		if(c == '?'){
+			return QUESTION_MARK;
+		}
+		if(isWhitespace(c)){
+			return SPACE;
+		}
+		return -1;
+	}
+
+	/*
+	 Trie construction
+	 */
+
+	private static int newNode(){
+		if((nodeCount + 1) * ALPHABET_SIZE > transitions.length){
+			transitions = Arrays.copyOf(transitions, transitions.length * 2);
+			accepts = Arrays.copyOf(accepts, accepts.length * 2);
+			leadIns = Arrays.copyOf(leadIns, leadIns.length * 2);
+		}
+		int node = nodeCount++;
+		Arrays.fill(transitions, node * ALPHABET_SIZE, (node + 1) * ALPHABET_SIZE, DEAD);
+		accepts[node] = NO_MATCH;
+		return node;
+	}
+
+	//walk (and create) the path of a keyword. a space in the keyword stands for one or more whitespace
+	private static int insert(String keyword){
+		int node = ROOT;
+		for(int i = 0; i < keyword.length(); i++){
+			int symbol = symbolOf(keyword.charAt(i));
+			int child = transitions[node * ALPHABET_SIZE + symbol];
+			if(child == DEAD){
+				child = newNode();
+				transitions[node * ALPHABET_SIZE + symbol] = child;
+				//whitespace loops on itself
+				if(symbol == SPACE){
+					transitions[child * ALPHABET_SIZE + SPACE] = child;
+				}
+			}
+			node = child;
+		}
+		return node;
+	}
+
+	private static void setAbstraction(TokenType type,Abstraction abstraction){
+		ABSTRACTIONS[type.ordinal()] = abstraction;
+	}
+
+	//(the node is inserted before the arrays are indexed, since inserting can grow them)
+	private static void addKeyword(String keyword,TokenType type,Abstraction abstraction){
+		int node = insert(keyword);
+		accepts[node] = type.ordinal();
+		setAbstraction(type,abstraction);
+	}
+
+	//keyword followed by \s*
+	private static void addTrailingSpace(String keyword,TokenType type){
+		int node = insert(keyword + " ");
+		accepts[node] = type.ordinal();
+	}
+
+	//lead in followed by \s*
+	private static void addLeadIn(String keyword){
+		int node = insert(keyword);
+		leadIns[node] = true;
+		node = insert(keyword + " ");
+		leadIns[node] = true;
+	}
+}
@@ -1,18 +1,25 @@
 package lexicalanalyzer;
 
 import parser.Abstraction;
+import symboltable.NameTable;
 
 public class Lexeme {
 	private String value;			//value/key of the lexeme
 	private TokenType classifier;	//token classification
 	private Abstraction abstraction;//abstraction type of token
 	private int lineNo;				//the line where the lexeme is found
+	private int id;					//ID of the variable name in the name table (NameTable.NONE if not a variable)
 
 	public Lexeme(String value,TokenType classifier,Abstraction abstraction,int lineNo) {
+		this(value,classifier,abstraction,lineNo,NameTable.NONE);
+	}
+
+	public Lexeme(String value,TokenType classifier,Abstraction abstraction,int lineNo,int id) {
 		this.value = value;
 		this.classifier = classifier;
 		this.abstraction = abstraction;
 		this.lineNo = lineNo;
+		this.id = id;
 		//System.out.println( "'"+ this.value+ "'" + " has been classified as " + this.classifier.name());
 	}
 
@@ -24,6 +31,10 @@ public class Lexeme {
 		return lineNo;
 	}
 
+	public int getId(){
+		return id;
+	}
+
 
 	public TokenType getClassifier(){
 		return classifier;
@@ -77,7 +88,8 @@ public class Lexeme {
 			if(this.abstraction == Abstraction.ARITHMETIC_OPERATOR ||
 				this.abstraction == Abstraction.COMPARISON_OPERATOR ||
 				this.abstraction == Abstraction.BOOLEAN_OPERATOR ||
-				this.abstraction == Abstraction.BOOL_INF_OPERATOR){
+				this.abstraction == Abstraction.BOOL_INF_OPERATOR ||
+				this.abstraction == Abstraction.FUNCTION_CALL){
 				return true;
 			}
 			return false;
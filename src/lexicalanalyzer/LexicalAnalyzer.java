@@ -3,10 +3,19 @@ package lexicalanalyzer;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 
-import parser.Abstraction;
+import symboltable.LiteralPool;
+import symboltable.NameTable;
+
 /*
  Lexical Analyzer
 
@@ -21,15 +30,32 @@ import parser.Abstraction;
 public class LexicalAnalyzer {
 
 	/*
-	 Token Stream
-	 	-An arraylist of lexemes that holds the arranged order of lexemes to be processed by the parser.
+	 Token Buffer
+	 	-A packed stream of tokens that holds the arranged order of lexemes to be processed by the parser.
+	 	(see TokenBuffer)
 
 	 Lexeme
 	 	-has 3 attributes. The Lexeme itself, the Type of Token (Literal, Keyword, Identifier, etc.)
-	 	and the line no the lexeme appears in.
+	 	and the line no the lexeme appears in. Lexemes are made from the token buffer as the parser reads them.
 	 */
 
-	private ArrayList<Lexeme> tokenStream;
+	private TokenBuffer tokenBuffer;
+
+	/*
+	 Name Table
+	 	-every variable identifier is interned into the name table of the program while lexing, and its lexeme
+	 	carries the ID of the name (see NameTable). Symbol tables are keyed by these IDs.
+	 */
+
+	private NameTable nameTable;
+
+	/*
+	 Literal Pool
+	 	-string literals are decoded (escape sequences included) once while lexing, and their lexeme carries the
+	 	index of the decoded value in the literal pool of the program (see LiteralPool).
+	 */
+
+	private LiteralPool literalPool;
 
 	/*
 	 Mode
@@ -50,11 +76,19 @@ public class LexicalAnalyzer {
 
 	private Mode currentMode; //holds the mode currently in effect.
 
-	private BufferedReader br;
+	//number of characters per chunk when a source is lexed in parallel.
+	//sources that fit in one chunk are lexed sequentially.
+	public static int parallelChunkSize = 1 << 20;
+
+	//find the ends of words, strings and lines 8 characters at a time in memory mapped sources (see BoundaryScanner).
+	//when false, every character is looked at one at a time.
+	public static boolean wordScanning = true;
 
 	//Constructor Method
 	public LexicalAnalyzer(){
-		this.tokenStream = new ArrayList<Lexeme>();
+		this.nameTable = new NameTable();
+		this.literalPool = new LiteralPool();
+		this.tokenBuffer = new TokenBuffer("",this.nameTable,this.literalPool);
 		this.currentMode = Mode.DEFAULT;
 	}
 
@@ -62,52 +96,177 @@ public class LexicalAnalyzer {
 
 	//Creation of the Token Stream
 	public ArrayList<Lexeme> createTokenStream(File inputFile){
+		return createTokenStream(inputFile,false);
+	}
+
+	//Creation of the Token Stream (a lexeme for every token of the token buffer)
+	public ArrayList<Lexeme> createTokenStream(File inputFile,boolean memoryMapped){
+		return createTokenBuffer(inputFile,memoryMapped).toTokenStream();
+	}
+
+	/*
+	 Creation of the Token Buffer
+
+	 	memoryMapped - the file is mapped into memory with FileChannel.map and lexed straight from the
+	 	MappedByteBuffer. No reader, decoder or second copy of the file on the heap is used.
+	 	Otherwise the file is read into memory using a Buffered Reader.
+	 */
+	public TokenBuffer createTokenBuffer(File inputFile,boolean memoryMapped){
+		if(memoryMapped && inputFile.length() <= Integer.MAX_VALUE){
+			return createMappedTokenBuffer(inputFile);
+		}
+
+		try (BufferedReader br = new BufferedReader(
+				  new InputStreamReader(
+				  new FileInputStream(inputFile), StandardCharsets.ISO_8859_1))){
+
+			//read the contents of the file
+			StringBuilder text = new StringBuilder();
+			char[] chars = new char[8192];
+			int read;
+			while((read = br.read(chars)) != -1){
+				text.append(chars,0,read);
+			}
+
+			analyzeSource(text);
+
+		} catch (Exception e) {
+			System.out.println("An error occurred.");
+		}
+
+		//returns the created token buffer
+		return this.tokenBuffer;
+
+	}
+
+	/*
+	 Creation of a Token Source
+
+	 	Instead of lexing the whole input up front, the returned token source lexes the input line by line
+	 	as the parser asks for lexemes (see StreamingTokenSource). Used for input piped on stdin or
+	 	produced by a generator.
+	 */
+	public TokenSource createTokenSource(InputStream input){
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.ISO_8859_1));
+		return new StreamingTokenSource(this,this.tokenBuffer,reader);
+	}
+
+	/*
+	 Creation of the Token Buffer from the bytes of a source
+
+	 	The ISO-8859-1 bytes are lexed in place (see SourceText). Used when the caller needs the exact bytes that
+	 	were lexed, e.g. to hash them for the .lolc file of the source (see CompiledProgram).
+	 */
+	public TokenBuffer createTokenBuffer(ByteBuffer source){
+		analyzeSource(new SourceText(source.duplicate()));
+		return this.tokenBuffer;
+	}
+
+	//the bytes of a source file: mapped into memory with FileChannel.map, or read onto the heap
+	public static ByteBuffer readSource(File inputFile,boolean memoryMapped) throws IOException {
+		if(!(memoryMapped)){
+			return ByteBuffer.wrap(Files.readAllBytes(inputFile.toPath()));
+		}
+		try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)){
+			if(channel.size() > Integer.MAX_VALUE){
+				throw new IOException(inputFile + " is too large to be mapped");
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	//Creation of the Token Buffer from a memory mapped file
+	private TokenBuffer createMappedTokenBuffer(File inputFile){
 		try {
+			analyzeSource(new SourceText(readSource(inputFile,true)));
+		} catch (Exception e) {
+			System.out.println("An error occurred.");
+		}
+
+		//returns the created token buffer
+		return this.tokenBuffer;
+	}
 
-		//The Lexical Analyzer reads the files using Buffered Reader
+	//lex the whole source text into the token buffer
+	private void analyzeSource(CharSequence text){
+		this.tokenBuffer.clear(text);
 
-			br = new BufferedReader(
-					  new InputStreamReader(
-					  new FileInputStream(inputFile), "ISO-8859-1"));
+		int lineNo;
+		//large sources are split into chunks of lines that are lexed in parallel (see ParallelLexer)
+		if(ParallelLexer.shouldSplit(text)){
+			lineNo = ParallelLexer.analyze(text,this.tokenBuffer);
+		}else{
+			lineNo = analyzeText(text,0,text.length(),1);
+		}
 
+		//add an eof lexeme that will signify the end of the file
+		this.tokenBuffer.add(TokenType.END_OF_FILE,0,0,lineNo);
+	}
 
+	/*
+	 Analyze Text
 
-			String line;		//string of the contents of the line
+	 Splits the text from start to end into lines the same way BufferedReader.readLine() does (lines end with \n, \r or \r\n)
+	 and analyzes each line in place. The first line is numbered lineNo. Returns the line number after the last line.
+	 */
+	private int analyzeText(CharSequence text,int start,int end,int lineNo){
+		int lineStart = start;
 
-			int lineNo = 1; 	//tracks the line number (to be used for multiple line comparison
-								//and detecting the line number where error occurs)
+		while(lineStart < end){
+			//find the end of the line
+			int lineEnd = BoundaryScanner.nextLineBreak(text,lineStart,end);
+			char c = lineEnd < end ? text.charAt(lineEnd) : 0;
 
-			//read and analyze by line
-			while ((line = br.readLine()) != null) {
-				if(!(line.isEmpty())){
+			if(lineEnd > lineStart){
+				analyzeLine(text,lineStart,lineEnd,lineNo);
+			}
+			lineNo++;
 
+			//skip the line terminator
+			lineStart = lineEnd + 1;
+			if(c == '\r' && lineStart < end && text.charAt(lineStart) == '\n'){
+				lineStart++;
+			}
+		}
+		return lineNo;
+	}
 
-				//for each line, the contents are analyzed and detected lexemes are added into the arraylist
-            	  analyzeLine(line,lineNo);
+	//lex a part of a source text starting in the given mode into the token buffer (used by ParallelLexer)
+	int analyzeChunk(CharSequence text,int start,int end,Mode mode){
+		this.tokenBuffer.clear(text);
+		this.currentMode = mode;
+		return analyzeText(text,start,end,1) - 1;
+	}
 
+	//lex a single line starting in the given mode into a new token buffer (used by IncrementalTokenStream)
+	TokenBuffer analyzeLine(String line,Mode mode){
+		this.tokenBuffer = new TokenBuffer(line,this.nameTable,this.literalPool,TokenBuffer.LINE_CAPACITY);
+		this.currentMode = mode;
+		if(!(line.isEmpty())){
+			analyzeLine(line,0,line.length(),0);
+		}
+		return this.tokenBuffer;
+	}
 
-               		}
-				lineNo++;
-                }
-			//add an eof lexeme that will signify the end of the file
-			this.tokenStream.add(new Lexeme("EOF",TokenType.END_OF_FILE, Abstraction.KEYWORD,lineNo));
+	public NameTable getNameTable(){
+		return this.nameTable;
+	}
 
-	      } catch (Exception e) {
-	        System.out.println("An error occurred.");
-	      }
+	public LiteralPool getLiteralPool(){
+		return this.literalPool;
+	}
 
-		//returns the created tokenstream
-		return this.tokenStream;
+	Mode getMode(){
+		return this.currentMode;
+	}
 
+	TokenBuffer getTokenBuffer(){
+		return this.tokenBuffer;
 	}
 
 	//print the contents of the created table
 	public void print() {
-		System.out.format("%-20s%-15s%-15s\n","Type","Lexeme","Line No.");
-		for(Lexeme lexeme:this.tokenStream){
-			System.out.format("%-20s%-15s%-15s\n",lexeme.getClassifier(),lexeme.getValue(),lexeme.getLineNo());
-		}
-
+		this.tokenBuffer.print();
 	}
 
 
@@ -115,210 +274,218 @@ public class LexicalAnalyzer {
 	/*
 	 Analyze Line
 
-	 For each line, detect lexemes to be added into the tokenStream.
+	 For each line, detect lexemes to be added into the token buffer.
 
 	 */
-	private void analyzeLine(String line,int lineNo) {
+	void analyzeLine(CharSequence line,int lineStart,int lineEnd,int lineNo) {
 
 		/*
 		 Word
 
-		  		A word is a string that is used to determine a lexeme.
+		  		A word is a range of characters (wordStart up to the current index) that is used to determine a lexeme.
 		  	Keywords, Identifiers, Literals are detected as words first.
 
-		  		It will start as an empty string. Over time, as single characters are detected
-		  	they are concatenated to the word one by one. In default mode and multi comment mode, once the character
-		  	detected is a whitespace, the word is considered finished and is sent to match()
-		  	with patterns that determine the token type it has. If successful, a lexeme, with its type
-		  	and line no noted, will be created and added into the array list. the word is cleared
-		  	and the next character is added to it,until it finishes another word, and the cycle repeats until
-		  	the line has ended.
+		  		The line is walked by index. In default mode, once the character detected is a whitespace
+		  	(or the line ends), the word is considered finished and is sent to match() which classifies
+		  	it with the keyword trie. If successful, a lexeme, with its type and line no noted, will be created
+		  	and added into the token buffer. The next word starts after the whitespace, and the cycle repeats until
+		  	the line has ended. No String is made while lexing, the token buffer
+		  	only records where the word starts and ends. The characters inside a word are skipped by the
+		  	boundary scanner (see BoundaryScanner), only whitespace and double quotes are looked at.
 
 		  		LOLCODE has several keywords with multiple words on it. To detect multiple words,
-		  	match() sends back words that are 'lead ins' to the multiple words, hoping that the next word will match
-		  	to the keyword detected. For example if 'BIGGR' is detected, instead of classifying it as a variable identifier
-		  	it is sent back to analysis to add the next word, if the next detected word is 'OF', it will go to
-		  	match() as 'BIGGR OF' ,now detected as a keyword.
+		  	match() reports words that are 'lead ins' to the multiple words, and the word is kept open
+		  	(whitespace included) hoping that the next word will match to the keyword detected. For example if 'BIGGR'
+		  	is detected, instead of classifying it as a variable identifier the word is extended by the next word,
+		  	if the next detected word is 'OF', it will go to match() as 'BIGGR OF' ,now detected as a keyword.
+		  	If no keyword follows the lead in ('BIGGR x', or 'BIGGR' at the end of the line) its first word is
+		  	a variable identifier after all, and the words after it are matched again (see unmatchedLeadIn()).
+
+		  		In String mode, all subsequent characters are part of the word (even whitespace) until
+		  	the closing double quote, found with a bulk scan (an escaped double quote :" does not close the string, see isEscaped()).
+		  	Once default mode has returned, the word is classified as string literal when it ends, and its contents
+		  	are decoded into the literal pool.
 
-		  		In String mode, all subsequent characters are read (even whitespace) until
-		  	mode returns to default or line ends. This fills up the word string and once default mode has returned,
-		  	the word is automatically classified as string literal.
+		  		Comments are skipped in bulk. BTW ends the analysis of the line, and in multi line comment mode
+		  	the line is scanned for the word TLDR without classifying anything else.
 
 		  */
-		String word = "";
+		int wordStart = lineStart;		//start of the current word
+
+		int sym = lineStart;
+		while(sym < lineEnd){
 
-		//add a whitespace at the end of line so the last word will be detected as a word
-		//(whitespace is the indicator of the end of the word)
-		line = line + ' ';
+			//multi line comment mode: skip everything until the word TLDR
+			if(this.currentMode == Mode.MULTI_LINE_COMMENT){
+				sym = skipMultiLineComment(line,sym,lineEnd);
+				if(this.currentMode == Mode.MULTI_LINE_COMMENT){
+					return;
+				}
+				wordStart = sym;
+				continue;
+			}
 
-		//loop through every character in the line.
-		//each character will be used to determine if a word has been created
-		for(int sym = 0; sym < line.length(); sym++ ){
+			//string mode: whitespace is part of the word, the closing double quote returns to default mode
+			if(this.currentMode == Mode.STRING){
+				int quote = BoundaryScanner.nextQuote(line,sym,lineEnd);
+				if(quote < 0){
+					return;
+				}
+				//an escaped double quote (:") does not end the string
+				if(isEscaped(line,lineStart,quote)){
+					sym = quote + 1;
+					continue;
+				}
+				this.currentMode = Mode.DEFAULT;
+				sym = quote + 1;
+				continue;
+			}
+
+			//skip to the next whitespace or double quote, the characters before it are part of the word
+			sym = BoundaryScanner.nextBoundary(line,sym,lineEnd);
+			if(sym == lineEnd){
+				break;
+			}
 
 			//get the character at the specified index
 			char foundChar = line.charAt(sym);
 
-			/*
-			 Check Mode
-				The character can detect what mode is currently in use and it changes how words are counted.
-			 two of these modes can be detected by the current character.
+			//string mode starts when the character detected is a double quote
+			if(foundChar == '"'){
+				this.currentMode = Mode.STRING;
+				sym++;
+				continue;
+			}
+
+			//default mode: each whitespace marks end of word
+			if(KeywordTrie.isWhitespace(foundChar)){
+				int result = match(line,wordStart,sym,lineNo);
 
-			 */
-			checkMode(foundChar);
+				//a lead in no keyword follows: its first word stands alone, the words after it are matched again
+				if(result == KeywordTrie.NO_MATCH && wordStart < sym){
+					sym = unmatchedLeadIn(line,wordStart,sym,lineNo);
+				}
 
+				//keep the word open for the next word of the keyword
+				if(result != KeywordTrie.LEAD_IN){
+					wordStart = sym + 1;
+				}
 
-			//default and multiline comment mode: each whitespace marks end of word
-			if(this.currentMode == Mode.DEFAULT||this.currentMode == Mode.MULTI_LINE_COMMENT){
-				//defines end of word.
-				if(String.valueOf(foundChar).matches("\\s")){
-					word = match(word,lineNo);
-				}else{
-					word = word + foundChar;
+				//the rest of the line is a comment
+				if(this.currentMode == Mode.SINGLE_COMMENT){
+					break;
 				}
-			//string mode: whitespace is ignored
-			//when it returns to default mode, the word created will be matched as string literal.
-			}else if(this.currentMode == Mode.STRING){
-				word = word + foundChar;
 			}
+			sym++;
+		}
 
+		//the end of the line also marks the end of the word. a lead in still open is not a keyword, its words are
+		//matched one at a time
+		if(this.currentMode == Mode.DEFAULT){
+			int result = match(line,wordStart,lineEnd,lineNo);
+			while((result == KeywordTrie.LEAD_IN || result == KeywordTrie.NO_MATCH) && wordStart < lineEnd){
+				wordStart = unmatchedLeadIn(line,wordStart,lineEnd,lineNo);
+				while(wordStart < lineEnd && KeywordTrie.isWhitespace(line.charAt(wordStart))){
+					wordStart++;
+				}
+				result = match(line,wordStart,lineEnd,lineNo);
+			}
 		}
+
 		//turn to single comment mode to default mode after end of line.
 		if(this.currentMode == Mode.SINGLE_COMMENT){
 			this.currentMode = Mode.DEFAULT;
 		}
 
+	}
 
+	/*
+	 Unmatched Lead In
 
+	 A word kept open for a multiple word keyword that did not follow. Every lead in is made of letters, so its first
+	 word is a variable identifier (I HAS A IF declares IF), and the words after it are matched again. Returns the
+	 index of the whitespace after the first word.
+	 */
+	private int unmatchedLeadIn(CharSequence line,int wordStart,int wordEnd,int lineNo){
+		int firstEnd = wordStart;
+		while(firstEnd < wordEnd && !(KeywordTrie.isWhitespace(line.charAt(firstEnd)))){
+			firstEnd++;
+		}
+		this.tokenBuffer.add(TokenType.VAR_IDENTIFIER,wordStart,firstEnd,lineNo);
+		return firstEnd;
+	}
 
+	/*
+	 Skip Multi Line Comment
 
+	 Scans the words of the line from the given index for TLDR. If found, default mode returns and the index after
+	 TLDR is returned. Else the whole line is part of the comment.
+	 */
+	private int skipMultiLineComment(CharSequence line,int sym,int lineEnd){
+		while(sym < lineEnd){
+			//skip whitespace
+			while(sym < lineEnd && KeywordTrie.isWhitespace(line.charAt(sym))){
+				sym++;
+			}
+			//find the end of the word
+			int wordStart = sym;
+			while(sym < lineEnd && !KeywordTrie.isWhitespace(line.charAt(sym))){
+				sym++;
+			}
+			//handle comment
+			if(sym - wordStart == 4 && line.charAt(wordStart) == 'T' && line.charAt(wordStart + 1) == 'L' &&
+					line.charAt(wordStart + 2) == 'D' && line.charAt(wordStart + 3) == 'R'){
+				this.currentMode = Mode.DEFAULT;
+				return sym;
+			}
+		}
+		return lineEnd;
 	}
 
-
 	/*
-	 Check Mode
+	 Is Escaped
 
-	 string mode: this mode starts when the character detected is a double quote, and on default mode
-	default mode: this mode starts when the character detected is a double quote, and on string mode
+	 A double quote in a string is escaped if an odd number of colons is right before it (:: is an escaped colon).
+	 A string ending with a colon writes it as :: ("Get x::").
 	 */
-	private void checkMode(char sym){
-		String checkerChar = String.valueOf(sym);
-		if(checkerChar.matches("\"") && this.currentMode == Mode.DEFAULT){
-			this.currentMode = Mode.STRING;
-		}else if(checkerChar.matches("\"") && this.currentMode == Mode.STRING){
-			this.currentMode = Mode.DEFAULT;
+	private static boolean isEscaped(CharSequence line,int lineStart,int quote){
+		int colons = 0;
+		while(quote - colons > lineStart && line.charAt(quote - colons - 1) == ':'){
+			colons++;
 		}
+		return (colons & 1) == 1;
 	}
 
 	/*
 	 Match
 
-	 Detected words are matched into specific patterns that classify what kind of lexemes
-	 will be made.
-
-	 Has 2 modes:
-
-	 	 Default Mode - each detected word is match to each and every pattern and once
-	 	 finding a match a lexeme is created. No Match would not create a lexeme (this error will be detected in parsing)
+	 Detected words are classified by the keyword trie (see KeywordTrie) into the kind of lexeme
+	 that will be made. Only used on default mode: each detected word is walked through the keyword trie once and once
+	 finding a match a lexeme is created. No Match would not create a lexeme (a lead in that no keyword follows is
+ split by the caller, see unmatchedLeadIn())
 
-	 	 Multi Line Comment Mode -  No lexemes are created in this mode.
-	 	 		It ends once detected word matches to 'TLDR' which signifies the end of the comment
+	 Returns the result of the classification so lead ins can be detected.
 
 	*/
+	private int match(CharSequence line,int wordStart,int wordEnd,int lineNo) {
 
-	private String match(String word,int lineNo) {
-		//On default mode
-		if(this.currentMode == Mode.DEFAULT){
-
+		//classify the word in one pass over its characters
+		int result = KeywordTrie.classify(line,wordStart,wordEnd);
 
-			//Handle Strings.
-			if(word.matches("^\".*\"$")){
-			this.tokenStream.add(new Lexeme(word,TokenType.STR_LITERAL,Abstraction.LITERAL,lineNo));
-			}
+		if(result >= 0){
+			TokenType type = KeywordTrie.typeOf(result);
 
 			//Handle Comments
-			else if(word.matches("^BTW$")) this.currentMode = Mode.SINGLE_COMMENT;
-			else if(word.matches("^OBTW$")) this.currentMode = Mode.MULTI_LINE_COMMENT;
-
-			//Handle Numbers.
-			else if(word.matches("^-?\\d+$")) this.tokenStream.add(new Lexeme(word,TokenType.INT_LITERAL,Abstraction.LITERAL,lineNo));
-			else if(word.matches("^-?\\d*\\.\\d+$")) this.tokenStream.add(new Lexeme(word,TokenType.FLOAT_LITERAL,Abstraction.LITERAL,lineNo));
-
-			//Handle Boolean
-			else if(word.matches("^WIN$")) this.tokenStream.add(new Lexeme(word,TokenType.BOOL_TRUE,Abstraction.LITERAL,lineNo));
-			else if(word.matches("^FAIL$")) this.tokenStream.add(new Lexeme(word,TokenType.BOOL_FALSE,Abstraction.LITERAL,lineNo));
-
-
-			//single line keywords
-
-			//program definition
-			else if(word.matches("^HAI$"))this.tokenStream.add(new Lexeme(word,TokenType.PROGRAM_START,Abstraction.PROGRAM,lineNo));
-			else if(word.matches("^KTHXBYE$")) this.tokenStream.add(new Lexeme(word,TokenType.PROGRAM_END,Abstraction.PROGRAM,lineNo));
-			//I/O
-			else if(word.matches("^VISIBLE$")) this.tokenStream.add(new Lexeme(word,TokenType.PRINT,Abstraction.STATEMENT_STARTER,lineNo));
-			else if(word.matches("^GIMMEH$")) this.tokenStream.add(new Lexeme(word,TokenType.USER_INPUT,Abstraction.STATEMENT_STARTER,lineNo));
-			//Variables
-			else if(word.matches("^ITZ$")) this.tokenStream.add(new Lexeme(word,TokenType.VAR_INITIALIZE,Abstraction.KEYWORD,lineNo));
-			else if(word.matches("^IT$")) this.tokenStream.add(new Lexeme(word,TokenType.VAR_IMPLICIT,Abstraction.VARIABLE,lineNo));
-			else if(word.matches("^R$")) this.tokenStream.add(new Lexeme(word,TokenType.ASSIGNMENT,Abstraction.KEYWORD,lineNo));
-			//Data Types
-			else if(word.matches("^NOOB$")) this.tokenStream.add(new Lexeme(word,TokenType.DATATYPE_NONE,Abstraction.DATATYPE,lineNo));
-			else if(word.matches("^NUMBR$")) this.tokenStream.add(new Lexeme(word,TokenType.DATATYPE_INT,Abstraction.DATATYPE,lineNo));
-			else if(word.matches("^NUMBAR$")) this.tokenStream.add(new Lexeme(word,TokenType.DATATYPE_FLOAT,Abstraction.DATATYPE,lineNo));
-			else if(word.matches("^YARN$")) this.tokenStream.add(new Lexeme(word,TokenType.DATATYPE_STRING,Abstraction.DATATYPE,lineNo));
-			else if(word.matches("^TROOF$")) this.tokenStream.add(new Lexeme(word,TokenType.DATATYPE_BOOLEAN,Abstraction.DATATYPE,lineNo));
-			//Operations
-			else if(word.matches("^AN$")) this.tokenStream.add(new Lexeme(word,TokenType.EXPR_OP_SEPARATOR,Abstraction.KEYWORD,lineNo));
-			else if(word.matches("^NOT$")) this.tokenStream.add(new Lexeme(word,TokenType.BOOL_NOT,Abstraction.BOOLEAN_OPERATOR,lineNo));
-			else if(word.matches("^MKAY$")) this.tokenStream.add(new Lexeme(word,TokenType.BOOL_INF_END,Abstraction.KEYWORD,lineNo));
-			else if(word.matches("^SMOOSH$")) this.tokenStream.add(new Lexeme(word,TokenType.STR_CONCAT,Abstraction.KEYWORD,lineNo));
-			else if(word.matches("^DIFFRINT$")) this.tokenStream.add(new Lexeme(word,TokenType.COMP_NOT_EQUAL,Abstraction.COMPARISON_OPERATOR,lineNo));
-			//Control Flow
-			else if(word.matches("^MEBBE$")) this.tokenStream.add(new Lexeme(word,TokenType.CTRL_ELSEIF,Abstraction.JUMP,lineNo));
-			else if(word.matches("^WTF\\?$")) this.tokenStream.add(new Lexeme(word,TokenType.CTRL_SWITCH,Abstraction.JUMP,lineNo));
-			else if(word.matches("^OMG$")) this.tokenStream.add(new Lexeme(word,TokenType.CTRL_CASE,Abstraction.JUMP,lineNo));
-			else if(word.matches("^OMGWTF$")) this.tokenStream.add(new Lexeme(word,TokenType.CTRL_CASE_DEFAULT,Abstraction.JUMP,lineNo));
-			else if(word.matches("^GTFO$")) this.tokenStream.add(new Lexeme(word,TokenType.BREAK,Abstraction.JUMP,lineNo));
-			else if(word.matches("^OIC$")) this.tokenStream.add(new Lexeme(word,TokenType.CTRL_END,Abstraction.JUMP,lineNo));
-			//TypeCasting
-			else if(word.matches("^MAEK$"))this.tokenStream.add(new Lexeme(word,TokenType.TYPECAST,Abstraction.KEYWORD,lineNo));
-			else if(word.matches("^A$"))this.tokenStream.add(new Lexeme(word,TokenType.TYPECAST_SEPARATOR,Abstraction.KEYWORD,lineNo));
-			//the current word is on the way of being a keyword and is returned to pick up the next word.
-			else if (word.matches("^I\\s*$|^I\\s+HAS\\s*$")) return word + " ";
-			else if(word.matches("^SUM\\s*$|^DIFF\\s*$|^PRODUKT\\s*$|^QUOSHUNT\\s*$|^MOD\\s*$|^BIGGR\\s*$|^SMALLR\\s*$")) return word + " ";
-			else if(word.matches("^BOTH\\s*$|^EITHER\\s*$|^WON\\s*$|^ALL\\s*$|^ANY\\s*$|^O\\s*$|^YA\\s*$|^NO\\s*$")) return word + " ";
-			//multi line keywords
-
-			//Variables
-			else if(word.matches("^I\\s+HAS\\s+A\\s*$"))this.tokenStream.add(new Lexeme(word,TokenType.VAR_DECLARE,Abstraction.STATEMENT_STARTER,lineNo));
-			//Operations
-			else if(word.matches("^SUM\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.EXPR_ADD,Abstraction.ARITHMETIC_OPERATOR,lineNo));
-			else if(word.matches("^DIFF\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.EXPR_SUB,Abstraction.ARITHMETIC_OPERATOR,lineNo));
-			else if(word.matches("^PRODUKT\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.EXPR_MUL,Abstraction.ARITHMETIC_OPERATOR,lineNo));
-			else if(word.matches("^QUOSHUNT\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.EXPR_DIV,Abstraction.ARITHMETIC_OPERATOR,lineNo));
-			else if(word.matches("^MOD\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.EXPR_MOD,Abstraction.ARITHMETIC_OPERATOR,lineNo));
-			else if(word.matches("^BIGGR\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.EXPR_MAX,Abstraction.ARITHMETIC_OPERATOR,lineNo));
-			else if(word.matches("^SMALLR\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.EXPR_MIN,Abstraction.ARITHMETIC_OPERATOR,lineNo));
-			else if(word.matches("^BOTH\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.BOOL_AND,Abstraction.BOOLEAN_OPERATOR,lineNo));
-			else if(word.matches("^EITHER\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.BOOL_OR,Abstraction.BOOLEAN_OPERATOR,lineNo));
-			else if(word.matches("^WON\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.BOOL_XOR,Abstraction.BOOLEAN_OPERATOR,lineNo));
-			else if(word.matches("^ALL\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.BOOL_INF_AND,Abstraction.BOOL_INF_OPERATOR,lineNo));
-			else if(word.matches("^ANY\\s+OF$"))this.tokenStream.add(new Lexeme(word,TokenType.BOOL_INF_OR,Abstraction.BOOL_INF_OPERATOR,lineNo));
-			else if(word.matches("^BOTH\\s+SAEM$"))this.tokenStream.add(new Lexeme(word,TokenType.COMP_EQUAL,Abstraction.COMPARISON_OPERATOR,lineNo));
-			//Control Flow
-			else if(word.matches("^O\\s+RLY\\?$"))this.tokenStream.add(new Lexeme(word,TokenType.CTRL_IF_THEN,Abstraction.STATEMENT_STARTER,lineNo));
-			else if(word.matches("^YA\\s+RLY$"))this.tokenStream.add(new Lexeme(word,TokenType.CTRL_IF,Abstraction.JUMP,lineNo));
-			else if(word.matches("^NO\\s+WAI$"))this.tokenStream.add(new Lexeme(word,TokenType.CTRL_ELSE,Abstraction.JUMP,lineNo));
-
-			//variable(Starts with a letter)
-			else if(word.matches("^[a-zA-Z_]+[a-zA-Z0-9_]*$")) this.tokenStream.add(new Lexeme(word,TokenType.VAR_IDENTIFIER,Abstraction.VARIABLE,lineNo));
-			//unknowns
-			else if(word.matches("^[^\\s]+$"))this.tokenStream.add(new Lexeme(word,TokenType.UNKNOWN_KEYWORD,Abstraction.KEYWORD,lineNo));
-		//on multiline comment mode.
-		}else if(this.currentMode == Mode.MULTI_LINE_COMMENT){
-			//handle comment
-			if(word.matches("^TLDR$")) this.currentMode = Mode.DEFAULT;
+			if(type == TokenType.SINGLE_COMMENT){
+				this.currentMode = Mode.SINGLE_COMMENT;
+			}else if(type == TokenType.MULTI_COMMENT_START){
+				this.currentMode = Mode.MULTI_LINE_COMMENT;
+			//keywords, literals, variables and unknowns
+			}else{
+				this.tokenBuffer.add(type,wordStart,wordEnd,lineNo);
+			}
 		}
-		//return empty string after successful use of match
-		return "";
+
+		return result;
 	}
 }
@@ -0,0 +1,129 @@
+package lexicalanalyzer;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import lexicalanalyzer.LexicalAnalyzer.Mode;
+
+/*
+ Parallel Lexer
+
+ 	Lexes a large source text on the ForkJoin pool. The text is split into chunks at line boundaries
+ (see LexicalAnalyzer.parallelChunkSize) and each chunk is lexed by its own lexical analyzer, assuming it starts
+ in default mode and with its first line numbered 1.
+
+ 	Reconciliation: a chunk may actually begin inside a multi line comment (OBTW ... TLDR) or a string literal
+ left open by the chunk before it. Going through the chunks in order, the mode each chunk really starts in is the
+ mode the chunk before it ended in. Any chunk whose guess was wrong is lexed again in the right mode. Chunks are
+ then merged in order with their line numbers shifted by the lines of the chunks before them, so the result is
+ the same token stream sequential lexing would give. Each chunk interns its variable names and string literals into
+ its own name table and literal pool, they get their IDs in the program's as the chunks are merged.
+
+ */
+final class ParallelLexer {
+
+	private ParallelLexer(){
+	}
+
+	//the source is split if it is larger than one chunk and there is more than one core to lex it with
+	static boolean shouldSplit(CharSequence text){
+		return text.length() > LexicalAnalyzer.parallelChunkSize && ForkJoinPool.getCommonPoolParallelism() > 1;
+	}
+
+	//lex the text into the token buffer. returns the line number after the last line.
+	static int analyze(CharSequence text,TokenBuffer tokenBuffer){
+		ArrayList<Chunk> chunks = split(text);
+
+		//lex every chunk in parallel assuming default mode
+		ForkJoinPool.commonPool().invoke(new LexChunks(chunks,0,chunks.size()));
+
+		int lineNo = 1;
+		Mode mode = Mode.DEFAULT;
+		for(Chunk chunk:chunks){
+			//reconcile chunks that start inside a comment or string
+			if(chunk.startMode != mode){
+				chunk.lex(mode);
+			}
+
+			tokenBuffer.append(chunk.lexicalAnalyzer.getTokenBuffer(),lineNo - 1);
+			lineNo += chunk.lineCount;
+			mode = chunk.endMode;
+
+			//the chunk is no longer needed
+			chunk.lexicalAnalyzer = null;
+		}
+		return lineNo;
+	}
+
+	//split the text into chunks that end right after a line terminator
+	private static ArrayList<Chunk> split(CharSequence text){
+		ArrayList<Chunk> chunks = new ArrayList<Chunk>();
+		int length = text.length();
+		int start = 0;
+
+		while(start < length){
+			int end = Math.min(start + LexicalAnalyzer.parallelChunkSize, length);
+
+			//move the end of the chunk to the end of the line (\r\n is never split)
+			while(end < length && text.charAt(end - 1) != '\n' &&
+					!(text.charAt(end - 1) == '\r' && text.charAt(end) != '\n')){
+				end++;
+			}
+
+			chunks.add(new Chunk(text,start,end));
+			start = end;
+		}
+		return chunks;
+	}
+
+	//a range of whole lines of the source
+	private static class Chunk {
+		private CharSequence text;
+		private int start;
+		private int end;
+
+		private LexicalAnalyzer lexicalAnalyzer;	//holds the tokens of the chunk
+		private Mode startMode;						//mode the chunk was lexed in
+		private Mode endMode;						//mode at the end of the chunk
+		private int lineCount;						//number of lines in the chunk
+
+		Chunk(CharSequence text,int start,int end) {
+			this.text = text;
+			this.start = start;
+			this.end = end;
+		}
+
+		void lex(Mode mode){
+			this.lexicalAnalyzer = new LexicalAnalyzer();
+			this.startMode = mode;
+			this.lineCount = this.lexicalAnalyzer.analyzeChunk(this.text,this.start,this.end,mode);
+			this.endMode = this.lexicalAnalyzer.getMode();
+		}
+	}
+
+	//lex a range of chunks, dividing the range until a single chunk is left
+	private static class LexChunks extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private ArrayList<Chunk> chunks;
+		private int from;
+		private int to;
+
+		LexChunks(ArrayList<Chunk> chunks,int from,int to) {
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from == 1){
+				this.chunks.get(this.from).lex(Mode.DEFAULT);
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new LexChunks(this.chunks,this.from,middle),new LexChunks(this.chunks,middle,this.to));
+		}
+	}
+}
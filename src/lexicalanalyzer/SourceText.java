@@ -0,0 +1,58 @@
+package lexicalanalyzer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ Source Text
+
+ 	A read only view of ISO-8859-1 encoded source code held in a ByteBuffer (usually a MappedByteBuffer of the
+ .lol file). Since ISO-8859-1 uses one byte per character, every byte is a character and no decoding step is needed,
+ so the lexical analyzer can read the characters straight from the buffer without a copy of the file on the heap.
+
+ */
+public class SourceText implements CharSequence {
+
+	private final ByteBuffer buffer;	//source bytes
+	private final int offset;			//index of the first character in the buffer
+	private final int length;			//number of characters
+	private final ByteBuffer words;		//little endian view of the buffer, 8 characters at a time (see BoundaryScanner)
+
+	public SourceText(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.offset = buffer.position();
+		this.length = buffer.remaining();
+		this.words = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	public int length() {
+		return this.length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return (char)(this.buffer.get(this.offset + index) & 0xFF);
+	}
+
+	//the characters from index to index + 7 as a long, the first character in the lowest byte
+	long getLong(int index) {
+		return this.words.getLong(this.offset + index);
+	}
+
+	//creates the string of the characters from start to end (the only copy made from the buffer)
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		char[] chars = new char[end - start];
+		for(int i = start; i < end; i++){
+			chars[i - start] = charAt(i);
+		}
+		return new String(chars);
+	}
+
+	@Override
+	public String toString() {
+		return subSequence(0,this.length).toString();
+	}
+
+}
@@ -0,0 +1,91 @@
+package lexicalanalyzer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import symboltable.LiteralPool;
+import symboltable.NameTable;
+
+/*
+ Streaming Token Source
+
+ 	Lexes its input one line at a time, only when the parser asks for a lexeme and every lexeme of the
+ previously read line has been handed out. Only the lexemes of the current line are held in memory,
+ so input piped on stdin or produced by a generator can be executed without lexing the whole program first (the
+ parser runs each statement once it is parsed, see parser.Parser.stream()).
+
+ 	The lexical analyzer keeps its mode between lines (multi line comments and strings spanning lines
+ are handled the same way as in createTokenStream()).
+ */
+public class StreamingTokenSource implements TokenSource {
+
+	private LexicalAnalyzer lexicalAnalyzer;	//lexes the lines read
+	private TokenBuffer lineTokens;				//tokens of the current line (the lexical analyzer's token buffer)
+	private int index;							//index of the next lexeme to hand out
+	private BufferedReader br;					//input
+	private int lineNo;							//line number of the next line to read
+	private boolean endOfFile;					//the EOF lexeme has been added
+
+	StreamingTokenSource(LexicalAnalyzer lexicalAnalyzer, TokenBuffer lineTokens, BufferedReader br) {
+		this.lexicalAnalyzer = lexicalAnalyzer;
+		this.lineTokens = lineTokens;
+		this.br = br;
+		this.index = 0;
+		this.lineNo = 1;
+		this.endOfFile = false;
+	}
+
+	@Override
+	public NameTable getNameTable() {
+		return this.lineTokens.getNameTable();
+	}
+
+	@Override
+	public LiteralPool getLiteralPool() {
+		return this.lineTokens.getLiteralPool();
+	}
+
+	@Override
+	public boolean hasNext() {
+		//lex lines until a lexeme is found or the input ends
+		while(this.index == this.lineTokens.size() && !(this.endOfFile)){
+			this.index = 0;
+			readNextLine();
+		}
+		return this.index < this.lineTokens.size();
+	}
+
+	@Override
+	public Lexeme next() {
+		if(!(hasNext())){
+			throw new NoSuchElementException();
+		}
+		return this.lineTokens.getLexeme(this.index++);
+	}
+
+	//read and analyze the next line. at the end of the input the eof lexeme is added
+	private void readNextLine() {
+		String line = null;
+		try {
+			line = this.br.readLine();
+		} catch (IOException e) {
+			System.out.println("An error occurred.");
+		}
+
+		//forget the tokens already handed out
+		this.lineTokens.clear(line == null ? "" : line);
+
+		if(line == null){
+			this.lineTokens.add(TokenType.END_OF_FILE,0,0,this.lineNo);
+			this.endOfFile = true;
+			return;
+		}
+
+		if(!(line.isEmpty())){
+			this.lexicalAnalyzer.analyzeLine(line,0,line.length(),this.lineNo);
+		}
+		this.lineNo++;
+	}
+
+}
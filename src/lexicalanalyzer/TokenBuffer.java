@@ -0,0 +1,265 @@
+package lexicalanalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import parser.Abstraction;
+import symboltable.LiteralPool;
+import symboltable.NameTable;
+
+/*
+ Token Buffer
+
+ 	A packed token stream. Instead of one Lexeme object per token, the tokens are stored as parallel arrays:
+ 	-kinds: the ordinal of the token type (the abstraction is determined by the token type)
+ 	-lines: the line no the token appears in
+ 	-starts and ends: the offsets of the token in the source text
+ 	-ids: the ID of variable names in the name table, the index of string literals in the literal pool
+ 	(NameTable.NONE for other tokens)
+
+ 	The value of a token is only made into a String when it is asked for (see getValue()).
+ A cursor hands the tokens to the parser as lexemes one at a time, so only the lexemes the parser is
+ currently looking at exist as objects.
+
+ */
+public class TokenBuffer {
+
+	private static final TokenType[] TYPES = TokenType.values();
+	private static final int INITIAL_CAPACITY = 64;
+	static final int LINE_CAPACITY = 4;			//initial capacity of a buffer holding a single line
+
+	private CharSequence source;	//text the offsets refer to
+	private short[] kinds;			//token type ordinals
+	private int[] lines;			//line numbers
+	private int[] starts;			//start offsets in the source
+	private int[] ends;				//end offsets in the source
+	private int[] ids;				//name IDs
+	private int size;				//number of tokens
+	private NameTable names;		//names of the variables
+	private LiteralPool literals;	//decoded string literals
+
+	public TokenBuffer(CharSequence source,NameTable names,LiteralPool literals) {
+		this(source,names,literals,INITIAL_CAPACITY);
+	}
+
+	TokenBuffer(CharSequence source,NameTable names,LiteralPool literals,int capacity) {
+		this.source = source;
+		this.names = names;
+		this.literals = literals;
+		this.kinds = new short[capacity];
+		this.lines = new int[capacity];
+		this.starts = new int[capacity];
+		this.ends = new int[capacity];
+		this.ids = new int[capacity];
+		this.size = 0;
+	}
+
+	//a token buffer over arrays that are already filled (see CompiledProgram)
+	TokenBuffer(CharSequence source,NameTable names,LiteralPool literals,short[] kinds,int[] lines,int[] starts,int[] ends,
+			int[] ids,int size) {
+		this.source = source;
+		this.names = names;
+		this.literals = literals;
+		this.kinds = kinds;
+		this.lines = lines;
+		this.starts = starts;
+		this.ends = ends;
+		this.ids = ids;
+		this.size = size;
+	}
+
+	//number of tokens in the buffer
+	public int size(){
+		return this.size;
+	}
+
+	public TokenType getClassifier(int index){
+		return TYPES[this.kinds[index]];
+	}
+
+	public Abstraction getAbstraction(int index){
+		return KeywordTrie.abstractionOf(getClassifier(index));
+	}
+
+	public int getLineNo(int index){
+		return this.lines[index];
+	}
+
+	public int getId(int index){
+		return this.ids[index];
+	}
+
+	public NameTable getNameTable(){
+		return this.names;
+	}
+
+	public LiteralPool getLiteralPool(){
+		return this.literals;
+	}
+
+	/*
+	 Get Value
+
+	 	Makes the value of the token from the source text. Whitespace between the words of a multiple word
+	 keyword becomes a single space each (only string literals keep their whitespace as is).
+	 Variable names are taken from the name table.
+	 */
+	public String getValue(int index){
+		TokenType type = getClassifier(index);
+		if(type == TokenType.END_OF_FILE){
+			return "EOF";
+		}
+		if(type == TokenType.VAR_IDENTIFIER || type == TokenType.VAR_IMPLICIT){
+			return this.names.getName(this.ids[index]);
+		}
+
+		int start = this.starts[index];
+		int end = this.ends[index];
+		if(type == TokenType.STR_LITERAL){
+			return this.source.subSequence(start,end).toString();
+		}
+
+		char[] value = new char[end - start];
+		for(int i = start; i < end; i++){
+			char c = this.source.charAt(i);
+			value[i - start] = KeywordTrie.isWhitespace(c) ? ' ' : c;
+		}
+		return new String(value);
+	}
+
+	//the text of the token in the source, as is
+	String getText(int index){
+		return this.source.subSequence(this.starts[index],this.ends[index]).toString();
+	}
+
+	//create the lexeme of a token
+	public Lexeme getLexeme(int index){
+		TokenType type = getClassifier(index);
+		return new Lexeme(getValue(index),type,KeywordTrie.abstractionOf(type),this.lines[index],this.ids[index]);
+	}
+
+	//create a lexeme for every token (the token stream of createTokenStream())
+	public ArrayList<Lexeme> toTokenStream(){
+		ArrayList<Lexeme> tokenStream = new ArrayList<Lexeme>(this.size);
+		for(int i = 0; i < this.size; i++){
+			tokenStream.add(getLexeme(i));
+		}
+		return tokenStream;
+	}
+
+	//a token source that hands out the tokens from first to last
+	public TokenSource cursor(){
+		return new Cursor();
+	}
+
+	//add a token found from start to end of the source. variable names are interned into the name table,
+	//string literals are decoded into the literal pool
+	void add(TokenType type,int start,int end,int lineNo){
+		ensureCapacity(this.size + 1);
+		this.kinds[this.size] = (short)type.ordinal();
+		this.lines[this.size] = lineNo;
+		this.starts[this.size] = start;
+		this.ends[this.size] = end;
+		if(type == TokenType.VAR_IDENTIFIER){
+			this.ids[this.size] = this.names.intern(this.source,start,end);
+		}else if(type == TokenType.VAR_IMPLICIT){
+			this.ids[this.size] = NameTable.IT;
+		}else if(type == TokenType.STR_LITERAL){
+			this.ids[this.size] = this.literals.intern(this.source,start + 1,end - 1);
+		}else{
+			this.ids[this.size] = NameTable.NONE;
+		}
+		this.size++;
+	}
+
+	/*
+	 Append
+
+	 	Adds all tokens of another buffer over the same source, their line numbers shifted by lineOffset.
+	 The names and literals of the other buffer are interned into this buffer's name table and literal pool in the
+	 order of their IDs, so appending buffers in source order gives the same IDs as lexing the whole source with one
+	 name table and literal pool.
+	 */
+	void append(TokenBuffer other,int lineOffset){
+		//IDs of the other name table in this name table
+		int[] remap = new int[other.names.size()];
+		for(int id = 0; id < remap.length; id++){
+			String name = other.names.getName(id);
+			remap[id] = this.names.intern(name,0,name.length());
+		}
+		int[] remapLiterals = new int[other.literals.size()];
+		for(int index = 0; index < remapLiterals.length; index++){
+			remapLiterals[index] = this.literals.intern(other.literals.getString(index));
+		}
+
+		ensureCapacity(this.size + other.size);
+		System.arraycopy(other.kinds, 0, this.kinds, this.size, other.size);
+		System.arraycopy(other.starts, 0, this.starts, this.size, other.size);
+		System.arraycopy(other.ends, 0, this.ends, this.size, other.size);
+		for(int i = 0; i < other.size; i++){
+			this.lines[this.size + i] = other.lines[i] + lineOffset;
+			if(other.ids[i] == NameTable.NONE){
+				this.ids[this.size + i] = NameTable.NONE;
+			}else if(other.kinds[i] == TokenType.STR_LITERAL.ordinal()){
+				this.ids[this.size + i] = remapLiterals[other.ids[i]];
+			}else{
+				this.ids[this.size + i] = remap[other.ids[i]];
+			}
+		}
+		this.size += other.size;
+	}
+
+	//print every token
+	public void print() {
+		System.out.format("%-20s%-15s%-15s\n","Type","Lexeme","Line No.");
+		for(int i = 0; i < this.size; i++){
+			System.out.format("%-20s%-15s%-15s\n",getClassifier(i),getValue(i),getLineNo(i));
+		}
+	}
+
+	private void ensureCapacity(int capacity){
+		if(capacity > this.kinds.length){
+			capacity = Math.max(capacity, this.kinds.length * 2);
+			this.kinds = Arrays.copyOf(this.kinds, capacity);
+			this.lines = Arrays.copyOf(this.lines, capacity);
+			this.starts = Arrays.copyOf(this.starts, capacity);
+			this.ends = Arrays.copyOf(this.ends, capacity);
+			this.ids = Arrays.copyOf(this.ids, capacity);
+		}
+	}
+
+	//remove all tokens and refer to a new source text (the name table is kept)
+	void clear(CharSequence source){
+		this.source = source;
+		this.size = 0;
+	}
+
+	private class Cursor implements TokenSource {
+		private int index = 0;	//index of the next token
+
+		@Override
+		public NameTable getNameTable() {
+			return names;
+		}
+
+		@Override
+		public LiteralPool getLiteralPool() {
+			return literals;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.index < size;
+		}
+
+		@Override
+		public Lexeme next() {
+			if(!(hasNext())){
+				throw new NoSuchElementException();
+			}
+			return getLexeme(this.index++);
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package lexicalanalyzer;
+
+import java.util.Iterator;
+
+import symboltable.LiteralPool;
+import symboltable.NameTable;
+
+/*
+ Token Source
+
+ 	A source of lexemes that the parser pulls from one lexeme at a time (see Parser.moveToNextLexeme()).
+ Unlike the token stream created by createTokenStream(), a token source does not need to hold every lexeme
+ of the program: it may lex its input on demand as lexemes are asked for.
+
+ 	next() throws NoSuchElementException once the END_OF_FILE lexeme has been returned.
+ */
+public interface TokenSource extends Iterator<Lexeme> {
+
+	//the name table the IDs of the variable lexemes refer to
+	NameTable getNameTable();
+
+	//the literal pool the indexes of the string literal lexemes refer to
+	LiteralPool getLiteralPool();
+
+}
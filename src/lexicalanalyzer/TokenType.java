@@ -69,6 +69,18 @@ public enum TokenType {
 	CTRL_CASE_DEFAULT,
 	CTRL_END,
 
+	LOOP_START,				//IM IN YR <label>
+	LOOP_END,				//IM OUTTA YR <label>
+	LOOP_INCREMENT,			//UPPIN
+	LOOP_DECREMENT,			//NERFIN
+	LOOP_UNTIL,				//TIL
+	LOOP_WHILE,				//WILE
+	VAR_MARKER,				//YR marks a variable (the loop variable, parameters and arguments)
+
+	FUNC_DEFINE,			//HOW IZ I <name>
+	FUNC_END,				//IF U SAY SO
+	FUNC_RETURN,			//FOUND YR
+	FUNC_CALL,				//I IZ <name>
 
 	TYPECAST,				//MAEK
 	TYPECAST_SEPARATOR, 	//A
@@ -7,6 +7,7 @@ public enum Abstraction {
 	ARITHMETIC_OPERATOR,		//EXPRESSION Keywords
 	BOOLEAN_OPERATOR,
 	BOOL_INF_OPERATOR,
+	FUNCTION_CALL,				//I IZ, a call is used like an expression
 	COMPARISON_OPERATOR,
 	JUMP,						//IF ELSE, SWITCH CASE, LOOP, FUNCTION Keywords
 	DATATYPE,					//Datatypes
@@ -1,81 +1,183 @@
 package parser;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.concurrent.TimeUnit;
 
 import lexicalanalyzer.Lexeme;
+import lexicalanalyzer.TokenSource;
 import lexicalanalyzer.TokenType;
+import parser.ast.ArithmeticExpression;
+import parser.ast.AssignStatement;
+import parser.ast.Block;
+import parser.ast.BoolInfExpression;
+import parser.ast.BreakStatement;
+import parser.ast.CallExpression;
+import parser.ast.BooleanExpression;
+import parser.ast.ComparisonExpression;
+import parser.ast.DeclareStatement;
+import parser.ast.ErrorStatement;
+import parser.ast.Expression;
+import parser.ast.ExpressionStatement;
+import parser.ast.FunctionDefinition;
+import parser.ast.IfThenStatement;
+import parser.ast.InputStatement;
+import parser.ast.LiteralExpression;
+import parser.ast.LoopStatement;
+import parser.ast.PrintStatement;
+import parser.ast.Program;
+import parser.ast.ReturnStatement;
+import parser.ast.Statement;
+import parser.ast.SwitchStatement;
+import parser.ast.VariableExpression;
+import semanticanalyzer.Checker;
+import semanticanalyzer.Interpreter;
+import semanticanalyzer.Resolver;
 import semanticanalyzer.SemanticAnalyzer;
+import symboltable.LiteralPool;
+import symboltable.NameTable;
 import symboltable.Symbol;
 import symboltable.SymbolTable;
+import trace.Trace;
+import trace.TraceDecoder;
+import trace.TraceEvent;
 import user.Main;
+import vm.BytecodeProgram;
+import vm.ClassEngine;
+import vm.Compiler;
 
 /*
  Parser
 
-		This Parser takes the token stream and does 3 things.
+		This Parser takes the token stream and does 2 things.
 	(1) Check if the the token stream is syntactically correct.
-	(2) Construct and Populate the Symbol Table
-	(3) Facilitate Semantic Analysis by calling methods from semantic analyzer in order to conduct both syntactic
-	and semantic analysis at the same time (thereby immediately executing commands once certain statements are
-	considered valid).
+	(2) Build the syntax tree of the program (see parser.ast).
 
+		The tree is run afterwards by the Interpreter, or compiled and run as a JVM class (see vm.Compiler and
+	vm.ClassEngine). start() does both. Nothing is run while the tree is built, so statements in branches that are not taken are
+	checked as well.
+
+		Functions can be called before they are defined: calls are bound to their functions once the whole program
+	is parsed.
+
+		stream() runs the program body as it is parsed instead, for a program read from a token source that lets its
+	tokens go (a program piped on stdin, see lexicalanalyzer.StreamingTokenSource). Each statement of the body is
+	resolved and run on the Interpreter once it is parsed, then let go, so only the functions are kept. A statement
+	is held (with the ones after it) while a call parsed so far is not bound to a function: a program that calls a
+	function before defining it is parsed further before it runs, up to the whole program if the function is never
+	defined.
+
+		The parser stops at the first syntax error. The error is put in the tree where it was found, so the statements
+	before it still run first when the program is run.
+
+		The steps of the parser are recorded in the Trace of the thread (see trace.Trace), with the line and index of
+	the current token. In debug mode the trace is printed once the program is parsed.
+
+		check() parses without running anything. There the parser does not stop at a syntax error: the error is kept,
+	the rest of its line is skipped and parsing goes on from the next line, so every error of the program is found. A
+	program that ends inside blocks has an error for each block that is not closed, besides the missing KTHXBYE.
 
 */
 
 public class Parser {
-	private ArrayList<Lexeme> tokenStream; 	//tokens from lexical analyzer
 	private boolean valid;					//dictates whether the token stream is still valid or not.
-	private boolean errorDetected;			//detects if an error has been detected. (halts printing of other errors due to the parser's stack based nature.
-	private Iterator<Lexeme> iter;			//iterator
+	private boolean errorDetected;			//detects if an error has been detected. (halts recording of other errors due to the parser's stack based nature.
+	private Iterator<Lexeme> iter;			//iterator over the tokens from the lexical analyzer
 	private Lexeme current;					//current lexeme being checked
 	private Lexeme next;					//next lexeme being checked
-
-	private SymbolTable global;				//symbol table that holds global variables.
-	private int depth;						//depth of code blocks. 0 - global. 1 - local to global, 2 - local to local to global , and so on
+	private int previousLineNo;				//line of the lexeme before the current one
+	private int tokenIndex;					//index of the current lexeme in the token stream
+	private Trace trace;					//trace of the thread, null if tracing is off
+
+	private NameTable names;				//names of the variables of the program
+	private LiteralPool literals;			//string literals of the program
+	private int breakDepth;					//number of WTF? and loop statements being parsed (GTFO is only valid inside one)
+
+	private FunctionDefinition function;	//function being parsed, null outside of functions
+	private HashMap<Integer,FunctionDefinition> functions;		//function of every name
+	private ArrayList<FunctionDefinition> functionList;		//functions in the order they are defined
+	private ArrayList<CallExpression> calls;				//calls, bound to their functions after parsing
+
+	private ErrorStatement firstError;		//first error found (kept with the program)
+	private ErrorStatement error;			//error not yet put in the tree
+	private ErrorStatement unknown;			//unknown keyword not yet put in the tree
+	private ArrayList<ErrorStatement> errors;	//every error found
+	private ArrayList<ErrorStatement> openBlocks;	//error of every block being parsed, if the program ends before it is closed
+	private boolean checkOnly;				//parsing goes on after syntax errors (see check())
+
+	//running the program body as it is parsed (see stream())
+	private Program streamed;				//program being run, null if the program is run once it is parsed
+	private Resolver resolver;
+	private Interpreter interpreter;
+	private int resolvedFunctions;			//functions resolved so far
+	private boolean running;				//the statements run so far did not stop on an error
 
 	//DEBUG MODE
 	private boolean debugMode;
 
-	public Parser(ArrayList<Lexeme> tokenStream) {
+	public Parser(ArrayList<Lexeme> tokenStream,NameTable names,LiteralPool literals) {
+		//the token stream, name table and literal pool from the lexical analyzer are passed here.
+		this(tokenStream.iterator(),names,literals);
+	}
+
+	//lexemes are pulled from the token source only when moveToNextLexeme() needs them.
+	//only the current and next lexeme are held by the parser.
+	public Parser(TokenSource tokenSource) {
+		this((Iterator<Lexeme>)tokenSource,tokenSource.getNameTable(),tokenSource.getLiteralPool());
+	}
 
-		//the token stream from the lexical analyzer is passed here.
-		this.tokenStream = tokenStream;
+	private Parser(Iterator<Lexeme> iter,NameTable names,LiteralPool literals) {
 
-		//create symbol table
-		this.global = new SymbolTable(null);
+		//start iteration
+		this.iter = iter;
 
-		//set depth to 0
-		this.depth = 0;
+		this.names = names;
+		this.literals = literals;
+		this.breakDepth = 0;
 
+		this.function = null;
+		this.functions = new HashMap<Integer,FunctionDefinition>();
+		this.functionList = new ArrayList<FunctionDefinition>();
+		this.calls = new ArrayList<CallExpression>();
 
 		//assume that a blank file is valid.
 		this.valid= true;
 
-		//start iteration
-		this.iter = this.tokenStream.iterator();
-
 		//DEBUG:
 		this.debugMode = Main.debugMode;
 
 		//error checking
 		this.errorDetected = false;
+		this.firstError = null;
+		this.error = null;
+		this.unknown = null;
+		this.errors = new ArrayList<ErrorStatement>();
+		this.openBlocks = new ArrayList<ErrorStatement>();
+		this.checkOnly = false;
+
+		this.streamed = null;
+		this.resolver = null;
+		this.interpreter = null;
+		this.resolvedFunctions = 0;
+		this.running = true;
 
 		this.current = null;
 		this.next = null;
+		this.previousLineNo = 0;
+		this.tokenIndex = 0;
+		this.trace = Trace.ENABLED ? Trace.current() : null;
 
 	}
 
+	//parse the program, then run it
 	public void start(){
-		//start syntax analysis of the program.
-		this.valid = analyzeProgram();
+		Program program = parse();
+
+		SymbolTable global = run(program);
 
 		if(debugMode){
-			//debug
-			System.out.println("\n Final Global Symbol Table");
-			global.print();
+			TraceDecoder.print(this.trace,global,System.out);
 		}
 
 		System.out.print("The program is ");
@@ -86,11 +188,137 @@ public class Parser {
 		}
 
 	}
+
+	/*
+	 Stream
+
+	 	Parses the program and runs each statement of its body as soon as it is parsed (see above). The output and
+	 errors are the same as start(), on the Interpreter.
+	 */
+	public void stream(){
+		if(Trace.ENABLED){
+			this.trace.clear();
+			this.trace.record(TraceEvent.RUN,0,-1);
+		}
+
+		Block body = new Block(0);
+		this.streamed = new Program(body,this.names,this.literals,this.functionList,null);
+		this.resolver = new Resolver(this.streamed);
+		analyzeProgram(body);
+
+		//the rest of the body, and the statements held for functions that were never defined
+		this.streamed.setSyntaxError(this.firstError);
+		runParsed(true);
+		this.valid = this.interpreter.finish(this.running);
+
+		if(debugMode){
+			TraceDecoder.print(this.trace,this.interpreter.getGlobalSymbolTable(),System.out);
+		}
+
+		System.out.print("The program is ");
+		if(this.valid){
+			System.out.print("valid");
+		}else{
+			System.out.print("not valid");
+		}
+	}
+
+	//resolve and run the statements of the program body parsed so far, then let them go. they are held while a call
+	//parsed so far is not bound to a function, unless the program has been parsed to the end
+	private void runParsed(boolean end){
+		if(!(bindCalls()) && !(end)){
+			return;
+		}
+
+		Block body = this.streamed.getBody();
+		if(this.running){
+			for(; this.resolvedFunctions < this.functionList.size(); this.resolvedFunctions++){
+				this.resolver.resolveFunction(this.functionList.get(this.resolvedFunctions));
+			}
+			this.resolver.resolveStatements(body);
+			if(this.interpreter == null){
+				this.interpreter = new Interpreter(this.streamed);
+			}
+			this.running = this.interpreter.run(body);
+		}
+		body.getStatements().clear();
+	}
+
+	//bind the calls not yet bound to the functions defined so far. returns whether every call is bound
+	private boolean bindCalls(){
+		ArrayList<CallExpression> unbound = new ArrayList<CallExpression>();
+		for(CallExpression call:this.calls){
+			FunctionDefinition function = this.functions.get(call.getNameId());
+			call.setFunction(function);
+			if(function == null){
+				unbound.add(call);
+			}
+		}
+		this.calls = unbound;
+		return unbound.isEmpty();
+	}
+
+	//run the program on the engine chosen in Main. returns the global variables, null if the engine does not keep
+	//them (a generated class, which is not used in debug mode)
+	private SymbolTable run(Program program){
+		if(Main.classEngine && !(debugMode) && !(ClassEngine.tooLarge(program))){
+			BytecodeProgram compiled = new Compiler(program).compile();
+			ClassEngine engine = ClassEngine.generate(compiled);
+			if(engine != null){
+				this.valid = engine.run();
+				return null;
+			}
+		}
+
+		Interpreter interpreter = new Interpreter(program);
+		this.valid = interpreter.run();
+		return interpreter.getGlobalSymbolTable();
+	}
+
+	//build the syntax tree of the program
+	public Program parse(){
+		if(Trace.ENABLED){
+			this.trace.clear();
+		}
+
+		Block body = new Block(0);
+		analyzeProgram(body);
+
+		for(CallExpression call:this.calls){
+			call.setFunction(this.functions.get(call.getNameId()));
+		}
+		Program program = new Program(body,this.names,this.literals,this.functionList,this.firstError);
+		new Resolver(program).resolve();
+		return program;
+	}
+
+	/*
+	 Check
+
+	 	Parses the program and looks for the errors that can be found without running it (see Checker). Nothing is run,
+	 printed or read. Returns every error found, by line.
+	 */
+	public ArrayList<ErrorStatement> check(){
+		this.checkOnly = true;
+		Program program = parse();
+
+		ArrayList<ErrorStatement> errors = new ArrayList<ErrorStatement>(this.errors);
+		errors.addAll(new Checker(program).check());
+		errors.sort((error1,error2) -> Integer.compare(error1.getLineNo(),error2.getLineNo()));
+
+		this.valid = errors.isEmpty();
+		return errors;
+	}
+
+	//whether the program was valid (after start() or check())
+	public boolean isValid(){
+		return this.valid;
+	}
 	//determine if the program is valid
 	/*
 	<program> ::= HAI <statement> KTHXBYE
 	*/
-	private boolean analyzeProgram(){
+	private boolean analyzeProgram(Block body){
 
 		//access the first lexeme of the token stream
 		if(this.iter.hasNext()){
@@ -100,6 +328,7 @@ public class Parser {
 		//check if program starts with HAI
 		if(this.current.getClassifier() != TokenType.PROGRAM_START){
 			printErrorMsg(this.current.getLineNo(),"must start with HAI.");
+			placeErrors(body);
 			return false;
 		}
 
@@ -111,7 +340,7 @@ public class Parser {
 
 				//Determine if statement is called
 				//Print
-				printTokenStreamTrace("PROGRAM");
+				trace(TraceEvent.PROGRAM);
 
 				//skip HAI
 				if(this.current.getClassifier() == TokenType.PROGRAM_START){
@@ -125,14 +354,17 @@ public class Parser {
 
 				//Lexeme is a Statement Starter
 				if(this.current.isStatementStarter(this.next)){
-					boolean statementValid = analyzeStatement(this.global,0);
+					boolean statementValid = analyzeStatement(body);
 					if(statementValid){
-						this.printTokenStreamTrace("ALL STATEMENT END");
+						this.trace(TraceEvent.ALL_STATEMENT_END);
+					}else{
+						return false;
 					}
 				}
 				//not a statement starter
 				else{
 					printErrorMsg(this.current.getLineNo(),"action '" + this.current.getValue() + "' not found");
+					placeErrors(body);
 					return false;
 
 				}
@@ -140,256 +372,483 @@ public class Parser {
 
 
 		//check if program ends with KTHXBYE
-		if(this.current.getClassifier() != TokenType.PROGRAM_END){
+		while(this.current.getClassifier() != TokenType.PROGRAM_END){
 			printErrorMsg(this.current.getLineNo(),"must end with KTHXBYE.");
-			return false;
+			if(!(recover(this.current.getLineNo()))){
+				placeErrors(body);
+				return false;
+			}
+			if(this.current.isStatementStarter(this.next) && !(analyzeStatement(body))){
+				return false;
+			}
 		}
-		return true;
+		return this.valid;
 	}
 
-	//<statement> ::= <vardeclare> | <varassign> | <expr> |<ifthen> | <switch> | <print> | <scan>|<concat>
-	private boolean analyzeStatement(SymbolTable st,int depth) {
-
-		printTokenStreamTrace("STATEMENT");
+	//the statements of a block, up to the jump keyword or KTHXBYE that ends it.
+	//statements are read in a loop, so the stack grows with the nesting of blocks and not with the length of the program
+	private boolean analyzeStatement(Block block) {
 
-		//local boolean flag that checks if statement is still valid
-		boolean statementValid = true;
+		while(true){
+			int lineNo = this.current.getLineNo();
+			Statement statement = analyzeSingleStatement();
 
-		//--Statement is Assignment
-		if(this.current.isVariable() && this.next.getClassifier() == TokenType.ASSIGNMENT){
-			statementValid = analyzeVarAssign(st);
-		}
-		//Statement is an implicit variable assignment.
-		else if(this.current.isOperationSymbol() ||  this.current.isLiteral() || this.current.isVariable()){
-			statementValid = analyzeImplicitAssignment(st);
-		}
-		else{
-			//other statements
-			switch(this.current.getClassifier()){
-			case PRINT:
-				statementValid = analyzePrint(st);
-				break;
-			case VAR_DECLARE:
-				statementValid = analyzeVarDeclare(st);
-				break;
-			case USER_INPUT:
-				statementValid = analyzeInput(st);
-				break;
-			case CTRL_IF_THEN:
-				statementValid = analyzeIfThen(st,depth);	//since if then is a ctrl statement. depth is incremented by 1
-				//this.depth --;								//remove depth
-				break;
-			default:
-				//do nothing
+			//an unknown keyword read with the statement is reported before it runs
+			if(this.unknown != null){
+				block.add(this.unknown);
+				this.unknown = null;
+			}
+			if(statement != null){
+				block.add(statement);
 			}
-		}
 
-		//check if program is still valid.
-		if(this.valid && statementValid){
-			moveToNextLexeme();
-			printTokenStreamTrace("NEXT-STATEMENT");
-			//if next statement is not a statement starter
-			if(this.current.isStatementStarter(this.next)){
-				return analyzeStatement(st,depth);
+			//check if program is still valid.
+			if(!(this.valid)){
+				if(!(recover(lineNo))){
+					placeErrors(block);
+					return false;
+				}
+			}else{
+				//a statement of the program body run as it is parsed
+				if(this.streamed != null && block == this.streamed.getBody()){
+					runParsed(false);
+				}
+				moveToNextLexeme();
 			}
+			trace(TraceEvent.NEXT_STATEMENT);
 
+			//if next statement is a statement starter
+			while(!(this.current.isStatementStarter(this.next))){
 
-			//if current lexeme is the program ending or jump keyword
-			if(this.current.getClassifier() == TokenType.PROGRAM_END ||
-					this.current.getAbstraction() == Abstraction.JUMP){
-				return true;
-			}
+				//if current lexeme is the program ending or jump keyword
+				if(this.current.getClassifier() == TokenType.PROGRAM_END ||
+						this.current.getAbstraction() == Abstraction.JUMP){
+					placeErrors(block);
+					return this.valid;
+				}
 
-			//if next lexeme is the EOF
-			if(this.next.getClassifier() == TokenType.END_OF_FILE){
-				printErrorMsg(this.current.getLineNo(),"KTHXBYE is missing.");
-				return false;
+				//if next lexeme is the EOF
+				if(this.next.getClassifier() == TokenType.END_OF_FILE){
+					printErrorMsg(this.current.getLineNo(),"KTHXBYE is missing.");
+					reportOpenBlocks();
+					placeErrors(block);
+					return false;
+				}
+
+				printErrorMsg(this.current.getLineNo(),"action '" + this.current.getValue() + "' not found");
+				if(!(recover(this.current.getLineNo()))){
+					placeErrors(block);
+					return false;
+				}
 			}
+		}
+	}
 
+	//<statement> ::= <vardeclare> | <varassign> | <expr> |<ifthen> | <switch> | <print> | <scan>|<concat>
+	//returns the statement built from the lexemes (null if it has a syntax error)
+	private Statement analyzeSingleStatement() {
 
-			printErrorMsg(this.current.getLineNo(),"action '" + this.current.getValue() + "' not found");
-			return false;
+		trace(TraceEvent.STATEMENT);
 
+		//--Statement is Assignment
+		if(this.current.isVariable() && this.next.getClassifier() == TokenType.ASSIGNMENT){
+			return analyzeVarAssign();
+		}
+		//Statement is an implicit variable assignment.
+		if(this.current.isOperationSymbol() ||  this.current.isLiteral() || this.current.isVariable()){
+			return analyzeImplicitAssignment();
+		}
+
+		//other statements
+		switch(this.current.getClassifier()){
+		case PRINT:
+			return analyzePrint();
+		case VAR_DECLARE:
+			return analyzeVarDeclare();
+		case USER_INPUT:
+			return analyzeInput();
+		case CTRL_IF_THEN:
+			openBlock("O RLY? is missing OIC.");
+			return closeBlock(analyzeIfThen());
+		case CTRL_SWITCH:
+			openBlock("WTF? is missing OIC.");
+			return closeBlock(analyzeSwitch());
+		case LOOP_START:
+			openBlock("IM IN YR is missing IM OUTTA YR.");
+			return closeBlock(analyzeLoop());
+		case BREAK:
+			return analyzeBreak();
+		case FUNC_DEFINE:
+			openBlock("HOW IZ I is missing IF U SAY SO.");
+			return closeBlock(analyzeFunction());
+		case FUNC_RETURN:
+			return analyzeReturn();
+		default:
+			//do nothing
+			return null;
 		}
-		return false;
 	}
 
 	//control flow if then
 	//<if_then> ::= O RLY? YA RLY <statement> <else> | O RLY? YA RLY <else>
 	//<else> ::= MEBBE <condition> <statement> <else> | MEBBE <condition> <else>
 	//			| NO WAI <statement> OIC | NO WAI OIC
-	private boolean analyzeIfThen(SymbolTable st, int depth) {
-		//update depth
-		int localdepth = depth + 1;
-		printTokenStreamTrace("CTRL IF THEN");
-
-		//create a local symbol table
-		SymbolTable local = new SymbolTable(st);
+	private Statement analyzeIfThen() {
+		trace(TraceEvent.CTRL_IF_THEN);
 
-		//get IT
-		Symbol<Object> implicitVar = SemanticAnalyzer.getSymbolFromSymbolTable("IT", st, this.current.getLineNo());
-
-		//supress future error messages and declare error
-		if(implicitVar == null){
-			this.errorDetected = true;
-			return false;
-		}
-
-		//get Boolean value of IT
-		boolean conditionResult = SemanticAnalyzer.getBooleanFromSymbol(implicitVar);
-		boolean ctrlFlowValid = false;
+		//the statement is kept even if a branch has an error, since the error is inside the branch
+		Block thenBlock = new Block(this.current.getLineNo());
+		Block elseBlock = new Block(this.current.getLineNo());
+		IfThenStatement ifThen = new IfThenStatement(this.current.getLineNo(),thenBlock,elseBlock);
 
 		moveToNextLexeme();
-		printTokenStreamTrace("CTRL IF");
+		trace(TraceEvent.CTRL_IF);
 
 		//determine if 'if statement' or not
 		if(this.current.getClassifier() != TokenType.CTRL_IF){
 			this.printErrorMsg(this.current.getLineNo(),"expecting YA RLY.");
+			return null;
 		}
 		moveToNextLexeme();
-		printTokenStreamTrace("IF STATEMENT");
+		trace(TraceEvent.IF_STATEMENT);
 
 		//determine if segment starter
 		if (this.current.isStatementStarter(next)){
-
-
-			//condition check
-			if(conditionResult){
-				ctrlFlowValid = analyzeStatement(local,localdepth);
-			}else{
-				ctrlFlowValid = ignoreLexemesUntilNextIfElseBlock(localdepth);
-				//what is ctrl flow statement here?
-			}
-
-			//check if valid or not
-			if(!(ctrlFlowValid)){
-				return false;
+			if(!(analyzeStatement(thenBlock))){
+				return ifThen;
 			}
-
 		}
-		printTokenStreamTrace("END OF IF STATEMENT");
+		trace(TraceEvent.END_OF_IF_STATEMENT);
 		//check if 'else statement'
 		if(this.current.getClassifier() == TokenType.CTRL_ELSE){
 			moveToNextLexeme();
-			printTokenStreamTrace("ELSE STATEMENT");
+			trace(TraceEvent.ELSE_STATEMENT);
 			//determine if segment starter
 			if (this.current.isStatementStarter(next)){
+				if(!(analyzeStatement(elseBlock))){
+					return ifThen;
+				}
+			}
+			trace(TraceEvent.END_OF_ELSE_STATEMENT);
+		}
 
+		//check if end of ctrl
+		if(this.current.getClassifier() == TokenType.CTRL_END){
+			trace(TraceEvent.END_OF_CTRL_FLOW_STATEMENT);
+			return ifThen;
+		}
+		this.printErrorMsg(this.current.getLineNo(),"expecting OIC.");
+		return ifThen;
+	}
 
+	//control flow switch
+	//<switch> ::= WTF? <case> <cases> OIC
+	//<cases> ::= <case> <cases> | OMGWTF <statement> | OMGWTF | <empty>
+	//<case> ::= OMG <literal> <statement> | OMG <literal>
+	private Statement analyzeSwitch() {
+		trace(TraceEvent.CTRL_SWITCH);
 
-				//condition check
-				if(!(conditionResult)){
-					ctrlFlowValid = analyzeStatement(local,depth);
-				}else{
-					ctrlFlowValid = ignoreLexemesUntilNextIfElseBlock(depth);
+		//the statement is kept even if a case has an error, since the error is inside the case
+		SwitchStatement switchCase = new SwitchStatement(this.current.getLineNo());
+
+		moveToNextLexeme();
+		trace(TraceEvent.CTRL_CASE);
+
+		//at least one OMG is needed
+		if(this.current.getClassifier() != TokenType.CTRL_CASE){
+			this.printErrorMsg(this.current.getLineNo(),"expecting OMG.");
+			return null;
+		}
+
+		this.breakDepth++;
+		try {
+			while(this.current.getClassifier() == TokenType.CTRL_CASE){
+				moveToNextLexeme();
+				trace(TraceEvent.CASE_VALUE);
+
+				//the value of a case is a literal
+				Lexeme literal = this.current;
+				Symbol value = this.current.isLiteral() ? SemanticAnalyzer.getSymbolFromLiteral(this.current,this.literals) : null;
+				if(value == null){
+					printErrorMsg(this.current.getLineNo(),"expecting a literal after OMG.");
+					return null;
 				}
 
-				//check if valid or not
-				if(!(ctrlFlowValid)){
-					return false;
+				Block statements = new Block(literal.getLineNo());
+				if(!(switchCase.addCase(value.getValue(),statements))){
+					printErrorMsg(literal.getLineNo(),"OMG " + literal.getValue() + " is repeated.");
+					return null;
 				}
 
+				moveToNextLexeme();
+				trace(TraceEvent.CASE_STATEMENT);
+				if (this.current.isStatementStarter(next)){
+					if(!(analyzeStatement(statements))){
+						return switchCase;
+					}
+				}
 			}
-			printTokenStreamTrace("END OF ELSE STATEMENT");
+
+			//check if default case
+			if(this.current.getClassifier() == TokenType.CTRL_CASE_DEFAULT){
+				Block statements = new Block(this.current.getLineNo());
+				switchCase.setDefaultCase(statements);
+
+				moveToNextLexeme();
+				trace(TraceEvent.DEFAULT_CASE_STATEMENT);
+				if (this.current.isStatementStarter(next)){
+					if(!(analyzeStatement(statements))){
+						return switchCase;
+					}
+				}
+			}
+		} finally {
+			this.breakDepth--;
 		}
 
 		//check if end of ctrl
 		if(this.current.getClassifier() == TokenType.CTRL_END){
-			printTokenStreamTrace("END OF CTRL FLOW STATEMENT");
-			return true;
+			trace(TraceEvent.END_OF_CTRL_FLOW_STATEMENT);
+			return switchCase;
 		}
 		this.printErrorMsg(this.current.getLineNo(),"expecting OIC.");
-		return false;
+		return switchCase;
 	}
 
-	//ignore all the lexemes in this statement code block until another ctrl flow keyword is found (if then)
-	private boolean ignoreLexemesUntilNextIfElseBlock(int depth) {
-		int localdepth = depth;
-		while(true){
+	//loop
+	//<loop> ::= IM IN YR label <loop_var> <loop_condition> <statement> IM OUTTA YR label
+	//<loop_var> ::= UPPIN YR varident | NERFIN YR varident | <empty>
+	//<loop_condition> ::= TIL <value> | WILE <value> | <empty>
+	private Statement analyzeLoop() {
+		trace(TraceEvent.LOOP);
+		int lineNo = this.current.getLineNo();
+
+		//label
+		if(!(this.next.isVariable() && this.lexemesAreInSameLine())){
+			printErrorMsg(this.current.getLineNo(),"expecting a loop label.");
+			return null;
+		}
+		moveToNextLexeme();
+		int labelId = this.current.getId();
 
-			printTokenStreamTrace("ELSE STATEMENTS");
-			this.moveToNextLexeme();
-//			try {
-//				TimeUnit.SECONDS.sleep(2);
-//			} catch (InterruptedException e) {
-//				// TODO Auto-generated catch block
-//				e.printStackTrace();
-//			}
-			//a ctrl statement is found
-			if(this.current.getClassifier() == TokenType.CTRL_IF_THEN){
-				localdepth++;
+		//loop variable
+		TokenType operation = null;
+		int varId = NameTable.NONE;
+		if((this.next.getClassifier() == TokenType.LOOP_INCREMENT || this.next.getClassifier() == TokenType.LOOP_DECREMENT)
+				&& this.lexemesAreInSameLine()){
+			moveToNextLexeme();
+			trace(TraceEvent.LOOP_OPERATION);
+			operation = this.current.getClassifier();
+
+			if(!(this.next.getClassifier() == TokenType.VAR_MARKER && this.lexemesAreInSameLine())){
+				printErrorMsg(this.current.getLineNo(),"expecting YR.");
+				return null;
 			}
+			moveToNextLexeme();
 
-			if(localdepth == depth && (this.current.getClassifier() == TokenType.CTRL_ELSE ||
-				this.current.getClassifier() == TokenType.CTRL_END)){
-				return true;
+			if(!(this.next.isVariable() && this.lexemesAreInSameLine())){
+				printErrorMsg(this.current.getLineNo(),"expecting a loop variable.");
+				return null;
 			}
+			moveToNextLexeme();
+			varId = this.current.getId();
+		}
+
+		//loop condition
+		TokenType conditionType = null;
+		Expression condition = null;
+		if((this.next.getClassifier() == TokenType.LOOP_UNTIL || this.next.getClassifier() == TokenType.LOOP_WHILE)
+				&& this.lexemesAreInSameLine()){
+			moveToNextLexeme();
+			trace(TraceEvent.LOOP_CONDITION);
+			conditionType = this.current.getClassifier();
 
-			//ctrl statement ended
-			if(this.current.getClassifier() == TokenType.CTRL_END){
-				localdepth--;
+			if(!((this.next.isLiteral() || this.next.isOperationSymbol() || this.next.isVariable()) && this.lexemesAreInSameLine())){
+				printErrorMsg(this.current.getLineNo(),"expecting a loop condition.");
+				return null;
+			}
+			moveToNextLexeme();
+			condition = analyzeValue();
+			if(condition == null){
+				return null;
 			}
+		}
 
-			if(this.next.getClassifier() == TokenType.END_OF_FILE){
-				printErrorMsg(this.current.getLineNo(),"control flow statement reached EOF");
-				return false;
+		//the statement is kept even if the body has an error, since the error is inside the body
+		Block body = new Block(lineNo);
+		LoopStatement loop = new LoopStatement(lineNo,labelId,operation,varId,conditionType,condition,body);
+
+		moveToNextLexeme();
+		trace(TraceEvent.LOOP_STATEMENT);
+		if (this.current.isStatementStarter(next)){
+			this.breakDepth++;
+			try {
+				if(!(analyzeStatement(body))){
+					return loop;
+				}
+			} finally {
+				this.breakDepth--;
 			}
 		}
+
+		//check if end of loop, with the same label
+		if(this.current.getClassifier() != TokenType.LOOP_END){
+			printErrorMsg(this.current.getLineNo(),"expecting IM OUTTA YR.");
+			return loop;
+		}
+		if(!(this.next.isVariable() && this.next.getId() == labelId && this.lexemesAreInSameLine())){
+			printErrorMsg(this.current.getLineNo(),"expecting IM OUTTA YR " + this.names.getName(labelId) + ".");
+			//the loop still ends here
+			if(this.next.isVariable() && this.lexemesAreInSameLine()){
+				moveToNextLexeme();
+			}
+			return loop;
+		}
+		moveToNextLexeme();
+		trace(TraceEvent.END_OF_LOOP);
+		return loop;
 	}
 
-	//<imp_assign> ::= <expression>
-	private boolean analyzeImplicitAssignment(SymbolTable st) {
-		printTokenStreamTrace("Implicit");
+	//<break> ::= GTFO
+	private Statement analyzeBreak() {
+		trace(TraceEvent.BREAK);
+		if(this.breakDepth == 0){
+			//GTFO in a function returns NOOB
+			if(this.function != null){
+				return new ReturnStatement(this.current.getLineNo(),null);
+			}
+			printErrorMsg(this.current.getLineNo(),"GTFO is not inside WTF? or a loop.");
+			return null;
+		}
+		return new BreakStatement(this.current.getLineNo());
+	}
 
-		//semantically analyze variable declaration
-		boolean assignValid = SemanticAnalyzer.assignVariable("IT",this.current,st,this);
+	//function definition. it is kept with the program and not with the block it is in, so it gives no statement
+	//<function> ::= HOW IZ I varident <parameters> <statement> IF U SAY SO
+	//<parameters> ::= YR varident <more_parameters> | <empty>
+	//<more_parameters> ::= AN YR varident <more_parameters> | <empty>
+	private Statement analyzeFunction() {
+		trace(TraceEvent.FUNCTION);
 
-		//supress other error messages if a semantic error has been found
-		if(!(assignValid)){
-			this.valid = false;
-			this.errorDetected = true;
+		if(this.function != null){
+			printErrorMsg(this.current.getLineNo(),"HOW IZ I is not allowed inside a function.");
+			return null;
 		}
 
-		return assignValid;
-	}
+		//name
+		if(!(this.next.isVariable() && this.lexemesAreInSameLine())){
+			printErrorMsg(this.current.getLineNo(),"expecting a function name.");
+			return null;
+		}
+		moveToNextLexeme();
+		int nameId = this.current.getId();
+		if(this.functions.containsKey(nameId)){
+			printErrorMsg(this.current.getLineNo(),"Function '" + this.current.getValue() + "' is already defined.");
+			return null;
+		}
+		FunctionDefinition definition = new FunctionDefinition(this.current.getLineNo(),nameId,this.functionList.size());
+		this.functions.put(nameId,definition);
+		this.functionList.add(definition);
 
-	//<input> ::= GIMME varident
-	private boolean analyzeInput(SymbolTable st) {
-		try{
-			printTokenStreamTrace("USER INPUT");
+		//parameters
+		if(this.next.getClassifier() == TokenType.VAR_MARKER && this.lexemesAreInSameLine()){
+			while(true){
+				moveToNextLexeme();
+				if(!(this.next.isVariable() && this.lexemesAreInSameLine())){
+					printErrorMsg(this.current.getLineNo(),"expecting a parameter.");
+					return null;
+				}
+				moveToNextLexeme();
+				trace(TraceEvent.PARAMETER);
+				if(!(definition.addParameter(this.current.getId()))){
+					printErrorMsg(this.current.getLineNo(),"parameter '" + this.current.getValue() + "' is repeated.");
+					return null;
+				}
 
-			//move lexeme
-			this.moveToNextLexeme();
+				if(!(this.next.getClassifier() == TokenType.EXPR_OP_SEPARATOR && this.lexemesAreInSameLine())){
+					break;
+				}
+				moveToNextLexeme();
+				if(!(this.next.getClassifier() == TokenType.VAR_MARKER && this.lexemesAreInSameLine())){
+					printErrorMsg(this.current.getLineNo(),"expecting YR.");
+					return null;
+				}
+			}
+		}
 
-			printTokenStreamTrace("VAR INPUT");
-			if(this.current.isVariable()){
+		//body. GTFO outside of a WTF? or loop of the function returns
+		moveToNextLexeme();
+		trace(TraceEvent.FUNCTION_STATEMENT);
+		int outerBreakDepth = this.breakDepth;
+		this.function = definition;
+		this.breakDepth = 0;
+		try {
+			if (this.current.isStatementStarter(next)){
+				if(!(analyzeStatement(definition.getBody()))){
+					return null;
+				}
+			}
+		} finally {
+			this.function = null;
+			this.breakDepth = outerBreakDepth;
+		}
 
-				//define the variable name
-				String varName = this.current.getValue();
+		//check if end of function
+		if(this.current.getClassifier() != TokenType.FUNC_END){
+			printErrorMsg(this.current.getLineNo(),"expecting IF U SAY SO.");
+			return null;
+		}
+		trace(TraceEvent.END_OF_FUNCTION);
+		return null;
+	}
 
-				//semantically analyze getting user input
-				if(SemanticAnalyzer.variableInSymbolTable(varName, st)){
-					boolean userInputValid = SemanticAnalyzer.getUserInput(varName,this.current,st);
+	//<return> ::= FOUND YR <value>
+	private Statement analyzeReturn() {
+		trace(TraceEvent.RETURN);
 
-					//supress other error messages if a semantic error has been found
-					if(!(userInputValid)){
-						this.errorDetected = true;
-					}
+		if(this.function == null){
+			printErrorMsg(this.current.getLineNo(),"FOUND YR is not inside a function.");
+			return null;
+		}
 
-					return userInputValid;
-				}
+		int lineNo = this.current.getLineNo();
+		if(!((this.next.isLiteral() || this.next.isOperationSymbol() || this.next.isVariable()) && this.lexemesAreInSameLine())){
+			printErrorMsg(this.current.getLineNo(),"expecting a value to return.");
+			return null;
+		}
+		moveToNextLexeme();
+		Expression value = analyzeValue();
+		if(value == null){
+			return null;
+		}
+		return new ReturnStatement(lineNo,value);
+	}
 
-				printErrorMsg(this.current.getLineNo(),"Variable '" +varName +"' undeclared.");
-				return false;
+	//<imp_assign> ::= <expression>
+	private Statement analyzeImplicitAssignment() {
+		trace(TraceEvent.IMPLICIT);
 
-			}
-			printErrorMsg(this.current.getLineNo(),"expecting a value for declared variable.");
-			return false;
+		int lineNo = this.current.getLineNo();
+		Expression value = analyzeValue();
+		if(value == null){
+			return null;
+		}
+		return new ExpressionStatement(lineNo,value);
+	}
 
-		}catch(NoSuchElementException e){
-			printErrorMsg(this.current.getLineNo(),"user input ends abruptly.");
-			return false;
+	//<input> ::= GIMME varident
+	private Statement analyzeInput() {
+		trace(TraceEvent.USER_INPUT);
+
+		//move lexeme
+		this.moveToNextLexeme();
+
+		trace(TraceEvent.VAR_INPUT);
+		if(this.current.isVariable()){
+			return new InputStatement(this.current.getLineNo(),this.current.getId());
 		}
+		printErrorMsg(this.current.getLineNo(),"expecting a value for declared variable.");
+		return null;
 
 	}
 
@@ -398,53 +857,44 @@ public class Parser {
 	 <value> ::= varident |  <expr> |  <literal>
 	*/
 
-	private boolean analyzeVarAssign(SymbolTable st) {
+	private Statement analyzeVarAssign() {
 		try{
 
 			if (this.lexemesAreInSameLine()){
-				printTokenStreamTrace("ASSIGNMENT");
+				trace(TraceEvent.ASSIGNMENT);
 
 				//get Variable Name
-				String varName = this.current.getValue();
+				int lineNo = this.current.getLineNo();
+				int varId = this.current.getId();
 
 				//move lexemes
 				this.moveToNextLexeme();
-				printTokenStreamTrace("VAR_ASSIGN");
+				trace(TraceEvent.VAR_ASSIGN);
 
 				//check if next is literal variable or expression ,and next and current are on different lines
 				if ((this.next.isLiteral() || this.next.isOperationSymbol() || this.next.isVariable()) && this.lexemesAreInSameLine()){
 
 					this.moveToNextLexeme();
-					printTokenStreamTrace("VAR_ASSIGN");
-
-					//semantically analyze variable assignment
-					if(SemanticAnalyzer.variableInSymbolTable(varName, st)){
-						boolean assignValid = SemanticAnalyzer.assignVariable(varName,this.current,st,this);
-
-						//supress other error messages if a semantic error has been found
-						if(!(assignValid)){
-							this.errorDetected = true;
-						}
-
-						return assignValid;
+					trace(TraceEvent.VAR_ASSIGN);
 
+					Expression value = analyzeValue();
+					if(value == null){
+						return null;
 					}
-
-					printErrorMsg(this.current.getLineNo(),"Variable '" +varName +"' undeclared.");
-					return false;
+					return new AssignStatement(lineNo,varId,value);
 
 				}
 				printErrorMsg(this.current.getLineNo(),"expecting a value for declared variable.");
-				return false;
+				return null;
 
 			}
 			printErrorMsg(this.current.getLineNo(),"expecting an assignment operator R.");
-			return false;
+			return null;
 
 		}catch(NoSuchElementException e){
 			//e.printStackTrace();
 			printErrorMsg(this.current.getLineNo(),"assignment ends abruptly.");
-			return false;
+			return null;
 		}
 	}
 
@@ -452,28 +902,30 @@ public class Parser {
 	 <var_declare> ::= I HAS A varident | I HAS A varident ITZ <value>
 	 <value> ::= varident |  <expr> |  <literal>
 	 */
-	private boolean analyzeVarDeclare(SymbolTable st){
+	private Statement analyzeVarDeclare(){
 	try{
 			//check if next is variable identifier and if next and current are on same line
 		if ( this.next.isVariable() && this.lexemesAreInSameLine()){
-			printTokenStreamTrace("VAR_DECLARE");
+			trace(TraceEvent.VAR_DECLARE);
 			//VarDeclare is valid
 
 			//point current to the next lexeme
 			this.moveToNextLexeme();
 
 			//get Variable Name
-			String varName = this.current.getValue();
+			int lineNo = this.current.getLineNo();
+			int varId = this.current.getId();
 
 			//check if next is variable initialization keyword and if next and current are on same line
 			if (this.next.getClassifier() == TokenType.VAR_INITIALIZE && this.lexemesAreInSameLine()){
-				printTokenStreamTrace("VAR_INITIALIZE");
+				trace(TraceEvent.VAR_INITIALIZE);
 
 				//point current to the next lexeme
 				this.current = this.next;
 				this.next = this.iter.next();
+				this.tokenIndex++;
 
-				printTokenStreamTrace("VAR_ASSIGN");
+				trace(TraceEvent.VAR_ASSIGN);
 
 				//check if next is literal variable or expression ,and next and current are on different lines
 				if ((this.next.isLiteral() || this.next.isOperationSymbol() || this.next.isVariable()) && this.lexemesAreInSameLine()){
@@ -481,38 +933,31 @@ public class Parser {
 					//move to next lexeme after this.
 					moveToNextLexeme();
 
-					printTokenStreamTrace("VAR_ASSIGN");
-
-
-
-					//semantically analyze variable declaration
-					boolean assignValid = SemanticAnalyzer.declareVariable(varName,this.current,st,this);
+					trace(TraceEvent.VAR_ASSIGN);
 
-					//supress other error messages if a semantic error has been found
-					if(!(assignValid)){
-						this.errorDetected = true;
+					Expression value = analyzeValue();
+					if(value == null){
+						return null;
 					}
-
-					return assignValid;
+					return new DeclareStatement(lineNo,varId,value);
 
 				}
 				printErrorMsg(this.current.getLineNo(),"expecting a value for declared variable.");
-				return false;
+				return null;
 
 			}
 
 			//unitialized variable
-			SemanticAnalyzer.declareUnitializedVariable(varName,st);
-			return true;
+			return new DeclareStatement(lineNo,varId,null);
 		}
 
 		printErrorMsg(this.current.getLineNo(),"expecting a variable identifier.");
-		return false;
+		return null;
 
 	}catch(NoSuchElementException e){
 		//e.printStackTrace();
 		printErrorMsg(this.current.getLineNo(),"variable declaration ends abruptly.");
-		return false;
+		return null;
 	}
 
 
@@ -524,44 +969,34 @@ public class Parser {
 	 <print_values> :: <print_string> <print_values> | <value>
 	 <value> ::= varident |  <expr> |  <literal>
 	 */
-	private boolean analyzePrint(SymbolTable st) {
-		//TODO: Make Sure that only current lexeme is passed to semantic Analysis. next only serves as lookahead
+	private Statement analyzePrint() {
 
-		//flag that states whether print statement is valid or not
-		boolean printValid = true;
+		trace(TraceEvent.PRINT);
+		int lineNo = this.current.getLineNo();
 
-		printTokenStreamTrace("PRINT");
 		//check if next is literal or variable and if next and current are on different lines
 		if ((this.next.isLiteral() || this.next.isOperationSymbol() || this.next.isVariable()) && this.lexemesAreInSameLine()){
 
 			//Print is valid
-			printTokenStreamTrace("PRINT_START");
+			trace(TraceEvent.PRINT_START);
 
 			moveToNextLexeme();
 
 
-			String printValues = "";
+			ArrayList<Expression> printValues = new ArrayList<Expression>();
 			//repeat until current is a non identifier
 			while (this.current.isLiteral() || this.current.isOperationSymbol() || this.current.isVariable()){
 
-
-
-				printTokenStreamTrace("PRINT_VALUE");
-
+				trace(TraceEvent.PRINT_VALUE);
 
 				//get Values to print
-				String currentValue = SemanticAnalyzer.getPrintString(this.current,st,this);
-				printTokenStreamTrace("PAFTER CURRVALUE");
-
-				if(currentValue != null){
-					printValues = printValues + currentValue;
-				}else{
-					this.errorDetected = true;
-					printValid = false;
-					break;
+				Expression currentValue = analyzeValue();
+				if(currentValue == null){
+					return null;
 				}
+				printValues.add(currentValue);
 
-				printTokenStreamTrace("AFTER ADD VALUE");
+				trace(TraceEvent.AFTER_ADD_VALUE);
 				//only move to next lexeme if lexemes are on the same line or lexemes are a valid print value
 				if(this.lexemesAreInSameLine() && (this.next.isLiteral() || this.next.isOperationSymbol() || this.next.isVariable())){
 					moveToNextLexeme();
@@ -571,57 +1006,64 @@ public class Parser {
 
 
 			}
-			//print values
-			if(printValid){
-				printTokenStreamTrace("PRINT_END");
-				System.out.println(printValues);
-				return true;
-			}
-
-
-			//exiting function and be analyzed by next statement
+			trace(TraceEvent.PRINT_END);
+			return new PrintStatement(lineNo,printValues);
 
 		}
 		printErrorMsg(this.current.getLineNo(),"expecting a value to print.");
-		return false;
+		return null;
 
 
 	}
 
+	//<value> ::= varident |  <expr> |  <literal>
+	private Expression analyzeValue(){
+		//value from expression
+		if(this.current.isOperationSymbol()){
+			return analyzeExpression();
+		}
+		//value from literal / variable
+		return getLiteralOrVariable(this.current);
+	}
+
 	/*
 	<expression> ::= <arith_operation> | <comp_operation> | <logic_operation>
 
 
 	*/
-	public Symbol<Object> analyzeExpression(SymbolTable st) {
+	private Expression analyzeExpression() {
 
-	Symbol<Object> resultSymbol = null;
+	Expression result = null;
 
-		printTokenStreamTrace("EXPRESSION");
+		trace(TraceEvent.EXPRESSION);
 
 		switch(this.current.getAbstraction()){
 			//arithmetic expression
 			case ARITHMETIC_OPERATOR:
-				resultSymbol = getArithmeticAnswer(st);
+				result = getArithmeticExpression();
 				break;
 			//comparison expression
 			case COMPARISON_OPERATOR:
-				resultSymbol = getComparisonAnswer(st);
+				result = getComparisonExpression();
 				break;
 			//boolean expression
 			case BOOLEAN_OPERATOR:
-				resultSymbol = getBooleanAnswer(st);
+				result = getBooleanExpression();
 				break;
 			//bool inf expression
 			case BOOL_INF_OPERATOR:
-				resultSymbol = getBoolInfAnswer(st);
+				result = getBoolInfExpression();
+				break;
+			//function call
+			case FUNCTION_CALL:
+				result = getCallExpression();
 				break;
 			default:
 				//do nothing
 		}
-		//check for result symbol results
-		if(resultSymbol != null){
-			return resultSymbol;
+		//check for result
+		if(result != null){
+			return result;
 		}
 		printErrorMsg(this.current.getLineNo()," '" + this.current.getValue() + "' not an expression operator");
 		return null;
@@ -634,18 +1076,18 @@ public class Parser {
 	<bool_inf_operand> ::=  <comp_operation> | <bool_operation> | <arith_operation> | <literal> | <variable>
 	<bool_inf_operator> ::= ANY OF | ALL OF ..
 	*/
-	private Symbol<Object> getBoolInfAnswer(SymbolTable st) {
-		printTokenStreamTrace("BOOL INF EXPRESSION");
+	private Expression getBoolInfExpression() {
+		trace(TraceEvent.BOOL_INF_EXPRESSION);
 
 		TokenType operator = this.current.getClassifier();
-		ArrayList<Symbol<Object>> operands = new ArrayList<>();
+		ArrayList<Expression> operands = new ArrayList<>();
 
 		moveToNextLexeme();
 
 		//first operand is required, else print an error
-		printTokenStreamTrace("BOOL INF OPERAND1");
+		trace(TraceEvent.BOOL_INF_OPERAND1);
 		//get boolInfOoerand
-		Symbol<Object> operand1 = this.getBoolInfOperand(this.current, st);
+		Expression operand1 = this.getBoolInfOperand(this.current);
 
 		//if operand 1 == null
 		if(operand1 == null){
@@ -658,13 +1100,13 @@ public class Parser {
 
 		//while an
 		while(this.current.getClassifier() == TokenType.EXPR_OP_SEPARATOR){
-			printTokenStreamTrace("BOOL INF SEPARATOR");
+			trace(TraceEvent.BOOL_INF_SEPARATOR);
 
 			moveToNextLexeme();
 
-			printTokenStreamTrace("BOOL INF OPERAND");
+			trace(TraceEvent.BOOL_INF_OPERAND);
 
-			Symbol<Object> operand = this.getBoolInfOperand(this.current, st);
+			Expression operand = this.getBoolInfOperand(this.current);
 
 			//if operand == null
 			if(operand == null){
@@ -679,8 +1121,8 @@ public class Parser {
 
 		//check if end of bool inf
 		if(this.current.getClassifier() == TokenType.BOOL_INF_END){
-			printTokenStreamTrace("BOOL INF END");
-			return SemanticAnalyzer.performBoolInfOperation(operator,operands);
+			trace(TraceEvent.BOOL_INF_END);
+			return new BoolInfExpression(this.current.getLineNo(),operator,operands);
 		}else{
 			printErrorMsg(this.current.getLineNo(),"Invalid Operation.");
 			return null;
@@ -688,23 +1130,18 @@ public class Parser {
 
 	}
 
-	private Symbol<Object> getBoolInfOperand(Lexeme lexeme, SymbolTable st) {
+	private Expression getBoolInfOperand(Lexeme lexeme) {
 		switch(lexeme.getAbstraction()){
 
 		case ARITHMETIC_OPERATOR:
 		case COMPARISON_OPERATOR:
 		case BOOLEAN_OPERATOR:
-			return analyzeExpression(st);
+		case FUNCTION_CALL:
+			return analyzeExpression();
 
 		case LITERAL:
 		case VARIABLE:
-			Symbol<Object> symbolFound = SemanticAnalyzer.getSymbolFromLiteralOrVariable(lexeme, st);
-
-			//supress future error msgs
-			if(symbolFound == null){
-				this.errorDetected = true;
-			}
-			return symbolFound;
+			return getLiteralOrVariable(lexeme);
 
 		default:
 			//error detection
@@ -729,18 +1166,18 @@ public class Parser {
 	<bool_operand> ::=  <comp_operation> | <bool_operation> | <arith_operation> | <literal> | <variable>
 	<bool_operator> ::= BOTH OF | EITHER OF ..
 	*/
-	private Symbol<Object> getBooleanAnswer(SymbolTable st) {
-				printTokenStreamTrace("BOOL EXPRESSION");
+	private Expression getBooleanExpression() {
+				trace(TraceEvent.BOOL_EXPRESSION);
 
 
 				TokenType operator = this.current.getClassifier();
-				Symbol<Object> operand1 = null;
-				Symbol<Object> operand2 = null;
+				Expression operand1 = null;
+				Expression operand2 = null;
 
 				moveToNextLexeme();
-				printTokenStreamTrace("BOOL OP1");
+				trace(TraceEvent.BOOL_OP1);
 				//if op1 is an boolean expression //TODO get bool operand method
-				operand1 = this.getBoolOperand(this.current, st);
+				operand1 = this.getBoolOperand(this.current);
 
 				//if operand 1 == null
 				if(operand1 == null){
@@ -749,13 +1186,13 @@ public class Parser {
 
 				//if unary operation
 				if(operator == TokenType.BOOL_NOT){
-					printTokenStreamTrace("BOOL EXPRESSION END");
-					return SemanticAnalyzer.performBooleanOperation(operator, operand1);
+					trace(TraceEvent.BOOL_EXPRESSION_END);
+					return new BooleanExpression(this.current.getLineNo(),operator,operand1,null);
 				}
 
 				//move to next lexeme
 				moveToNextLexeme();
-				printTokenStreamTrace("BOOL SEP?");
+				trace(TraceEvent.BOOL_SEP);
 
 				// if next value is not AN
 				if(this.current.getClassifier() != TokenType.EXPR_OP_SEPARATOR){
@@ -766,41 +1203,34 @@ public class Parser {
 				//move to next lexeme
 				moveToNextLexeme();
 				// if next
-				printTokenStreamTrace("BOOL OP2");
+				trace(TraceEvent.BOOL_OP2);
 				//if op1 is an boolean expression
-				operand2 = this.getBoolOperand(this.current, st);
+				operand2 = this.getBoolOperand(this.current);
 				//if operand 2 == null
 				if(operand2 == null){
 					return null;
 				}
 
-			printTokenStreamTrace("BOOL EXPRESSION END");
+			trace(TraceEvent.BOOL_EXPRESSION_END);
 
-			//perform operation
-			return	SemanticAnalyzer.performBooleanOperation(operator,operand1,operand2);
+			return new BooleanExpression(this.current.getLineNo(),operator,operand1,operand2);
 	}
 
-	private Symbol<Object> getBoolOperand(Lexeme lexeme,SymbolTable st){
+	private Expression getBoolOperand(Lexeme lexeme){
 		switch(lexeme.getAbstraction()){
 
 			case BOOLEAN_OPERATOR:
-				return getBooleanAnswer(st);
+				return getBooleanExpression();
 
 			case ARITHMETIC_OPERATOR:
 			case COMPARISON_OPERATOR:
 			case BOOL_INF_OPERATOR:
-				return analyzeExpression(st);
+			case FUNCTION_CALL:
+				return analyzeExpression();
 
 			case LITERAL:
 			case VARIABLE:
-				Symbol<Object> symbolFound = SemanticAnalyzer.getSymbolFromLiteralOrVariable(lexeme, st);
-
-				//supress future error msgs
-				if(symbolFound == null){
-					this.errorDetected = true;
-				}
-
-				return symbolFound;
+				return getLiteralOrVariable(lexeme);
 			default:
 				//error detection
 
@@ -814,18 +1244,18 @@ public class Parser {
 	<comp_operand> ::=  <comp_operation> | <bool_operation> | <arith_operation> | <literal> | <variable>
 	<comp_operator> ::= BOTH OF | DIFFRINT ..
 	*/
-	private Symbol<Object> getComparisonAnswer(SymbolTable st) {
-		printTokenStreamTrace("COMP EXPRESSION");
+	private Expression getComparisonExpression() {
+		trace(TraceEvent.COMP_EXPRESSION);
 
 
 		TokenType operator = this.current.getClassifier();
-		Symbol<Object> operand1 = null;
-		Symbol<Object> operand2 = null;
+		Expression operand1 = null;
+		Expression operand2 = null;
 
 		this.moveToNextLexeme();
-		printTokenStreamTrace("COMP OP1");
+		trace(TraceEvent.COMP_OP1);
 		//op1
-		operand1 = this.getCompOperand(this.current,st);
+		operand1 = this.getCompOperand(this.current);
 		//if operand 1 == null
 		if(operand1 == null){
 			return null;
@@ -833,7 +1263,7 @@ public class Parser {
 
 		//move to next lexeme
 		this.moveToNextLexeme();
-		printTokenStreamTrace("COMP SEP");
+		trace(TraceEvent.COMP_SEP);
 
 		// if next value is not AN
 		if(this.current.getClassifier() != TokenType.EXPR_OP_SEPARATOR){
@@ -843,43 +1273,36 @@ public class Parser {
 		//move to next lexeme
 		this.moveToNextLexeme();
 		// if next
-		printTokenStreamTrace("COMP OP2");
+		trace(TraceEvent.COMP_OP2);
 
 		//if op2
-		operand2 = this.getCompOperand(this.current,st);
+		operand2 = this.getCompOperand(this.current);
 
 		//if operand 2 == null
 		if(operand2 == null){
 			return null;
 		}
 
-		printTokenStreamTrace("COMP EXPRESSION END");
+		trace(TraceEvent.COMP_EXPRESSION_END);
 
-		//perform operation
-		return	SemanticAnalyzer.performComparisonOperation(operator,operand1,operand2);
+		return new ComparisonExpression(this.current.getLineNo(),operator,operand1,operand2);
 	}
 
-	private Symbol<Object> getCompOperand(Lexeme lexeme,SymbolTable st){
+	private Expression getCompOperand(Lexeme lexeme){
 		switch(lexeme.getAbstraction()){
 
 			case COMPARISON_OPERATOR:
-				return getComparisonAnswer(st);
+				return getComparisonExpression();
 
 			case ARITHMETIC_OPERATOR:
 			case BOOLEAN_OPERATOR:
 			case BOOL_INF_OPERATOR:
-				return analyzeExpression(st);
+			case FUNCTION_CALL:
+				return analyzeExpression();
 
 			case LITERAL:
 			case VARIABLE:
-				Symbol<Object> symbolFound = SemanticAnalyzer.getSymbolFromLiteralOrVariable(lexeme, st);
-
-				//supress future error msgs
-				if(symbolFound == null){
-					this.errorDetected = true;
-				}
-
-				return symbolFound;
+				return getLiteralOrVariable(lexeme);
 			default:
 				printErrorMsg(lexeme.getLineNo(),"'" + this.current.getValue() + "' is not a valid operand.");
 				return null;
@@ -891,19 +1314,18 @@ public class Parser {
 	<operand> ::=  <arith_operation> | <literal> | <variable>
 	<arith_operator> ::= SUM OF | DIFF OF ..
 	*/
-	//get Answer from arithmetic
-	private Symbol<Object> getArithmeticAnswer(SymbolTable st) {
-		printTokenStreamTrace("ARITH EXPRESSION");
+	private Expression getArithmeticExpression() {
+		trace(TraceEvent.ARITH_EXPRESSION);
 
 
 		TokenType operator = this.current.getClassifier();
-		Symbol<Object> operand1 = null;
-		Symbol<Object> operand2 = null;
+		Expression operand1 = null;
+		Expression operand2 = null;
 
 		this.moveToNextLexeme();
-		printTokenStreamTrace("ARITH OP1");
+		trace(TraceEvent.ARITH_OP1);
 		//op1
-		operand1 = getArithOperand(this.current, st);
+		operand1 = getArithOperand(this.current);
 		//if operand 1 == null
 		if(operand1 == null){
 			return null;
@@ -911,7 +1333,7 @@ public class Parser {
 
 		//move to next lexeme
 		this.moveToNextLexeme();
-		printTokenStreamTrace("ARITH SEP");
+		trace(TraceEvent.ARITH_SEP);
 
 		// if next value is not AN
 		if(this.current.getClassifier() != TokenType.EXPR_OP_SEPARATOR){
@@ -921,45 +1343,34 @@ public class Parser {
 		//move to next lexeme
 		this.moveToNextLexeme();
 
-		printTokenStreamTrace("ARITH OP2");
+		trace(TraceEvent.ARITH_OP2);
 		//op2
-		operand2 = getArithOperand(this.current, st);
+		operand2 = getArithOperand(this.current);
 
 		//if operand 2 == null
 		if(operand2 == null){
 			return null;
 		}
 
-		printTokenStreamTrace("ARITH EXPRESSION END");
-
-		//perform operation
-		Symbol<Object> symbolFound =SemanticAnalyzer.performArithmeticOperation(operator,operand1,operand2,this.current.getLineNo());
-
-		//supress future error msgs
-		if(symbolFound == null){
-			this.errorDetected = true;
-		}
+		trace(TraceEvent.ARITH_EXPRESSION_END);
 
-		return symbolFound;
+		//errors of the operation are reported on the line the operation ends
+		return new ArithmeticExpression(this.current.getLineNo(),operator,operand1,operand2);
 
 	}
 
-	private Symbol<Object> getArithOperand(Lexeme lexeme,SymbolTable st){
+	private Expression getArithOperand(Lexeme lexeme){
 		switch(lexeme.getAbstraction()){
 
 			case ARITHMETIC_OPERATOR:
-				return getArithmeticAnswer(st);
+				return getArithmeticExpression();
+
+			case FUNCTION_CALL:
+				return getCallExpression();
 
 			case LITERAL:
 			case VARIABLE:
-				Symbol<Object> symbolFound = SemanticAnalyzer.getSymbolFromLiteralOrVariable(lexeme, st);
-
-				//supress future error msgs
-				if(symbolFound == null){
-					this.errorDetected = true;
-				}
-
-				return symbolFound;
+				return getLiteralOrVariable(lexeme);
 
 			default:
 				printErrorMsg(lexeme.getLineNo(),"'" + this.current.getValue() + "' is not a valid operand.");
@@ -967,6 +1378,74 @@ public class Parser {
 		}
 	}
 
+	/*
+	<call> ::= I IZ varident <arguments> MKAY
+	<arguments> ::= YR <value> <more_arguments> | <empty>
+	<more_arguments> ::= AN YR <value> <more_arguments> | <empty>
+	*/
+	private Expression getCallExpression() {
+		trace(TraceEvent.CALL);
+
+		if(!(this.next.isVariable() && this.lexemesAreInSameLine())){
+			printErrorMsg(this.current.getLineNo(),"expecting a function name.");
+			return null;
+		}
+		moveToNextLexeme();
+		int nameId = this.current.getId();
+		ArrayList<Expression> arguments = new ArrayList<Expression>();
+
+		moveToNextLexeme();
+		if(this.current.getClassifier() == TokenType.VAR_MARKER){
+			while(true){
+				moveToNextLexeme();
+				trace(TraceEvent.ARGUMENT);
+				if(!(this.current.isLiteral() || this.current.isOperationSymbol() || this.current.isVariable())){
+					printErrorMsg(this.current.getLineNo(),"'" + this.current.getValue() + "' is not a valid argument.");
+					return null;
+				}
+				Expression argument = analyzeValue();
+				if(argument == null){
+					return null;
+				}
+				arguments.add(argument);
+
+				moveToNextLexeme();
+				if(this.current.getClassifier() != TokenType.EXPR_OP_SEPARATOR){
+					break;
+				}
+				moveToNextLexeme();
+				if(this.current.getClassifier() != TokenType.VAR_MARKER){
+					printErrorMsg(this.current.getLineNo(),"expecting YR.");
+					return null;
+				}
+			}
+		}
+
+		//check if end of call
+		if(this.current.getClassifier() != TokenType.BOOL_INF_END){
+			printErrorMsg(this.current.getLineNo(),"expecting MKAY.");
+			return null;
+		}
+		trace(TraceEvent.CALL_END);
+		CallExpression call = new CallExpression(this.current.getLineNo(),nameId,arguments);
+		this.calls.add(call);
+		return call;
+	}
+
+	//a literal (its value is made here, once) or a variable
+	private Expression getLiteralOrVariable(Lexeme lexeme){
+		if(lexeme.isVariable()){
+			return new VariableExpression(lexeme.getLineNo(),lexeme.getId());
+		}
+
+		Symbol value = SemanticAnalyzer.getSymbolFromLiteral(lexeme,this.literals);
+		if(value == null){
+			printErrorMsg(lexeme.getLineNo(),"expecting a value for declared variable.");
+			return null;
+		}
+		return new LiteralExpression(lexeme.getLineNo(),value,SemanticAnalyzer.getPrintStringFromLiteral(lexeme,this.literals));
+	}
+
 
 	//check if previous lexeme and next lexeme are in the same line
 	private boolean lexemesAreInSameLine(){
@@ -976,34 +1455,124 @@ public class Parser {
 		return false;
 	}
 
-	public void printErrorMsg(int lineNo, String msg) {
+	//record a syntax error. the parser stops, and the error is put in the tree by placeErrors()
+	private void printErrorMsg(int lineNo, String msg) {
 		if(!(errorDetected)){
-			System.out.println("Error at Line " + lineNo + " : " + msg);
+			this.error = new ErrorStatement(lineNo,msg,true);
+			this.firstError = this.error;
+			this.errors.add(this.error);
 			errorDetected = true;
+			if(Trace.ENABLED){
+				this.trace.record(TraceEvent.SYNTAX_ERROR,lineNo,this.tokenIndex);
+			}
+		}
+		this.valid = false;
+
+	}
+
+	/*
+	 Recover
+
+	 	In check(), the parser goes on after a syntax error. The error is already kept, so the parser forgets it and
+	 skips lexemes from the statement that started on lineNo, up to the first lexeme of a later line that starts a
+	 statement or ends a block (so the block it ends is still closed).
+	 	Returns false (the parser stops) when not in check(), or when there is nothing left to parse.
+	 */
+	private boolean recover(int lineNo){
+		if(!(this.checkOnly) || this.current.getClassifier() == TokenType.END_OF_FILE){
+			return false;
+		}
+
+		while(this.current.getClassifier() != TokenType.END_OF_FILE){
+			boolean startsLine = this.current.getLineNo() != this.previousLineNo;
+			if(startsLine && this.current.getLineNo() > lineNo && (this.current.isStatementStarter(this.next) ||
+					this.current.getClassifier() == TokenType.PROGRAM_END || this.current.getAbstraction() == Abstraction.JUMP)){
+				break;
+			}
+			moveToNextLexeme();
+		}
+
+		this.valid = true;
+		this.errorDetected = false;
+		this.error = null;
+		this.unknown = null;
+
+		//an unknown keyword on the line parsing goes on from is already kept, the line is skipped as well
+		if(this.current.getClassifier() == TokenType.UNKNOWN_KEYWORD ||
+				(this.next.getClassifier() == TokenType.UNKNOWN_KEYWORD && lexemesAreInSameLine())){
+			this.valid = false;
+			this.errorDetected = true;
 		}
+		return true;
+	}
 
+	//a block starts on the current line
+	private void openBlock(String msg){
+		this.openBlocks.add(new ErrorStatement(this.current.getLineNo(),msg,true));
+	}
+
+	//the block parsed last is closed (or has an error of its own)
+	private Statement closeBlock(Statement statement){
+		this.openBlocks.remove(this.openBlocks.size() - 1);
+		return statement;
+	}
+
+	//in check(), the program ends before the blocks being parsed are closed: each of them is an error as well, at the
+	//line it starts on
+	private void reportOpenBlocks(){
+		if(this.checkOnly){
+			this.errors.addAll(this.openBlocks);
+		}
+	}
+
+	//put the errors that are not yet in the tree at the end of the block being parsed
+	private void placeErrors(Block block){
+		if(this.unknown != null){
+			block.add(this.unknown);
+			this.unknown = null;
+		}
+		if(this.error != null){
+			block.add(this.error);
+			this.error = null;
+		}
 	}
 
 	//move to next lexeme
-	public void moveToNextLexeme(){
+	private void moveToNextLexeme(){
 		if(this.iter.hasNext()){
+			this.previousLineNo = this.current.getLineNo();
 			this.current = this.next;
 			this.next = this.iter.next();
+			this.tokenIndex++;
 			//if current lexeme is an unknown keyword.
+			//it is reported before the statement being read, which still runs. the program stops after it.
 			if(this.next.getClassifier() == TokenType.UNKNOWN_KEYWORD){
-				this.printErrorMsg(this.next.getLineNo(),"'" + this.next.getValue() + "' unknown.");
+				ErrorStatement unknown = new ErrorStatement(this.next.getLineNo(),"'" + this.next.getValue() + "' unknown.",false);
+				this.errors.add(unknown);
+				if(!(errorDetected)){
+					this.unknown = unknown;
+					this.error = new ErrorStatement(this.next.getLineNo(),null,true);
+					this.firstError = this.unknown;
+					errorDetected = true;
+				}
 				this.valid = false;
 			}
 		}
+		//step onto the EOF lexeme, so the last statement is not read again
+		else if(this.next != null && this.next.getClassifier() == TokenType.END_OF_FILE){
+			this.previousLineNo = this.current.getLineNo();
+			this.current = this.next;
+			this.tokenIndex++;
+		}
 
 	}
 
-	//debug
-	private void printTokenStreamTrace(String label){
-			if(debugMode){
-				System.out.println( label +": Current: "+ this.current.getValue() + " Next: " + this.next.getValue());
-			}
+	//record a step of the parser in the trace
+	private void trace(TraceEvent event){
+		if(Trace.ENABLED){
+			this.trace.record(event,this.current.getLineNo(),this.tokenIndex);
 		}
+	}
 
 
 
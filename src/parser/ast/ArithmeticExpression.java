@@ -0,0 +1,121 @@
+package parser.ast;
+
+import lexicalanalyzer.TokenType;
+
+/*
+ Arithmetic Expression
+
+ 	SUM OF <operand> AN <operand>, DIFF OF ..
+
+ 	An expression specializes itself for the datatypes of its operands the first time it is evaluated (see
+ Interpreter): to the NUMBR handler of its operator when both operands are NUMBRs, to the NUMBAR handler when both are
+ numbers and one of them is a NUMBAR, and to the generic operation for anything else. A specialized expression that is
+ given other datatypes later becomes generic for good, so it never goes back and forth.
+
+ 	The specialization is the only state the expression keeps, and a program may be run by many threads at once. It
+ is a single immutable value, and every handler checks the datatypes of its operands before it uses them, so any
+ specialization gives the right value. Threads that race on it at worst take the generic operation once more, so it is
+ neither locked nor volatile. The value of an evaluation is never kept in the tree.
+ */
+public class ArithmeticExpression extends Expression {
+
+	public enum Specialization {
+		UNSPECIALIZED,
+		GENERIC,
+		ADD_NUMBR, SUB_NUMBR, MUL_NUMBR, DIV_NUMBR, MOD_NUMBR, MAX_NUMBR, MIN_NUMBR,
+		ADD_NUMBAR, SUB_NUMBAR, MUL_NUMBAR, DIV_NUMBAR, MOD_NUMBAR, MAX_NUMBAR, MIN_NUMBAR
+	}
+
+	private TokenType operator;
+	private Expression operand1;
+	private Expression operand2;
+	private Specialization specialization;	//read and written without locking, see above
+
+	public ArithmeticExpression(int lineNo,TokenType operator,Expression operand1,Expression operand2) {
+		super(lineNo,operand1.hasCall() || operand2.hasCall());
+		this.operator = operator;
+		this.operand1 = operand1;
+		this.operand2 = operand2;
+		this.specialization = Specialization.UNSPECIALIZED;
+	}
+
+	public TokenType getOperator(){
+		return this.operator;
+	}
+
+	public Expression getOperand1(){
+		return this.operand1;
+	}
+
+	public Expression getOperand2(){
+		return this.operand2;
+	}
+
+	public Specialization getSpecialization(){
+		return this.specialization;
+	}
+
+	//specialize the expression for the datatypes of its operands, or make it generic if it was specialized already
+	public void specialize(TokenType datatype1,TokenType datatype2){
+		if(this.specialization != Specialization.UNSPECIALIZED){
+			this.specialization = Specialization.GENERIC;
+		}else if(datatype1 == TokenType.DATATYPE_INT && datatype2 == TokenType.DATATYPE_INT){
+			this.specialization = numbrHandler(this.operator);
+		}else if(isNumber(datatype1) && isNumber(datatype2)){
+			this.specialization = numbarHandler(this.operator);
+		}else{
+			this.specialization = Specialization.GENERIC;
+		}
+	}
+
+	private static boolean isNumber(TokenType datatype){
+		return datatype == TokenType.DATATYPE_INT || datatype == TokenType.DATATYPE_FLOAT;
+	}
+
+	private static Specialization numbrHandler(TokenType operator){
+		switch(operator){
+			case EXPR_ADD:
+				return Specialization.ADD_NUMBR;
+			case EXPR_SUB:
+				return Specialization.SUB_NUMBR;
+			case EXPR_MUL:
+				return Specialization.MUL_NUMBR;
+			case EXPR_DIV:
+				return Specialization.DIV_NUMBR;
+			case EXPR_MOD:
+				return Specialization.MOD_NUMBR;
+			case EXPR_MAX:
+				return Specialization.MAX_NUMBR;
+			case EXPR_MIN:
+				return Specialization.MIN_NUMBR;
+			default:
+				return Specialization.GENERIC;
+		}
+	}
+
+	private static Specialization numbarHandler(TokenType operator){
+		switch(operator){
+			case EXPR_ADD:
+				return Specialization.ADD_NUMBAR;
+			case EXPR_SUB:
+				return Specialization.SUB_NUMBAR;
+			case EXPR_MUL:
+				return Specialization.MUL_NUMBAR;
+			case EXPR_DIV:
+				return Specialization.DIV_NUMBAR;
+			case EXPR_MOD:
+				return Specialization.MOD_NUMBAR;
+			case EXPR_MAX:
+				return Specialization.MAX_NUMBAR;
+			case EXPR_MIN:
+				return Specialization.MIN_NUMBAR;
+			default:
+				return Specialization.GENERIC;
+		}
+	}
+
+	@Override
+	public <R> R accept(ExpressionVisitor<R> visitor) {
+		return visitor.visitArithmetic(this);
+	}
+}
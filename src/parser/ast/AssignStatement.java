@@ -0,0 +1,35 @@
+package parser.ast;
+
+//varident R <value>
+public class AssignStatement extends Statement {
+	private int varId;
+	private Expression value;
+	private VariableLocation location;	//scopes that may hold the variable (see semanticanalyzer.Resolver)
+
+	public AssignStatement(int lineNo,int varId,Expression value) {
+		super(lineNo);
+		this.varId = varId;
+		this.value = value;
+	}
+
+	public int getVarId(){
+		return this.varId;
+	}
+
+	public Expression getValue(){
+		return this.value;
+	}
+
+	public VariableLocation getLocation(){
+		return this.location;
+	}
+
+	public void setLocation(VariableLocation location){
+		this.location = location;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitAssign(this);
+	}
+}
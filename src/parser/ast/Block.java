@@ -0,0 +1,26 @@
+package parser.ast;
+
+import java.util.ArrayList;
+
+//statements run one after another (the program, or a branch of a control flow statement)
+public class Block extends Statement {
+	private ArrayList<Statement> statements;
+
+	public Block(int lineNo) {
+		super(lineNo);
+		this.statements = new ArrayList<Statement>();
+	}
+
+	public void add(Statement statement){
+		this.statements.add(statement);
+	}
+
+	public ArrayList<Statement> getStatements(){
+		return this.statements;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitBlock(this);
+	}
+}
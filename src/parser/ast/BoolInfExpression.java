@@ -0,0 +1,39 @@
+package parser.ast;
+
+import java.util.ArrayList;
+
+import lexicalanalyzer.TokenType;
+
+//ALL OF <operand> AN <operand> .. MKAY, ANY OF ..
+public class BoolInfExpression extends Expression {
+	private TokenType operator;
+	private ArrayList<Expression> operands;
+
+	public BoolInfExpression(int lineNo,TokenType operator,ArrayList<Expression> operands) {
+		super(lineNo,hasCall(operands));
+		this.operator = operator;
+		this.operands = operands;
+	}
+
+	public TokenType getOperator(){
+		return this.operator;
+	}
+
+	public ArrayList<Expression> getOperands(){
+		return this.operands;
+	}
+
+	private static boolean hasCall(ArrayList<Expression> operands){
+		for(Expression operand:operands){
+			if(operand.hasCall()){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public <R> R accept(ExpressionVisitor<R> visitor) {
+		return visitor.visitBoolInf(this);
+	}
+}
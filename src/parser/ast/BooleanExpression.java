@@ -0,0 +1,34 @@
+package parser.ast;
+
+import lexicalanalyzer.TokenType;
+
+//BOTH OF <operand> AN <operand>, EITHER OF .., NOT <operand>
+public class BooleanExpression extends Expression {
+	private TokenType operator;
+	private Expression operand1;
+	private Expression operand2;			//null for NOT
+
+	public BooleanExpression(int lineNo,TokenType operator,Expression operand1,Expression operand2) {
+		super(lineNo,operand1.hasCall() || (operand2 != null && operand2.hasCall()));
+		this.operator = operator;
+		this.operand1 = operand1;
+		this.operand2 = operand2;
+	}
+
+	public TokenType getOperator(){
+		return this.operator;
+	}
+
+	public Expression getOperand1(){
+		return this.operand1;
+	}
+
+	public Expression getOperand2(){
+		return this.operand2;
+	}
+
+	@Override
+	public <R> R accept(ExpressionVisitor<R> visitor) {
+		return visitor.visitBoolean(this);
+	}
+}
@@ -0,0 +1,14 @@
+package parser.ast;
+
+//GTFO, leaves the WTF? or loop it is in (in a function outside of these, GTFO is a ReturnStatement)
+public class BreakStatement extends Statement {
+
+	public BreakStatement(int lineNo) {
+		super(lineNo);
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitBreak(this);
+	}
+}
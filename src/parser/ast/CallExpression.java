@@ -0,0 +1,38 @@
+package parser.ast;
+
+import java.util.ArrayList;
+
+//I IZ <name> [YR <value> [AN YR <value> ..]] MKAY
+public class CallExpression extends Expression {
+	private int nameId;
+	private ArrayList<Expression> arguments;
+	private FunctionDefinition function;	//set once the whole program is parsed, null if there is no such function
+
+	public CallExpression(int lineNo,int nameId,ArrayList<Expression> arguments) {
+		super(lineNo,true);
+		this.nameId = nameId;
+		this.arguments = arguments;
+		this.function = null;
+	}
+
+	public int getNameId(){
+		return this.nameId;
+	}
+
+	public ArrayList<Expression> getArguments(){
+		return this.arguments;
+	}
+
+	public FunctionDefinition getFunction(){
+		return this.function;
+	}
+
+	public void setFunction(FunctionDefinition function){
+		this.function = function;
+	}
+
+	@Override
+	public <R> R accept(ExpressionVisitor<R> visitor) {
+		return visitor.visitCall(this);
+	}
+}
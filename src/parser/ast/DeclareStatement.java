@@ -0,0 +1,44 @@
+package parser.ast;
+
+//I HAS A varident | I HAS A varident ITZ <value>
+public class DeclareStatement extends Statement {
+	private int varId;
+	private Expression value;			//null for an uninitialized variable
+	private int slot;					//slot of the variable in the scope it is declared in (see semanticanalyzer.Resolver)
+	private boolean reassigned;			//the variable of the slot is assigned or read with GIMMEH somewhere in its scope
+
+	public DeclareStatement(int lineNo,int varId,Expression value) {
+		super(lineNo);
+		this.varId = varId;
+		this.value = value;
+	}
+
+	public int getVarId(){
+		return this.varId;
+	}
+
+	public Expression getValue(){
+		return this.value;
+	}
+
+	public int getSlot(){
+		return this.slot;
+	}
+
+	public void setSlot(int slot){
+		this.slot = slot;
+	}
+
+	public boolean isReassigned(){
+		return this.reassigned;
+	}
+
+	public void setReassigned(boolean reassigned){
+		this.reassigned = reassigned;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitDeclare(this);
+	}
+}
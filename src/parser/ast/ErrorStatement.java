@@ -0,0 +1,34 @@
+package parser.ast;
+
+/*
+ Error Statement
+
+ 	Stands where the parser found a syntax error, so the error is reported when the program reaches it: the
+ statements before it are run first, as they would be by a parser that runs each statement as it reads it.
+
+ 	An unknown keyword is reported without halting (the statement it was read in is still run), and is followed by
+ an error with no message that halts the program.
+ */
+public class ErrorStatement extends Statement {
+	private String message;				//null for no message
+	private boolean halt;				//whether the program stops here
+
+	public ErrorStatement(int lineNo,String message,boolean halt) {
+		super(lineNo);
+		this.message = message;
+		this.halt = halt;
+	}
+
+	public String getMessage(){
+		return this.message;
+	}
+
+	public boolean halts(){
+		return this.halt;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitError(this);
+	}
+}
@@ -0,0 +1,21 @@
+package parser.ast;
+
+//an expression that gives a value (see ExpressionVisitor)
+public abstract class Expression extends Node {
+	private boolean hasCall;				//a function is called when the expression is evaluated
+
+	protected Expression(int lineNo) {
+		this(lineNo,false);
+	}
+
+	protected Expression(int lineNo,boolean hasCall) {
+		super(lineNo);
+		this.hasCall = hasCall;
+	}
+
+	public boolean hasCall(){
+		return this.hasCall;
+	}
+
+	public abstract <R> R accept(ExpressionVisitor<R> visitor);
+}
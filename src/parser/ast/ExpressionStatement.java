@@ -0,0 +1,20 @@
+package parser.ast;
+
+//a value on its own, assigned to the implicit variable IT
+public class ExpressionStatement extends Statement {
+	private Expression value;
+
+	public ExpressionStatement(int lineNo,Expression value) {
+		super(lineNo);
+		this.value = value;
+	}
+
+	public Expression getValue(){
+		return this.value;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitExpression(this);
+	}
+}
@@ -0,0 +1,12 @@
+package parser.ast;
+
+//a pass over the expressions of the tree. accept() calls the method for the type of the expression
+public interface ExpressionVisitor<R> {
+	R visitLiteral(LiteralExpression expression);
+	R visitVariable(VariableExpression expression);
+	R visitArithmetic(ArithmeticExpression expression);
+	R visitComparison(ComparisonExpression expression);
+	R visitBoolean(BooleanExpression expression);
+	R visitBoolInf(BoolInfExpression expression);
+	R visitCall(CallExpression expression);
+}
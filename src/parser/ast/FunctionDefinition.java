@@ -0,0 +1,74 @@
+package parser.ast;
+
+import java.util.ArrayList;
+
+/*
+ Function Definition
+
+ 	HOW IZ I <name> [YR <parameter> [AN YR <parameter> ..]] <statements> IF U SAY SO
+
+ 	A function only sees its parameters and its own variables. A call keeps them in its frame, an array of slots
+ laid out by the Resolver (see semanticanalyzer.Resolver): IT is slot 0, and the parameters follow.
+ */
+public class FunctionDefinition extends Node {
+	private int nameId;
+	private int index;							//position of the function in the program
+	private ArrayList<Integer> parameters;
+	private Block body;
+	private int[] frameNames;					//name ID of every slot of the frame
+	private int[] parameterSlots;				//slot of every parameter
+
+	public FunctionDefinition(int lineNo,int nameId,int index) {
+		super(lineNo);
+		this.nameId = nameId;
+		this.index = index;
+		this.parameters = new ArrayList<Integer>();
+		this.body = new Block(lineNo);
+	}
+
+	public int getNameId(){
+		return this.nameId;
+	}
+
+	public int getIndex(){
+		return this.index;
+	}
+
+	public Block getBody(){
+		return this.body;
+	}
+
+	//add a parameter. returns false if there is one with the same name
+	public boolean addParameter(int varId){
+		if(this.parameters.contains(varId)){
+			return false;
+		}
+		this.parameters.add(varId);
+		return true;
+	}
+
+	public int getParameterCount(){
+		return this.parameters.size();
+	}
+
+	public int getParameter(int i){
+		return this.parameters.get(i);
+	}
+
+	public int getParameterSlot(int i){
+		return this.parameterSlots[i];
+	}
+
+	public int getFrameSize(){
+		return this.frameNames.length;
+	}
+
+	public int[] getFrameNames(){
+		return this.frameNames;
+	}
+
+	public void setFrame(int[] frameNames,int[] parameterSlots){
+		this.frameNames = frameNames;
+		this.parameterSlots = parameterSlots;
+	}
+}
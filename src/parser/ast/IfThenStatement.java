@@ -0,0 +1,44 @@
+package parser.ast;
+
+/*
+ If Then Statement
+
+ 	O RLY? YA RLY <statements> NO WAI <statements> OIC, on the value of IT.
+
+ 	The parser matches YA RLY, NO WAI and OIC once, when it builds the statement, and keeps each branch as a block.
+ Running the statement jumps straight to the block of the branch taken: the other branch costs nothing, however large
+ it is.
+ */
+public class IfThenStatement extends Statement {
+	private Block thenBlock;
+	private Block elseBlock;			//empty if there is no NO WAI
+	private int scopeSize;
+
+	public IfThenStatement(int lineNo,Block thenBlock,Block elseBlock) {
+		super(lineNo);
+		this.thenBlock = thenBlock;
+		this.elseBlock = elseBlock;
+	}
+
+	public Block getThenBlock(){
+		return this.thenBlock;
+	}
+
+	public Block getElseBlock(){
+		return this.elseBlock;
+	}
+
+	//slots of the scope the statement runs its statements in (see semanticanalyzer.Resolver)
+	public int getScopeSize(){
+		return this.scopeSize;
+	}
+
+	public void setScopeSize(int scopeSize){
+		this.scopeSize = scopeSize;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitIfThen(this);
+	}
+}
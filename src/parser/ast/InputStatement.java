@@ -0,0 +1,29 @@
+package parser.ast;
+
+//GIMMEH varident
+public class InputStatement extends Statement {
+	private int varId;
+	private VariableLocation location;	//scopes that may hold the variable (see semanticanalyzer.Resolver)
+
+	public InputStatement(int lineNo,int varId) {
+		super(lineNo);
+		this.varId = varId;
+	}
+
+	public int getVarId(){
+		return this.varId;
+	}
+
+	public VariableLocation getLocation(){
+		return this.location;
+	}
+
+	public void setLocation(VariableLocation location){
+		this.location = location;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitInput(this);
+	}
+}
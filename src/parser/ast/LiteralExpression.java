@@ -0,0 +1,28 @@
+package parser.ast;
+
+import symboltable.Symbol;
+
+//a literal. its value is made once by the parser
+public class LiteralExpression extends Expression {
+	private Symbol value;
+	private String printString;			//the literal as VISIBLE prints it (2.50 stays 2.50)
+
+	public LiteralExpression(int lineNo,Symbol value,String printString) {
+		super(lineNo);
+		this.value = value;
+		this.printString = printString;
+	}
+
+	public Symbol getValue(){
+		return this.value;
+	}
+
+	public String getPrintString(){
+		return this.printString;
+	}
+
+	@Override
+	public <R> R accept(ExpressionVisitor<R> visitor) {
+		return visitor.visitLiteral(this);
+	}
+}
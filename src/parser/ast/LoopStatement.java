@@ -0,0 +1,79 @@
+package parser.ast;
+
+import lexicalanalyzer.TokenType;
+
+/*
+ Loop Statement
+
+ 	IM IN YR <label> [UPPIN|NERFIN YR <variable>] [TIL|WILE <expression>] <statements> IM OUTTA YR <label>
+
+ 	The statements are parsed once and run again on every iteration. The loop variable is local to the loop and
+ starts at 0. The condition is checked before every iteration: TIL stops once it is WIN, WILE stops once it is FAIL.
+ Without a condition the loop only ends with GTFO.
+ */
+public class LoopStatement extends Statement {
+	private int labelId;
+	private TokenType operation;		//LOOP_INCREMENT or LOOP_DECREMENT, null if there is no loop variable
+	private int varId;
+	private TokenType conditionType;	//LOOP_UNTIL or LOOP_WHILE, null if there is no condition
+	private Expression condition;
+	private Block body;
+	private int scopeSize;
+	private int varSlot;				//slot of the loop variable in the scope of the loop
+
+	public LoopStatement(int lineNo,int labelId,TokenType operation,int varId,TokenType conditionType,Expression condition,Block body) {
+		super(lineNo);
+		this.labelId = labelId;
+		this.operation = operation;
+		this.varId = varId;
+		this.conditionType = conditionType;
+		this.condition = condition;
+		this.body = body;
+	}
+
+	public int getLabelId(){
+		return this.labelId;
+	}
+
+	public TokenType getOperation(){
+		return this.operation;
+	}
+
+	public int getVarId(){
+		return this.varId;
+	}
+
+	public TokenType getConditionType(){
+		return this.conditionType;
+	}
+
+	public Expression getCondition(){
+		return this.condition;
+	}
+
+	public Block getBody(){
+		return this.body;
+	}
+
+	//slots of the scope the statement runs its statements in (see semanticanalyzer.Resolver)
+	public int getScopeSize(){
+		return this.scopeSize;
+	}
+
+	public void setScopeSize(int scopeSize){
+		this.scopeSize = scopeSize;
+	}
+
+	public int getVarSlot(){
+		return this.varSlot;
+	}
+
+	public void setVarSlot(int varSlot){
+		this.varSlot = varSlot;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitLoop(this);
+	}
+}
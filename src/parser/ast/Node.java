@@ -0,0 +1,22 @@
+package parser.ast;
+
+/*
+ Abstract Syntax Tree
+
+ 	The parser builds a tree of statements and expressions out of the token stream. Nothing is run while the tree
+ is built: the tree is run afterwards by a separate pass over it (see semanticanalyzer.Interpreter).
+
+ 	Every node keeps the line it was found on, for the error messages of the passes over the tree.
+
+ */
+public abstract class Node {
+	private int lineNo;
+
+	protected Node(int lineNo) {
+		this.lineNo = lineNo;
+	}
+
+	public int getLineNo(){
+		return this.lineNo;
+	}
+}
@@ -0,0 +1,22 @@
+package parser.ast;
+
+import java.util.ArrayList;
+
+//VISIBLE <value> <value> ..
+public class PrintStatement extends Statement {
+	private ArrayList<Expression> values;
+
+	public PrintStatement(int lineNo,ArrayList<Expression> values) {
+		super(lineNo);
+		this.values = values;
+	}
+
+	public ArrayList<Expression> getValues(){
+		return this.values;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitPrint(this);
+	}
+}
@@ -0,0 +1,73 @@
+package parser.ast;
+
+import java.util.ArrayList;
+
+import symboltable.LiteralPool;
+import symboltable.NameTable;
+
+/*
+ Program
+
+ 	The root of the tree: the statements between HAI and KTHXBYE, with the name table and literal pool of the
+ program (variables and string literals in the tree are IDs in these), and the functions defined in the program.
+
+ 	When the parser finds a syntax error it stops there, and the statements up to the error are kept with an
+ ErrorStatement where it was found. The first error is also kept here, so an error in a part of the program that is
+ never run (a branch that is not taken) is still reported.
+
+ */
+public class Program extends Node {
+	private Block body;
+	private NameTable names;
+	private LiteralPool literals;
+	private ArrayList<FunctionDefinition> functions;
+	private ErrorStatement syntaxError;		//first syntax error of the program, null if there is none
+	private int[] globalNames;				//name ID of every slot of the global scope (see semanticanalyzer.Resolver)
+
+	public Program(Block body,NameTable names,LiteralPool literals,ArrayList<FunctionDefinition> functions,
+			ErrorStatement syntaxError) {
+		super(body.getLineNo());
+		this.body = body;
+		this.names = names;
+		this.literals = literals;
+		this.functions = functions;
+		this.syntaxError = syntaxError;
+	}
+
+	public Block getBody(){
+		return this.body;
+	}
+
+	public NameTable getNameTable(){
+		return this.names;
+	}
+
+	public LiteralPool getLiteralPool(){
+		return this.literals;
+	}
+
+	public ArrayList<FunctionDefinition> getFunctions(){
+		return this.functions;
+	}
+
+	public ErrorStatement getSyntaxError(){
+		return this.syntaxError;
+	}
+
+	//the first syntax error, once a program run as it is parsed has been parsed to the end (see parser.Parser.stream())
+	public void setSyntaxError(ErrorStatement syntaxError){
+		this.syntaxError = syntaxError;
+	}
+
+	public int getGlobalSize(){
+		return this.globalNames.length;
+	}
+
+	public int[] getGlobalNames(){
+		return this.globalNames;
+	}
+
+	public void setGlobalNames(int[] globalNames){
+		this.globalNames = globalNames;
+	}
+}
@@ -0,0 +1,25 @@
+package parser.ast;
+
+//FOUND YR <value>, or GTFO in a function (returns NOOB)
+public class ReturnStatement extends Statement {
+	private Expression value;			//null for GTFO
+
+	public ReturnStatement(int lineNo,Expression value) {
+		super(lineNo);
+		this.value = value;
+	}
+
+	public Expression getValue(){
+		return this.value;
+	}
+
+	//the value is a call, which can replace the call of the function returning (see Interpreter)
+	public boolean isTailCall(){
+		return this.value instanceof CallExpression;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitReturn(this);
+	}
+}
@@ -0,0 +1,11 @@
+package parser.ast;
+
+//a statement of the program (see StatementVisitor)
+public abstract class Statement extends Node {
+
+	protected Statement(int lineNo) {
+		super(lineNo);
+	}
+
+	public abstract <R> R accept(StatementVisitor<R> visitor);
+}
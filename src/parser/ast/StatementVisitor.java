@@ -0,0 +1,17 @@
+package parser.ast;
+
+//a pass over the statements of the tree. accept() calls the method for the type of the statement
+public interface StatementVisitor<R> {
+	R visitBlock(Block block);
+	R visitPrint(PrintStatement statement);
+	R visitDeclare(DeclareStatement statement);
+	R visitAssign(AssignStatement statement);
+	R visitExpression(ExpressionStatement statement);
+	R visitInput(InputStatement statement);
+	R visitIfThen(IfThenStatement statement);
+	R visitSwitch(SwitchStatement statement);
+	R visitLoop(LoopStatement statement);
+	R visitReturn(ReturnStatement statement);
+	R visitBreak(BreakStatement statement);
+	R visitError(ErrorStatement statement);
+}
@@ -0,0 +1,73 @@
+package parser.ast;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/*
+ Switch Statement
+
+ 	WTF? OMG <literal> <statements> .. OMGWTF <statements> OIC, on the value of IT.
+
+ 	The statements of every OMG (and of OMGWTF, last) are kept as entries in order. The value of every OMG literal
+ is put in a hash table with the index of its entry when the statement is parsed, so running it finds the entry for IT
+ with one lookup instead of comparing IT with each case. Running starts at that entry and falls through the entries
+ after it until GTFO or OIC.
+
+ 	Values are matched the way BOTH SAEM compares them (a NUMBR 1 is not a NUMBAR 1.5).
+ */
+public class SwitchStatement extends Statement {
+	private ArrayList<Block> entries;
+	private HashMap<Object,Integer> caseEntries;	//entry of every OMG value
+	private int defaultEntry;						//entry of OMGWTF, -1 if there is none
+	private int scopeSize;
+
+	public SwitchStatement(int lineNo) {
+		super(lineNo);
+		this.entries = new ArrayList<Block>();
+		this.caseEntries = new HashMap<Object,Integer>();
+		this.defaultEntry = -1;
+	}
+
+	//add an OMG case. returns false if a case has the same value
+	public boolean addCase(Object value,Block statements){
+		if(this.caseEntries.containsKey(value)){
+			return false;
+		}
+		this.caseEntries.put(value,this.entries.size());
+		this.entries.add(statements);
+		return true;
+	}
+
+	//add the OMGWTF case
+	public void setDefaultCase(Block statements){
+		this.defaultEntry = this.entries.size();
+		this.entries.add(statements);
+	}
+
+	public ArrayList<Block> getEntries(){
+		return this.entries;
+	}
+
+	//slots of the scope the statement runs its statements in (see semanticanalyzer.Resolver)
+	public int getScopeSize(){
+		return this.scopeSize;
+	}
+
+	public void setScopeSize(int scopeSize){
+		this.scopeSize = scopeSize;
+	}
+
+	//entry to start from for a value of IT, -1 if nothing is run
+	public int getEntry(Object value){
+		Integer entry = this.caseEntries.get(value);
+		if(entry != null){
+			return entry;
+		}
+		return this.defaultEntry;
+	}
+
+	@Override
+	public <R> R accept(StatementVisitor<R> visitor) {
+		return visitor.visitSwitch(this);
+	}
+}
@@ -0,0 +1,29 @@
+package parser.ast;
+
+//the value of a variable (or IT)
+public class VariableExpression extends Expression {
+	private int varId;
+	private VariableLocation location;	//scopes that may hold the variable (see semanticanalyzer.Resolver)
+
+	public VariableExpression(int lineNo,int varId) {
+		super(lineNo);
+		this.varId = varId;
+	}
+
+	public int getVarId(){
+		return this.varId;
+	}
+
+	public VariableLocation getLocation(){
+		return this.location;
+	}
+
+	public void setLocation(VariableLocation location){
+		this.location = location;
+	}
+
+	@Override
+	public <R> R accept(ExpressionVisitor<R> visitor) {
+		return visitor.visitVariable(this);
+	}
+}
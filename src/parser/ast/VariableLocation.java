@@ -0,0 +1,39 @@
+package parser.ast;
+
+/*
+ Variable Location
+
+ 	Where a variable used by a statement or expression is kept when it runs, found once the program is parsed (see
+ semanticanalyzer.Resolver). A running function (or the program body) keeps its variables in an array of slots for
+ every scope it has open, numbered by depth (0 is the frame). A variable is only in a scope once its declaration has
+ run, so the location gives every scope that declares it, innermost first, and the first of them holding it is used.
+
+ 	A location is resolved if the declaration in the first of its scopes has surely run (it comes before, in the same
+ block or a block around it): the variable is always there.
+ */
+public final class VariableLocation {
+	private int[] scopes;					//depth and slot of every scope that declares the variable, innermost first
+	private boolean resolved;
+
+	public VariableLocation(int[] scopes,boolean resolved) {
+		this.scopes = scopes;
+		this.resolved = resolved;
+	}
+
+	//number of scopes that declare the variable
+	public int getCount(){
+		return this.scopes.length / 2;
+	}
+
+	public int getDepth(int i){
+		return this.scopes[2 * i];
+	}
+
+	public int getSlot(int i){
+		return this.scopes[2 * i + 1];
+	}
+
+	public boolean isResolved(){
+		return this.resolved;
+	}
+}
@@ -0,0 +1,323 @@
+package semanticanalyzer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import lexicalanalyzer.TokenType;
+import parser.ast.ArithmeticExpression;
+import parser.ast.AssignStatement;
+import parser.ast.Block;
+import parser.ast.BoolInfExpression;
+import parser.ast.BooleanExpression;
+import parser.ast.BreakStatement;
+import parser.ast.CallExpression;
+import parser.ast.ComparisonExpression;
+import parser.ast.DeclareStatement;
+import parser.ast.ErrorStatement;
+import parser.ast.Expression;
+import parser.ast.ExpressionStatement;
+import parser.ast.ExpressionVisitor;
+import parser.ast.FunctionDefinition;
+import parser.ast.IfThenStatement;
+import parser.ast.InputStatement;
+import parser.ast.LiteralExpression;
+import parser.ast.LoopStatement;
+import parser.ast.PrintStatement;
+import parser.ast.Program;
+import parser.ast.ReturnStatement;
+import parser.ast.Statement;
+import parser.ast.StatementVisitor;
+import parser.ast.SwitchStatement;
+import parser.ast.VariableExpression;
+import parser.ast.VariableLocation;
+import symboltable.NameTable;
+import symboltable.Symbol;
+
+/*
+ Checker
+
+ 	Looks for the errors of a program that can be found without running it. Every statement is visited once (both
+ branches of O RLY?, every case of WTF?, the body of every loop and function) and nothing is evaluated.
+
+ 	-variables: declarations are followed through the same scopes the Interpreter makes (a local scope for every
+ 	control flow statement, and only its own variables in a function). A variable that is used or assigned where no
+ 	declaration before it can be seen is an error.
+ 	-types: the datatype of a literal, and of the operations whose result has a fixed datatype, is known. An arithmetic
+ 	operand known to be a YARN or a TROOF is an error, and so is an int division by the literal 0. A variable that is
+ 	never assigned or read with GIMMEH (see semanticanalyzer.Resolver) keeps the datatype of its declaration, so it is
+ 	known where the variable is found in the slot of that declaration. Other variables and calls can hold anything, so
+ 	they are not checked.
+ 	-calls: the function must be defined and take as many arguments as the call gives.
+
+ 	Errors are reported with the same messages the Interpreter gives when it finds them.
+ */
+public class Checker implements StatementVisitor<Void>,ExpressionVisitor<TokenType> {
+	private Program program;
+	private NameTable names;
+	private Scope scope;						//variables declared where the statement being checked is
+	private ArrayList<ErrorStatement> errors;
+
+	//the variables declared in a block, and the scope it is in (null for the global scope and functions)
+	private static class Scope {
+		private HashSet<Integer> declared;
+		private HashMap<Integer,TokenType> datatypes;	//datatype of the variable of every slot, where it is known
+		private Scope parent;
+		private int depth;							//as numbered by the Resolver (0 is the frame)
+
+		Scope(Scope parent) {
+			this.declared = new HashSet<Integer>();
+			this.declared.add(NameTable.IT);
+			this.datatypes = new HashMap<Integer,TokenType>();
+			this.parent = parent;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+		}
+
+		Scope at(int depth){
+			Scope scope = this;
+			while(scope.depth > depth){
+				scope = scope.parent;
+			}
+			return scope;
+		}
+
+		boolean isDeclared(int varId){
+			for(Scope scope = this; scope != null; scope = scope.parent){
+				if(scope.declared.contains(varId)){
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	public Checker(Program program) {
+		this.program = program;
+		this.names = program.getNameTable();
+		this.scope = new Scope(null);
+		this.errors = new ArrayList<ErrorStatement>();
+	}
+
+	//check the program and its functions. returns the errors found
+	public ArrayList<ErrorStatement> check(){
+		this.program.getBody().accept(this);
+
+		for(FunctionDefinition function:this.program.getFunctions()){
+			this.scope = new Scope(null);
+			for(int i = 0; i < function.getParameterCount(); i++){
+				this.scope.declared.add(function.getParameter(i));
+			}
+			function.getBody().accept(this);
+		}
+		return this.errors;
+	}
+
+	@Override
+	public Void visitBlock(Block block) {
+		for(Statement statement:block.getStatements()){
+			statement.accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitPrint(PrintStatement statement) {
+		for(Expression value:statement.getValues()){
+			value.accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitDeclare(DeclareStatement statement) {
+		TokenType datatype = null;
+		if(statement.getValue() != null){
+			datatype = statement.getValue().accept(this);
+		}
+		this.scope.declared.add(statement.getVarId());
+		this.scope.datatypes.put(statement.getSlot(),statement.isReassigned() ? null : datatype);
+		return null;
+	}
+
+	@Override
+	public Void visitAssign(AssignStatement statement) {
+		checkDeclared(statement.getVarId(),statement.getLineNo(),"undeclared.");
+		statement.getValue().accept(this);
+		return null;
+	}
+
+	@Override
+	public Void visitExpression(ExpressionStatement statement) {
+		statement.getValue().accept(this);
+		return null;
+	}
+
+	@Override
+	public Void visitInput(InputStatement statement) {
+		checkDeclared(statement.getVarId(),statement.getLineNo(),"undeclared.");
+		return null;
+	}
+
+	@Override
+	public Void visitIfThen(IfThenStatement statement) {
+		checkBlock(statement.getThenBlock());
+		checkBlock(statement.getElseBlock());
+		return null;
+	}
+
+	//every entry is checked in the same scope, as they are when the first entry is run
+	@Override
+	public Void visitSwitch(SwitchStatement statement) {
+		Scope outer = this.scope;
+		this.scope = new Scope(outer);
+		for(Block entry:statement.getEntries()){
+			entry.accept(this);
+		}
+		this.scope = outer;
+		return null;
+	}
+
+	@Override
+	public Void visitLoop(LoopStatement statement) {
+		Scope outer = this.scope;
+		this.scope = new Scope(outer);
+		if(statement.getOperation() != null){
+			this.scope.declared.add(statement.getVarId());
+		}
+		if(statement.getCondition() != null){
+			statement.getCondition().accept(this);
+		}
+		statement.getBody().accept(this);
+		this.scope = outer;
+		return null;
+	}
+
+	@Override
+	public Void visitReturn(ReturnStatement statement) {
+		if(statement.getValue() != null){
+			statement.getValue().accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitBreak(BreakStatement statement) {
+		return null;
+	}
+
+	//syntax errors are reported by the parser
+	@Override
+	public Void visitError(ErrorStatement statement) {
+		return null;
+	}
+
+	//datatype of a literal
+	@Override
+	public TokenType visitLiteral(LiteralExpression expression) {
+		return expression.getValue().getDatatype();
+	}
+
+	//datatype of the declaration the variable is surely found at, if it is known
+	@Override
+	public TokenType visitVariable(VariableExpression expression) {
+		checkDeclared(expression.getVarId(),expression.getLineNo(),"unknown!.");
+		VariableLocation location = expression.getLocation();
+		if(location == null || !(location.isResolved())){
+			return null;
+		}
+		return this.scope.at(location.getDepth(0)).datatypes.get(location.getSlot(0));
+	}
+
+	@Override
+	public TokenType visitArithmetic(ArithmeticExpression expression) {
+		TokenType datatype1 = expression.getOperand1().accept(this);
+		TokenType datatype2 = expression.getOperand2().accept(this);
+
+		if(!(isNumeric(datatype1)) || !(isNumeric(datatype2))){
+			addError(expression.getLineNo(),"invalid datatype.");
+			return null;
+		}
+
+		//int division by 0
+		TokenType operator = expression.getOperator();
+		if((operator == TokenType.EXPR_DIV || operator == TokenType.EXPR_MOD) && datatype1 == TokenType.DATATYPE_INT &&
+				expression.getOperand2() instanceof LiteralExpression){
+			Symbol divisor = ((LiteralExpression)expression.getOperand2()).getValue();
+			if(divisor.getDatatype() == TokenType.DATATYPE_INT && divisor.getInt() == 0){
+				addError(expression.getLineNo(),"Zero Division.");
+			}
+		}
+
+		if(datatype1 == null || datatype2 == null){
+			return null;
+		}
+		if(datatype1 == TokenType.DATATYPE_INT && datatype2 == TokenType.DATATYPE_INT){
+			return TokenType.DATATYPE_INT;
+		}
+		return TokenType.DATATYPE_FLOAT;
+	}
+
+	@Override
+	public TokenType visitComparison(ComparisonExpression expression) {
+		expression.getOperand1().accept(this);
+		expression.getOperand2().accept(this);
+		return TokenType.DATATYPE_BOOLEAN;
+	}
+
+	@Override
+	public TokenType visitBoolean(BooleanExpression expression) {
+		expression.getOperand1().accept(this);
+		if(expression.getOperand2() != null){
+			expression.getOperand2().accept(this);
+		}
+		return TokenType.DATATYPE_BOOLEAN;
+	}
+
+	@Override
+	public TokenType visitBoolInf(BoolInfExpression expression) {
+		for(Expression operand:expression.getOperands()){
+			operand.accept(this);
+		}
+		return TokenType.DATATYPE_BOOLEAN;
+	}
+
+	//a function can return any datatype
+	@Override
+	public TokenType visitCall(CallExpression expression) {
+		for(Expression argument:expression.getArguments()){
+			argument.accept(this);
+		}
+
+		FunctionDefinition function = expression.getFunction();
+		String name = this.names.getName(expression.getNameId());
+		if(function == null){
+			addError(expression.getLineNo(),"Function '" + name + "' undefined.");
+		}else if(function.getParameterCount() != expression.getArguments().size()){
+			addError(expression.getLineNo(),"Function '" + name + "' takes " + function.getParameterCount() + " arguments.");
+		}
+		return null;
+	}
+
+	//check a block in a scope of its own
+	private void checkBlock(Block block){
+		Scope outer = this.scope;
+		this.scope = new Scope(outer);
+		block.accept(this);
+		this.scope = outer;
+	}
+
+	private void checkDeclared(int varId,int lineNo,String error){
+		if(!(this.scope.isDeclared(varId))){
+			addError(lineNo,"Variable '" + this.names.getName(varId) + "' " + error);
+		}
+	}
+
+	//an operand of unknown datatype (null) may be a number
+	private static boolean isNumeric(TokenType datatype){
+		return datatype == null || datatype == TokenType.DATATYPE_INT || datatype == TokenType.DATATYPE_FLOAT;
+	}
+
+	private void addError(int lineNo,String msg){
+		this.errors.add(new ErrorStatement(lineNo,msg,true));
+	}
+}
@@ -0,0 +1,785 @@
+package semanticanalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import lexicalanalyzer.TokenType;
+import parser.ast.ArithmeticExpression;
+import parser.ast.AssignStatement;
+import parser.ast.Block;
+import parser.ast.BoolInfExpression;
+import parser.ast.BreakStatement;
+import parser.ast.CallExpression;
+import parser.ast.BooleanExpression;
+import parser.ast.ComparisonExpression;
+import parser.ast.DeclareStatement;
+import parser.ast.ErrorStatement;
+import parser.ast.Expression;
+import parser.ast.ExpressionStatement;
+import parser.ast.ExpressionVisitor;
+import parser.ast.FunctionDefinition;
+import parser.ast.IfThenStatement;
+import parser.ast.InputStatement;
+import parser.ast.LiteralExpression;
+import parser.ast.LoopStatement;
+import parser.ast.PrintStatement;
+import parser.ast.Program;
+import parser.ast.ReturnStatement;
+import parser.ast.Statement;
+import parser.ast.StatementVisitor;
+import parser.ast.SwitchStatement;
+import parser.ast.VariableExpression;
+import parser.ast.VariableLocation;
+import symboltable.NameTable;
+import symboltable.Symbol;
+import symboltable.SymbolTable;
+import trace.Trace;
+import trace.TraceEvent;
+
+/*
+ Interpreter
+
+ 	Runs the syntax tree built by the parser, one statement at a time. Values are computed by the operations of the
+ semantic analyzer.
+
+ 	Variables are found where the Resolver put them (see Resolver): a running call has its frame, and a scope for
+ every control flow statement it is in, each an array of symbols with a slot for every variable declared directly in
+ it. The open scopes of every running call are kept in one stack, the frame of the innermost call at base, so a
+ variable is found by depth and slot instead of by name. A slot holds null until its declaration has run.
+
+ 	A statement gives false when it finds an error (an expression gives null). The message is printed where the
+ error is found and the program stops there.
+
+ 	A program run as it is parsed (see parser.Parser.stream()) is given its body a few statements at a time with
+ run(Block), and the global scope grows as they declare variables. finish() ends it.
+
+ 	Values are not copied as they are passed around: an expression gives the symbol of a variable or literal itself,
+ and an arithmetic operation gives a new symbol holding its result. Only assignments and declarations copy a value,
+ into the symbol of the variable. A call can assign the variables an operand was read from, so the value of an operand
+ is copied before an operand after it calls a function. The arguments and the
+ value returned by a call are copied too, as the scopes they come from are reused.
+
+ 	Scopes are not made for every call or control flow statement: the scopes that are no longer in use are kept, by
+ size, and taken again by the next one of the same size. An interpreter runs on a single thread, so every thread has
+ its own scopes and they are used without locking.
+
+ 	A call returned by FOUND YR is a tail call: the function returning has nothing left to do, so its frame is let go
+ and the call is run by the same loop in callFunction() instead of a new one. Tail recursion runs in constant stack
+ space however deep it goes. Other calls take Java stack, and calls nested too deep for it stop the program with an
+ error at the line of the innermost call, as any runtime error does.
+ */
+public class Interpreter implements StatementVisitor<Boolean>,ExpressionVisitor<Symbol> {
+	private Program program;
+	private NameTable names;
+	private Symbol[] global;				//frame of the program body, holds global variables
+	private Symbol[][] scopes;				//open scopes of every running call, the frames first
+	private int base;						//frame of the running call
+	private int depth;						//innermost open scope of the running call, from its frame
+	private ArrayList<ArrayList<Symbol[]>> freeScopes;	//scopes not in use, by size
+	private boolean errorDetected;			//an error message was printed (halts printing of other errors)
+	private boolean breaking;				//a GTFO is leaving the statements of a WTF? or loop
+
+	private boolean returning;				//a FOUND YR is leaving the statements of a function
+	private Symbol returnValue;				//value being returned
+	private FunctionDefinition tailCall;	//function called by the FOUND YR being returned, null if not a tail call
+	private Symbol[] tailArguments;			//arguments of the tail call
+	private int callLine;					//line of the innermost call, reported if the calls overflow the stack
+
+	public Interpreter(Program program) {
+		this.program = program;
+		this.names = program.getNameTable();
+		this.freeScopes = new ArrayList<ArrayList<Symbol[]>>();
+		this.global = acquireScope(program.getGlobalSize());
+		this.scopes = new Symbol[16][];
+		this.scopes[0] = this.global;
+		this.base = 0;
+		this.depth = 0;
+		this.errorDetected = false;
+		this.breaking = false;
+
+		this.returning = false;
+		this.returnValue = null;
+		this.tailCall = null;
+		this.tailArguments = null;
+	}
+
+	//run the program. returns whether it is valid
+	public boolean run(){
+		if(Trace.ENABLED){
+			Trace.current().record(TraceEvent.RUN,0,-1);
+		}
+		try {
+			return finish(this.program.getBody().accept(this));
+		} catch (StackOverflowError e) {
+			return stackOverflow();
+		}
+	}
+
+	//run statements of the program body that follow the ones run before (see parser.Parser.stream()). the global
+	//scope grows with the variables the Resolver has given slots since. returns false if they stop on an error
+	public boolean run(Block statements){
+		int globalSize = this.program.getGlobalSize();
+		if(this.global.length < globalSize){
+			this.global = Arrays.copyOf(this.global,Math.max(globalSize,2 * this.global.length));
+			this.scopes[0] = this.global;
+		}
+		try {
+			return statements.accept(this);
+		} catch (StackOverflowError e) {
+			return stackOverflow();
+		}
+	}
+
+	//the calls of the program have used up the stack. the calls have unwound, so the error is reported as any other
+	private boolean stackOverflow(){
+		printErrorMsg(this.callLine,"Function calls are nested too deep.");
+		return false;
+	}
+
+	//the program body has run (valid if it did not stop on an error). returns whether the program is valid
+	public boolean finish(boolean valid){
+		//a syntax error in a branch that was not run
+		ErrorStatement syntaxError = this.program.getSyntaxError();
+		if(valid && syntaxError != null){
+			printErrorMsg(syntaxError.getLineNo(),syntaxError.getMessage());
+			return false;
+		}
+		return valid;
+	}
+
+	//the global variables, as a symbol table (debug)
+	public SymbolTable getGlobalSymbolTable(){
+		SymbolTable table = new SymbolTable(null,this.names,this.program.getLiteralPool());
+		int[] globalNames = this.program.getGlobalNames();
+		for(int slot = 0; slot < this.global.length; slot++){
+			if(this.global[slot] != null){
+				table.declareValue(globalNames[slot],this.global[slot]);
+			}
+		}
+		return table;
+	}
+
+	@Override
+	public Boolean visitBlock(Block block) {
+		for(Statement statement:block.getStatements()){
+			if(!(statement.accept(this))){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Boolean visitPrint(PrintStatement statement) {
+		StringBuilder printValues = new StringBuilder();
+		for(Expression value:statement.getValues()){
+			String currentValue = getPrintString(value,statement.getLineNo());
+			if(currentValue == null){
+				this.errorDetected = true;
+				return false;
+			}
+			printValues.append(currentValue);
+		}
+		System.out.println(printValues);
+		return true;
+	}
+
+	@Override
+	public Boolean visitDeclare(DeclareStatement statement) {
+		Symbol[] scope = this.scopes[this.base + this.depth];
+
+		//unitialized variable
+		if(statement.getValue() == null){
+			scope[statement.getSlot()] = Symbol.uninitialized();
+			return true;
+		}
+
+		Symbol declaredSymbol = statement.getValue().accept(this);
+		if(declaredSymbol == null){
+			this.errorDetected = true;
+			return false;
+		}
+		//a symbol of its own holding a copy of the value
+		scope[statement.getSlot()] = new Symbol(declaredSymbol);
+		return true;
+	}
+
+	@Override
+	public Boolean visitAssign(AssignStatement statement) {
+		Symbol variable = lookup(statement.getLocation());
+		if(variable == null){
+			printErrorMsg(statement.getLineNo(),"Variable '" + this.names.getName(statement.getVarId()) + "' undeclared.");
+			return false;
+		}
+
+		Symbol assignedSymbol = statement.getValue().accept(this);
+		if(assignedSymbol == null){
+			this.errorDetected = true;
+			return false;
+		}
+		//the value is copied into the symbol of the variable
+		variable.set(assignedSymbol);
+		return true;
+	}
+
+	//implicit assignment to IT
+	@Override
+	public Boolean visitExpression(ExpressionStatement statement) {
+		Symbol assignedSymbol = statement.getValue().accept(this);
+		if(assignedSymbol == null){
+			this.errorDetected = true;
+			return false;
+		}
+		this.scopes[this.base + this.depth][0].set(assignedSymbol);
+		return true;
+	}
+
+	@Override
+	public Boolean visitInput(InputStatement statement) {
+		Symbol variable = lookup(statement.getLocation());
+		if(variable == null){
+			printErrorMsg(statement.getLineNo(),"Variable '" + this.names.getName(statement.getVarId()) + "' undeclared.");
+			return false;
+		}
+
+		try{
+			boolean userInputValid = SemanticAnalyzer.getUserInput(variable,statement.getLineNo());
+			if(!(userInputValid)){
+				this.errorDetected = true;
+			}
+			return userInputValid;
+		}catch(NoSuchElementException e){
+			printErrorMsg(statement.getLineNo(),"user input ends abruptly.");
+			return false;
+		}
+	}
+
+	//the branch of the value of IT is run in a scope of its own.
+	//both branches are held by the statement, so the branch that is not taken is skipped without looking at it
+	@Override
+	public Boolean visitIfThen(IfThenStatement statement) {
+		Symbol implicitVar = getImplicitVariable(statement.getLineNo());
+		if(implicitVar == null){
+			this.errorDetected = true;
+			return false;
+		}
+
+		openScope(statement.getScopeSize());
+		try {
+			if(SemanticAnalyzer.getBooleanFromSymbol(implicitVar)){
+				return statement.getThenBlock().accept(this);
+			}
+			return statement.getElseBlock().accept(this);
+		} finally {
+			closeScope();
+		}
+	}
+
+	//the statements from the entry of the value of IT are run in a scope of their own, up to GTFO or OIC
+	@Override
+	public Boolean visitSwitch(SwitchStatement statement) {
+		Symbol implicitVar = getImplicitVariable(statement.getLineNo());
+		if(implicitVar == null){
+			this.errorDetected = true;
+			return false;
+		}
+
+		int entry = statement.getEntry(implicitVar.getValue());
+		if(entry < 0){
+			return true;
+		}
+
+		ArrayList<Block> entries = statement.getEntries();
+		openScope(statement.getScopeSize());
+		try {
+			for(int i = entry; i < entries.size(); i++){
+				if(!(entries.get(i).accept(this))){
+					//GTFO ends the switch, anything else is an error
+					if(this.breaking){
+						this.breaking = false;
+						return true;
+					}
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			closeScope();
+		}
+	}
+
+	/*
+	 Loop
+
+	 	The body is run in a scope of its own that holds the loop variable. The loop variable is a single symbol
+	 whose value is set after every iteration, so counting makes no new symbol. If the body assigns the loop variable,
+	 counting goes on from the value assigned.
+	 */
+	@Override
+	public Boolean visitLoop(LoopStatement statement) {
+		int step = statement.getOperation() == TokenType.LOOP_DECREMENT ? -1 : 1;
+		boolean until = statement.getConditionType() == TokenType.LOOP_UNTIL;
+		Expression condition = statement.getCondition();
+		Block body = statement.getBody();
+		int varSlot = statement.getVarSlot();
+
+		Symbol[] scope = openScope(statement.getScopeSize());
+		try {
+			Symbol loopVar = null;
+			if(statement.getOperation() != null){
+				loopVar = new Symbol(0);
+				scope[varSlot] = loopVar;
+			}
+
+			while(true){
+				if(condition != null){
+					Symbol result = condition.accept(this);
+					if(result == null){
+						this.errorDetected = true;
+						return false;
+					}
+					if(SemanticAnalyzer.getBooleanFromSymbol(result) == until){
+						return true;
+					}
+				}
+
+				if(!(body.accept(this))){
+					//GTFO ends the loop, anything else is an error
+					if(this.breaking){
+						this.breaking = false;
+						return true;
+					}
+					return false;
+				}
+
+				if(loopVar != null){
+					//the loop variable may have been assigned (or declared again) in the body
+					Symbol assigned = scope[varSlot];
+					if(assigned.getDatatype() != TokenType.DATATYPE_INT){
+						printErrorMsg(statement.getLineNo(),"Variable '" + this.names.getName(statement.getVarId()) + "' is not a NUMBR.");
+						return false;
+					}
+					if(assigned != loopVar){
+						scope[varSlot] = loopVar;
+					}
+					loopVar.setInt(assigned.getInt() + step);
+				}
+			}
+		} finally {
+			closeScope();
+		}
+	}
+
+	//GTFO stops the blocks it is in, up to its WTF? or loop
+	@Override
+	public Boolean visitBreak(BreakStatement statement) {
+		this.breaking = true;
+		return false;
+	}
+
+	//FOUND YR stops the blocks it is in, up to its function. a tail call is only evaluated up to its arguments
+	@Override
+	public Boolean visitReturn(ReturnStatement statement) {
+		if(statement.getValue() == null){
+			this.returnValue = Symbol.uninitialized();
+		}else if(statement.isTailCall()){
+			CallExpression call = (CallExpression)statement.getValue();
+			Symbol[] arguments = getArguments(call);
+			if(arguments == null){
+				this.errorDetected = true;
+				return false;
+			}
+			this.tailCall = call.getFunction();
+			this.tailArguments = arguments;
+		}else{
+			Symbol value = statement.getValue().accept(this);
+			if(value == null){
+				this.errorDetected = true;
+				return false;
+			}
+			this.returnValue = new Symbol(value);
+		}
+		this.returning = true;
+		return false;
+	}
+
+	@Override
+	public Boolean visitError(ErrorStatement statement) {
+		if(statement.getMessage() != null){
+			printErrorMsg(statement.getLineNo(),statement.getMessage());
+		}
+		return !(statement.halts());
+	}
+
+	@Override
+	public Symbol visitLiteral(LiteralExpression expression) {
+		return expression.getValue();
+	}
+
+	@Override
+	public Symbol visitVariable(VariableExpression expression) {
+		return SemanticAnalyzer.getValueOfVariable(lookup(expression.getLocation()),expression.getVarId(),this.names,
+				expression.getLineNo());
+	}
+
+	/*
+	 Arithmetic
+
+	 	A specialized expression (see ArithmeticExpression) checks that its operands have the datatypes it expects and
+	 computes the value from them directly. An int division by zero is left to the generic operation, which reports it.
+	 An unspecialized expression, and one whose operands are not what it expects, specializes itself and is computed by
+	 the generic operation this time.
+	 */
+	@Override
+	public Symbol visitArithmetic(ArithmeticExpression expression) {
+		Symbol operand1 = getFirstOperand(expression.getOperand1(),expression.getOperand2());
+		if(operand1 == null){
+			return null;
+		}
+		Symbol operand2 = expression.getOperand2().accept(this);
+		if(operand2 == null){
+			return null;
+		}
+
+		switch(expression.getSpecialization()){
+			case ADD_NUMBR:
+				if(areNumbrs(operand1,operand2)){
+					return new Symbol(operand1.getInt() + operand2.getInt());
+				}
+				break;
+			case SUB_NUMBR:
+				if(areNumbrs(operand1,operand2)){
+					return new Symbol(operand1.getInt() - operand2.getInt());
+				}
+				break;
+			case MUL_NUMBR:
+				if(areNumbrs(operand1,operand2)){
+					return new Symbol(operand1.getInt() * operand2.getInt());
+				}
+				break;
+			case DIV_NUMBR:
+				if(areNumbrs(operand1,operand2) && operand2.getInt() != 0){
+					return new Symbol(operand1.getInt() / operand2.getInt());
+				}
+				break;
+			case MOD_NUMBR:
+				if(areNumbrs(operand1,operand2) && operand2.getInt() != 0){
+					return new Symbol(operand1.getInt() % operand2.getInt());
+				}
+				break;
+			case MAX_NUMBR:
+				if(areNumbrs(operand1,operand2)){
+					return new Symbol(Math.max(operand1.getInt(),operand2.getInt()));
+				}
+				break;
+			case MIN_NUMBR:
+				if(areNumbrs(operand1,operand2)){
+					return new Symbol(Math.min(operand1.getInt(),operand2.getInt()));
+				}
+				break;
+			case ADD_NUMBAR:
+				if(areNumbars(operand1,operand2)){
+					return new Symbol(operand1.getNumber() + operand2.getNumber());
+				}
+				break;
+			case SUB_NUMBAR:
+				if(areNumbars(operand1,operand2)){
+					return new Symbol(operand1.getNumber() - operand2.getNumber());
+				}
+				break;
+			case MUL_NUMBAR:
+				if(areNumbars(operand1,operand2)){
+					return new Symbol(operand1.getNumber() * operand2.getNumber());
+				}
+				break;
+			case DIV_NUMBAR:
+				if(areNumbars(operand1,operand2)){
+					return new Symbol(operand1.getNumber() / operand2.getNumber());
+				}
+				break;
+			case MOD_NUMBAR:
+				if(areNumbars(operand1,operand2)){
+					return new Symbol(operand1.getNumber() % operand2.getNumber());
+				}
+				break;
+			case MAX_NUMBAR:
+				if(areNumbars(operand1,operand2)){
+					return new Symbol(Math.max(operand1.getNumber(),operand2.getNumber()));
+				}
+				break;
+			case MIN_NUMBAR:
+				if(areNumbars(operand1,operand2)){
+					return new Symbol(Math.min(operand1.getNumber(),operand2.getNumber()));
+				}
+				break;
+			case GENERIC:
+				return SemanticAnalyzer.performArithmeticOperation(expression.getOperator(),operand1,operand2,new Symbol(0),
+						expression.getLineNo());
+			default:
+		}
+
+		expression.specialize(operand1.getDatatype(),operand2.getDatatype());
+		return SemanticAnalyzer.performArithmeticOperation(expression.getOperator(),operand1,operand2,new Symbol(0),
+				expression.getLineNo());
+	}
+
+	//both operands are NUMBRs
+	private static boolean areNumbrs(Symbol operand1,Symbol operand2){
+		return operand1.getDatatype() == TokenType.DATATYPE_INT && operand2.getDatatype() == TokenType.DATATYPE_INT;
+	}
+
+	//both operands are numbers, and one of them is a NUMBAR
+	private static boolean areNumbars(Symbol operand1,Symbol operand2){
+		TokenType datatype1 = operand1.getDatatype();
+		TokenType datatype2 = operand2.getDatatype();
+		if(datatype1 == TokenType.DATATYPE_FLOAT){
+			return datatype2 == TokenType.DATATYPE_FLOAT || datatype2 == TokenType.DATATYPE_INT;
+		}
+		return datatype1 == TokenType.DATATYPE_INT && datatype2 == TokenType.DATATYPE_FLOAT;
+	}
+
+	@Override
+	public Symbol visitComparison(ComparisonExpression expression) {
+		Symbol operand1 = getFirstOperand(expression.getOperand1(),expression.getOperand2());
+		if(operand1 == null){
+			return null;
+		}
+		Symbol operand2 = expression.getOperand2().accept(this);
+		if(operand2 == null){
+			return null;
+		}
+		return SemanticAnalyzer.performComparisonOperation(expression.getOperator(),operand1,operand2);
+	}
+
+	@Override
+	public Symbol visitBoolean(BooleanExpression expression) {
+		//unary operation
+		if(expression.getOperand2() == null){
+			Symbol operand1 = expression.getOperand1().accept(this);
+			if(operand1 == null){
+				return null;
+			}
+			return SemanticAnalyzer.performBooleanOperation(expression.getOperator(),operand1);
+		}
+
+		Symbol operand1 = getFirstOperand(expression.getOperand1(),expression.getOperand2());
+		if(operand1 == null){
+			return null;
+		}
+
+		Symbol operand2 = expression.getOperand2().accept(this);
+		if(operand2 == null){
+			return null;
+		}
+		return SemanticAnalyzer.performBooleanOperation(expression.getOperator(),operand1,operand2);
+	}
+
+	//every operand is computed (an error in any of them is reported) before the operation. only the number of true
+	//operands is kept
+	@Override
+	public Symbol visitBoolInf(BoolInfExpression expression) {
+		ArrayList<Expression> operands = expression.getOperands();
+		int trueOperands = 0;
+		for(int i = 0; i < operands.size(); i++){
+			Symbol value = operands.get(i).accept(this);
+			if(value == null){
+				return null;
+			}
+			if(SemanticAnalyzer.getBooleanFromSymbol(value)){
+				trueOperands++;
+			}
+		}
+		return SemanticAnalyzer.performBoolInfOperation(expression.getOperator(),trueOperands,operands.size());
+	}
+
+	//the value of the first operand of an operation, copied if the second operand calls a function
+	private Symbol getFirstOperand(Expression operand1,Expression operand2){
+		Symbol value = operand1.accept(this);
+		if(value != null && operand2.hasCall()){
+			return new Symbol(value);
+		}
+		return value;
+	}
+
+	@Override
+	public Symbol visitCall(CallExpression expression) {
+		Symbol[] arguments = getArguments(expression);
+		if(arguments == null){
+			return null;
+		}
+		this.callLine = expression.getLineNo();
+		return callFunction(expression.getFunction(),arguments);
+	}
+
+	//copies of the values of the arguments of a call, computed in the scope of the caller. null if there is an error
+	private Symbol[] getArguments(CallExpression call){
+		FunctionDefinition function = call.getFunction();
+		String name = this.names.getName(call.getNameId());
+		if(function == null){
+			printErrorMsg(call.getLineNo(),"Function '" + name + "' undefined.");
+			return null;
+		}
+
+		ArrayList<Expression> values = call.getArguments();
+		if(values.size() != function.getParameterCount()){
+			printErrorMsg(call.getLineNo(),"Function '" + name + "' takes " + function.getParameterCount() + " arguments.");
+			return null;
+		}
+
+		Symbol[] arguments = new Symbol[values.size()];
+		for(int i = 0; i < arguments.length; i++){
+			Symbol value = values.get(i).accept(this);
+			if(value == null){
+				return null;
+			}
+			arguments[i] = new Symbol(value);
+		}
+		return arguments;
+	}
+
+	/*
+	 Call
+
+	 	Runs the body of the function in a frame holding its arguments, pushed above the open scopes of the caller. The
+	 function returns the value of FOUND YR, NOOB for GTFO, or the value of IT if it reaches its end. When it returns a
+	 tail call, the frame is given back and the loop goes on with the function called, in the same place.
+	 */
+	private Symbol callFunction(FunctionDefinition function,Symbol[] arguments){
+		int callerBase = this.base;
+		int callerDepth = this.depth;
+		int frameIndex = callerBase + callerDepth + 1;
+		ensureScopes(frameIndex);
+		try {
+			while(true){
+				Symbol[] frame = acquireScope(function.getFrameSize());
+				//the arguments are copies already, they become the parameters
+				for(int i = 0; i < arguments.length; i++){
+					frame[function.getParameterSlot(i)] = arguments[i];
+				}
+
+				this.scopes[frameIndex] = frame;
+				this.base = frameIndex;
+				this.depth = 0;
+				Symbol result;
+				if(function.getBody().accept(this)){
+					result = new Symbol(frame[0]);
+				}else if(this.returning){
+					this.returning = false;
+					result = this.returnValue;
+					this.returnValue = null;
+				}else{
+					//error
+					releaseScope(frame);
+					return null;
+				}
+				releaseScope(frame);
+
+				if(this.tailCall == null){
+					return result;
+				}
+				function = this.tailCall;
+				arguments = this.tailArguments;
+				this.tailCall = null;
+				this.tailArguments = null;
+			}
+		} finally {
+			this.scopes[frameIndex] = null;
+			this.base = callerBase;
+			this.depth = callerDepth;
+		}
+	}
+
+	//the symbol of a variable, from the first of its scopes holding it. null if none of them does
+	private Symbol lookup(VariableLocation location){
+		for(int i = 0; i < location.getCount(); i++){
+			Symbol symbol = this.scopes[this.base + location.getDepth(i)][location.getSlot(i)];
+			if(symbol != null){
+				return symbol;
+			}
+		}
+		return null;
+	}
+
+	//the value of IT, in the innermost open scope
+	private Symbol getImplicitVariable(int lineNo){
+		return SemanticAnalyzer.getValueOfVariable(this.scopes[this.base + this.depth][0],NameTable.IT,this.names,lineNo);
+	}
+
+	//open a scope of the given size for a control flow statement
+	private Symbol[] openScope(int size){
+		int index = this.base + this.depth + 1;
+		ensureScopes(index);
+		Symbol[] scope = acquireScope(size);
+		this.scopes[index] = scope;
+		this.depth++;
+		return scope;
+	}
+
+	private void closeScope(){
+		int index = this.base + this.depth;
+		releaseScope(this.scopes[index]);
+		this.scopes[index] = null;
+		this.depth--;
+	}
+
+	//make room for a scope at index
+	private void ensureScopes(int index){
+		if(index >= this.scopes.length){
+			this.scopes = Arrays.copyOf(this.scopes,Math.max(2 * this.scopes.length,index + 1));
+		}
+	}
+
+	//a scope of the given size with only IT declared (uninitialized), from the scopes no longer in use if there is one
+	private Symbol[] acquireScope(int size){
+		if(size < this.freeScopes.size()){
+			ArrayList<Symbol[]> free = this.freeScopes.get(size);
+			if(!(free.isEmpty())){
+				Symbol[] scope = free.remove(free.size() - 1);
+				scope[0].setUninitialized();
+				return scope;
+			}
+		}
+		Symbol[] scope = new Symbol[size];
+		scope[0] = Symbol.uninitialized();
+		return scope;
+	}
+
+	//give back a scope, only its IT is kept
+	private void releaseScope(Symbol[] scope){
+		Arrays.fill(scope,1,scope.length,null);
+		while(this.freeScopes.size() <= scope.length){
+			this.freeScopes.add(new ArrayList<Symbol[]>());
+		}
+		this.freeScopes.get(scope.length).add(scope);
+	}
+
+	//the string VISIBLE prints for a value. literals are printed as they were written. NOOB has no string, printing
+	//it is an error
+	private String getPrintString(Expression value,int lineNo){
+		if(value instanceof LiteralExpression){
+			return ((LiteralExpression)value).getPrintString();
+		}
+
+		Symbol symbol = value.accept(this);
+		if(symbol == null){
+			return null;
+		}
+		if(symbol.getDatatype() == TokenType.DATATYPE_NONE){
+			printErrorMsg(lineNo,"NOOB cannot be printed.");
+			return null;
+		}
+		return SemanticAnalyzer.getStringFromSymbol(symbol);
+	}
+
+	private void printErrorMsg(int lineNo, String msg) {
+		if(!(errorDetected)){
+			System.out.println("Error at Line " + lineNo + " : " + msg);
+			errorDetected = true;
+			if(Trace.ENABLED){
+				Trace.current().record(TraceEvent.RUNTIME_ERROR,lineNo,-1);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,375 @@
+package semanticanalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import parser.ast.ArithmeticExpression;
+import parser.ast.AssignStatement;
+import parser.ast.Block;
+import parser.ast.BoolInfExpression;
+import parser.ast.BooleanExpression;
+import parser.ast.BreakStatement;
+import parser.ast.CallExpression;
+import parser.ast.ComparisonExpression;
+import parser.ast.DeclareStatement;
+import parser.ast.ErrorStatement;
+import parser.ast.Expression;
+import parser.ast.ExpressionStatement;
+import parser.ast.ExpressionVisitor;
+import parser.ast.FunctionDefinition;
+import parser.ast.IfThenStatement;
+import parser.ast.InputStatement;
+import parser.ast.LiteralExpression;
+import parser.ast.LoopStatement;
+import parser.ast.PrintStatement;
+import parser.ast.Program;
+import parser.ast.ReturnStatement;
+import parser.ast.Statement;
+import parser.ast.StatementVisitor;
+import parser.ast.SwitchStatement;
+import parser.ast.VariableExpression;
+import parser.ast.VariableLocation;
+import symboltable.NameTable;
+
+/*
+ Resolver
+
+ 	Finds where every variable of a program is kept when it runs, once the program is parsed, so the engines find a
+ variable by depth and slot instead of by name. Every statement is visited once, in the order the Interpreter runs
+ them.
+
+ 	Scopes: a running function (or the program body) has its frame, and a scope for every control flow statement it
+ is in. Every scope is an array of slots, with a slot for each variable declared directly in it (IT is slot 0, and the
+ parameters of a function follow). As a variable is only in a scope once its declaration has run, every use of a
+ variable is given the scopes that declare it, innermost first (see parser.ast.VariableLocation): the first of them
+ holding it is used. Where the declaration in the innermost of them has surely run (it comes before, in the same block
+ or a block around it), the location is resolved.
+
+ 	A program run as it is parsed (see parser.Parser.stream()) is resolved a few statements of its body at a time
+ with resolveStatements(), in a global scope kept between them, and each function with resolveFunction().
+
+ 	The results are kept in the tree: the location of every variable used, the slot of every declaration (and
+ whether its variable is ever assigned or read with GIMMEH, in any of the scopes an assignment may find it in), the
+ size of the scope of every control flow statement, and the frame of the program body and of every function.
+ */
+public class Resolver implements StatementVisitor<Void>,ExpressionVisitor<Void> {
+	private Program program;
+	private ArrayList<Region> scopes;			//scopes the statement being resolved is in, the frame first
+	private Region global;						//global scope of the statements given to resolveStatements()
+
+	//the slots of a scope
+	private static class Region {
+		private HashMap<Integer,Integer> slots;	//slot of every variable declared in the scope
+		private int size;
+		private HashSet<Integer> declared;		//slots surely declared at the statement being resolved
+		private HashSet<Integer> assigned;		//slots an assignment or GIMMEH may store into
+		private ArrayList<DeclareStatement> declarations;
+
+		Region() {
+			this.slots = new HashMap<Integer,Integer>();
+			this.size = 0;
+			this.declared = new HashSet<Integer>();
+			this.declared.add(add(NameTable.IT));
+			this.assigned = new HashSet<Integer>();
+			this.declarations = new ArrayList<DeclareStatement>();
+		}
+
+		//every assignment of the scope has been resolved
+		void close(){
+			for(DeclareStatement declaration:this.declarations){
+				declaration.setReassigned(this.assigned.contains(declaration.getSlot()));
+			}
+		}
+
+		//slot of a variable, given a new one if the scope has none for it yet
+		int add(int varId){
+			Integer slot = this.slots.get(varId);
+			if(slot == null){
+				slot = this.size++;
+				this.slots.put(varId,slot);
+			}
+			return slot;
+		}
+
+		//name ID of every slot
+		int[] getNames(){
+			int[] names = new int[this.size];
+			for(HashMap.Entry<Integer,Integer> slot:this.slots.entrySet()){
+				names[slot.getValue()] = slot.getKey();
+			}
+			return names;
+		}
+	}
+
+	public Resolver(Program program) {
+		this.program = program;
+	}
+
+	//resolve the program body and the functions
+	public void resolve(){
+		Region global = resolveBody(this.program.getBody(),new Region());
+		this.program.setGlobalNames(global.getNames());
+
+		for(FunctionDefinition function:this.program.getFunctions()){
+			resolveFunction(function);
+		}
+	}
+
+	//resolve the body of a function, in a frame with its parameters
+	public void resolveFunction(FunctionDefinition function){
+		Region frame = new Region();
+		int[] parameterSlots = new int[function.getParameterCount()];
+		for(int i = 0; i < parameterSlots.length; i++){
+			parameterSlots[i] = frame.add(function.getParameter(i));
+			frame.declared.add(parameterSlots[i]);
+		}
+		resolveBody(function.getBody(),frame);
+		function.setFrame(frame.getNames(),parameterSlots);
+	}
+
+	//resolve statements of the program body that follow the ones given before, in the same global scope. the names
+	//of the global scope are updated as it grows
+	public void resolveStatements(Block statements){
+		if(this.global == null){
+			this.global = new Region();
+		}
+		this.scopes = new ArrayList<Region>();
+		declareVariables(this.global,statements);
+		this.scopes.add(this.global);
+		statements.accept(this);
+
+		//the statements are let go once they have run
+		this.global.declarations.clear();
+		if(this.program.getGlobalNames() == null || this.program.getGlobalSize() != this.global.size){
+			this.program.setGlobalNames(this.global.getNames());
+		}
+	}
+
+	//resolve the body of a function or of the program, in its frame
+	private Region resolveBody(Block body,Region frame){
+		this.scopes = new ArrayList<Region>();
+		declareVariables(frame,body);
+		this.scopes.add(frame);
+		body.accept(this);
+		frame.close();
+		return frame;
+	}
+
+	//give a slot to every variable declared directly in the block (not in the control flow statements in it)
+	private static void declareVariables(Region scope,Block block){
+		for(Statement statement:block.getStatements()){
+			if(statement instanceof DeclareStatement){
+				scope.add(((DeclareStatement)statement).getVarId());
+			}
+		}
+	}
+
+	@Override
+	public Void visitBlock(Block block) {
+		for(Statement statement:block.getStatements()){
+			statement.accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitPrint(PrintStatement statement) {
+		for(Expression value:statement.getValues()){
+			value.accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitDeclare(DeclareStatement statement) {
+		Region scope = this.scopes.get(this.scopes.size() - 1);
+		int slot = scope.add(statement.getVarId());
+		if(statement.getValue() != null){
+			statement.getValue().accept(this);
+		}
+		statement.setSlot(slot);
+		scope.declared.add(slot);
+		scope.declarations.add(statement);
+		return null;
+	}
+
+	@Override
+	public Void visitAssign(AssignStatement statement) {
+		statement.setLocation(assign(locate(statement.getVarId())));
+		statement.getValue().accept(this);
+		return null;
+	}
+
+	@Override
+	public Void visitExpression(ExpressionStatement statement) {
+		statement.getValue().accept(this);
+		return null;
+	}
+
+	@Override
+	public Void visitInput(InputStatement statement) {
+		statement.setLocation(assign(locate(statement.getVarId())));
+		return null;
+	}
+
+	//both branches are in one scope, only one of them runs
+	@Override
+	public Void visitIfThen(IfThenStatement statement) {
+		Region scope = new Region();
+		declareVariables(scope,statement.getThenBlock());
+		declareVariables(scope,statement.getElseBlock());
+		this.scopes.add(scope);
+
+		HashSet<Integer> declared = new HashSet<Integer>(scope.declared);
+		statement.getThenBlock().accept(this);
+		scope.declared = declared;
+		statement.getElseBlock().accept(this);
+
+		this.scopes.remove(this.scopes.size() - 1);
+		scope.close();
+		statement.setScopeSize(scope.size);
+		return null;
+	}
+
+	//an entry may be the first one run
+	@Override
+	public Void visitSwitch(SwitchStatement statement) {
+		ArrayList<Block> entries = statement.getEntries();
+		Region scope = new Region();
+		for(Block entry:entries){
+			declareVariables(scope,entry);
+		}
+		this.scopes.add(scope);
+
+		HashSet<Integer> declared = scope.declared;
+		for(Block entry:entries){
+			scope.declared = new HashSet<Integer>(declared);
+			entry.accept(this);
+		}
+
+		this.scopes.remove(this.scopes.size() - 1);
+		scope.close();
+		statement.setScopeSize(scope.size);
+		return null;
+	}
+
+	@Override
+	public Void visitLoop(LoopStatement statement) {
+		Region scope = new Region();
+		if(statement.getOperation() != null){
+			int varSlot = scope.add(statement.getVarId());
+			scope.declared.add(varSlot);
+			statement.setVarSlot(varSlot);
+		}
+		declareVariables(scope,statement.getBody());
+		this.scopes.add(scope);
+
+		if(statement.getCondition() != null){
+			statement.getCondition().accept(this);
+		}
+		statement.getBody().accept(this);
+
+		this.scopes.remove(this.scopes.size() - 1);
+		scope.close();
+		statement.setScopeSize(scope.size);
+		return null;
+	}
+
+	@Override
+	public Void visitReturn(ReturnStatement statement) {
+		if(statement.getValue() != null){
+			statement.getValue().accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitBreak(BreakStatement statement) {
+		return null;
+	}
+
+	@Override
+	public Void visitError(ErrorStatement statement) {
+		return null;
+	}
+
+	@Override
+	public Void visitLiteral(LiteralExpression expression) {
+		return null;
+	}
+
+	@Override
+	public Void visitVariable(VariableExpression expression) {
+		expression.setLocation(locate(expression.getVarId()));
+		return null;
+	}
+
+	@Override
+	public Void visitArithmetic(ArithmeticExpression expression) {
+		expression.getOperand1().accept(this);
+		expression.getOperand2().accept(this);
+		return null;
+	}
+
+	@Override
+	public Void visitComparison(ComparisonExpression expression) {
+		expression.getOperand1().accept(this);
+		expression.getOperand2().accept(this);
+		return null;
+	}
+
+	@Override
+	public Void visitBoolean(BooleanExpression expression) {
+		expression.getOperand1().accept(this);
+		if(expression.getOperand2() != null){
+			expression.getOperand2().accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitBoolInf(BoolInfExpression expression) {
+		for(Expression operand:expression.getOperands()){
+			operand.accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitCall(CallExpression expression) {
+		for(Expression argument:expression.getArguments()){
+			argument.accept(this);
+		}
+		return null;
+	}
+
+	//the scopes that declare a variable, from the innermost out. resolved if the declaration in the innermost of them
+	//has surely run
+	private VariableLocation locate(int varId){
+		int[] location = new int[2 * this.scopes.size()];
+		int size = 0;
+		boolean resolved = false;
+		for(int depth = this.scopes.size() - 1; depth >= 0; depth--){
+			Region scope = this.scopes.get(depth);
+			Integer slot = scope.slots.get(varId);
+			if(slot != null){
+				if(size == 0){
+					resolved = scope.declared.contains(slot);
+				}
+				location[size++] = depth;
+				location[size++] = slot;
+			}
+		}
+		return new VariableLocation(Arrays.copyOf(location,size),resolved);
+	}
+
+	//the location is stored into: each of its slots may be
+	private VariableLocation assign(VariableLocation location){
+		for(int i = 0; i < location.getCount(); i++){
+			this.scopes.get(location.getDepth(i)).assigned.add(location.getSlot(i));
+		}
+		return location;
+	}
+}
@@ -1,20 +1,19 @@
 package semanticanalyzer;
 
-import java.util.ArrayList;
 import java.util.Scanner;
 
 import lexicalanalyzer.Lexeme;
 import lexicalanalyzer.TokenType;
-import parser.Parser;
+import symboltable.LiteralPool;
+import symboltable.NameTable;
 import symboltable.Symbol;
-import symboltable.SymbolTable;
+import trace.Trace;
+import trace.TraceEvent;
 
 public final class SemanticAnalyzer {
 
-	private static Scanner sc;
-
-	//parser is given to this class in order for the semantic analyzer to know the current situation in the parser.
-	//since there are methods that span multiple lexemes and be able to move the token stream.
+	//the operations used by the interpreter to run the syntax tree (see Interpreter), and the values of literals
+	//made by the parser when it builds the tree.
 
 	public static String removeStrDelimiters(String quotedString) {
 		return quotedString.substring(1, quotedString.length() - 1);
@@ -34,135 +33,74 @@ public final class SemanticAnalyzer {
 
 	}
 
-	//assign variable  - add/overwrite variables.
-	//returns true if the action is valid, returns false if action has semantic error
-	public static boolean assignVariable(String varName,Lexeme lexeme,SymbolTable st,Parser parser){
-
-		//add a symbol to create
-		Symbol<Object> assignedSymbol = null;
-
-			//symbol from expression
-			if(lexeme.isOperationSymbol()){
-				assignedSymbol = parser.analyzeExpression(st);
-			}
-
-			//symbol  from literal / variable
-			else if(lexeme.isLiteral() || lexeme.isVariable()){
-				assignedSymbol = getSymbolFromLiteralOrVariable(lexeme,st);
-			}
-
-			//add the assigned symbol to the semantic analyzer
-			if(assignedSymbol != null){
-
-				st.assignValue(varName, new Symbol<Object>(assignedSymbol.getValue(),assignedSymbol.getDatatype()));
-				return true;
-			}
-
-			return false;
-
-	}
-	//declare variable
-	public static boolean declareVariable(String varName, Lexeme lexeme, SymbolTable st, Parser parser) {
-		//add a symbol to create
-		//TODO turn to method
-		Symbol<Object> declaredSymbol = null;
-
-			//symbol from expression
-			if(lexeme.isOperationSymbol()){
-				declaredSymbol = parser.analyzeExpression(st);
-			}
-
-			//symbol  from literal / variable
-			else if(lexeme.isLiteral() || lexeme.isVariable()){
-				declaredSymbol = getSymbolFromLiteralOrVariable(lexeme,st);
-			}
-
-			//add the declared symbol to the semantic analyzer
-			if(declaredSymbol != null){
-
-				st.declareValue(varName, new Symbol<Object>(declaredSymbol.getValue(),declaredSymbol.getDatatype()));
-				return true;
-			}
-
-			return false;
-	}
-
-	//declare unititalized variable
-	public static void declareUnitializedVariable(String varName,SymbolTable st){
-		st.declareValue(varName, new Symbol<Object>("unitialized",TokenType.DATATYPE_NONE));
-	}
-
-	//grabs gets specified symbol
-	public static Symbol<Object> getSymbolFromSymbolTable(String variableName, SymbolTable st, int lineNo) {
-		if(st.inSymbolTable(variableName)){
+	//get the value of a variable from its symbol (null if it is not declared). the name is only looked up for an error
+	public static Symbol getValueOfVariable(Symbol variable, int variableId, NameTable names, int lineNo) {
 
-				Symbol<Object> retrievedSymbol = st.get(variableName);
+		if(variable != null){
 
-				if(retrievedSymbol.getDatatype() != TokenType.DATATYPE_NONE){
-					return retrievedSymbol;
+				if(variable.getDatatype() != TokenType.DATATYPE_NONE){
+					return variable;
 				}
 
-				printErrorMsg(lineNo,"Variable '" +variableName +"' not initialized.");
+				printErrorMsg(lineNo,"Variable '" +names.getName(variableId) +"' not initialized.");
 				return null;
 
 		}
 
-		printErrorMsg(lineNo,"Variable '" +variableName +"' unknown!.");
+		printErrorMsg(lineNo,"Variable '" +names.getName(variableId) +"' unknown!.");
 		return null;
 
 	}
 
-	//get a symbol
-	public static Symbol<Object> getSymbolFromLiteralOrVariable(Lexeme lexeme, SymbolTable st) {
+	//get the symbol of a literal, null if the lexeme is not a literal
+	public static Symbol getSymbolFromLiteral(Lexeme lexeme, LiteralPool literals) {
 
 		//on literal
 		if(lexeme.isLiteral()){
 				switch(lexeme.getClassifier()){
 
-					//on str literal
+					//on str literal (the symbol is made once and kept in the literal pool)
 					case STR_LITERAL:
-						String strValue = SemanticAnalyzer.removeStrDelimiters(lexeme.getValue());
-						return getSymbolFromString(strValue);
+						Symbol literalSymbol = literals.getSymbol(lexeme.getId());
+						if(literalSymbol == null){
+							literalSymbol = getSymbolFromString(literals.getString(lexeme.getId()));
+							literals.setSymbol(lexeme.getId(),literalSymbol);
+						}
+						return literalSymbol;
 
 					//on int
 					case INT_LITERAL:
 						int intValue = Integer.parseInt(lexeme.getValue());
-						return new Symbol<Object>(intValue,TokenType.DATATYPE_INT);
+						return new Symbol(intValue);
 
 					case FLOAT_LITERAL:
 						//check if float can be typecast to int
 						if (lexeme.getValue().matches("^-?\\d*\\.0+")){
 							int trailingIntValue = Integer.parseInt(removeTrailingZeros(lexeme.getValue()));
-							return new Symbol<Object>(trailingIntValue,TokenType.DATATYPE_INT);
+							return new Symbol(trailingIntValue);
 						}
 
 						double floatValue = Double.parseDouble(lexeme.getValue());
-						return new Symbol<Object>(floatValue,TokenType.DATATYPE_FLOAT);
+						return new Symbol(floatValue);
 
 					//on boolean literals
 					case BOOL_TRUE:
-						return new Symbol<Object>(true,TokenType.DATATYPE_BOOLEAN);
+						return Symbol.WIN;
 					case BOOL_FALSE:
-						return new Symbol<Object>(false,TokenType.DATATYPE_BOOLEAN);
+						return Symbol.FAIL;
 					default:
 
 				}
 		}
-		//on variable
-		if(lexeme.isVariable()){
-			return SemanticAnalyzer.getSymbolFromSymbolTable(lexeme.getValue(),st,lexeme.getLineNo());
-		}
-
-		printErrorMsg(lexeme.getLineNo(),"expecting a value for declared variable.");
 		return null;
 	}
 
 	//check patterns on the string value and determine whether they can be automatically typecasted into int or double
-	private static Symbol<Object> getSymbolFromString(String strValue) {
+	private static Symbol getSymbolFromString(String strValue) {
 
 		//strValue is an int
 		if(strValue.matches("^-?\\d+$")){
-			return new Symbol<Object> (Integer.parseInt(strValue),TokenType.DATATYPE_INT);
+			return new Symbol(Integer.parseInt(strValue));
 		}
 
 		//strValue is a double
@@ -170,48 +108,52 @@ public final class SemanticAnalyzer {
 
 			//if double can be typecast to int
 			if (strValue.matches("-?\\d*\\.0+$")){
-				return new Symbol<Object> (Integer.parseInt(removeTrailingZeros(strValue)),TokenType.DATATYPE_INT);
+				return new Symbol(Integer.parseInt(removeTrailingZeros(strValue)));
 			}
 
-			return new Symbol<Object> (Double.parseDouble(strValue),TokenType.DATATYPE_FLOAT);
+			return new Symbol(Double.parseDouble(strValue));
 		}
 
 		//if does not fit any int or double it is transformed into string.
-		return new Symbol<Object> (strValue,TokenType.DATATYPE_STRING);
+		return new Symbol(strValue);
 	}
 
-	//get user input
-	public static boolean getUserInput(String varName, Lexeme lexeme, SymbolTable st) {
-
-		//get input string
-		sc = new Scanner(System.in);
-		String inputString = sc.next();
+	//get user input into the symbol of a variable
+	public static boolean getUserInput(Symbol variable, int lineNo) {
 
-		//get input datatype
-		Symbol<Object>userInput = getSymbolFromString(inputString);
+		//get input string and datatype
+		Symbol userInput = readUserInput();
 
 		//put
 		if(userInput != null){
-			st.assignValue(varName,userInput);
+			variable.set(userInput);
 			return true;
 		}
 
-		printErrorMsg(lexeme.getLineNo(),"Input Error.");
+		printErrorMsg(lineNo,"Input Error.");
 		return false;
 
 	}
 
 
-	public static String getPrintString(Lexeme lexeme, SymbolTable st,Parser parser) {
+	//read a word from stdin, with the datatype it can be typecasted to. throws NoSuchElementException at the end of
+	//the input
+	public static Symbol readUserInput() {
+		Scanner sc = new Scanner(System.in);
+		return getSymbolFromString(sc.next());
+	}
+
+	//get the string VISIBLE prints for a literal, null if the lexeme is not a literal
+	public static String getPrintStringFromLiteral(Lexeme lexeme, LiteralPool literals) {
 
 		//on literal
 		if(lexeme.isLiteral()){
 
 			switch(lexeme.getClassifier()){
 
-				//on str literal
+				//on str literal (decoded by the lexical analyzer)
 				case STR_LITERAL:
-					return removeStrDelimiters(lexeme.getValue());
+					return literals.getString(lexeme.getId());
 
 				//on int or float literal
 				case INT_LITERAL:
@@ -228,53 +170,36 @@ public final class SemanticAnalyzer {
 			}
 		}
 
-		//on variable
-		if(lexeme.isVariable()){
-			Symbol<Object>  assignedSymbol = SemanticAnalyzer.getSymbolFromSymbolTable(lexeme.getValue(),st,lexeme.getLineNo());
-			if(assignedSymbol != null){
-				return getStringFromSymbol(assignedSymbol);
-			}
-			return null;
-		}
-
-		//on expression
-		if(lexeme.isOperationSymbol()){
-			Symbol<Object>  resultSymbol = parser.analyzeExpression(st);
-			if(resultSymbol != null){
-				return getStringFromSymbol(resultSymbol);
-			}
-			return null;
-		}
-
 		return null;
 	}
 
 	//get the string version of the symbol value
-	private static String getStringFromSymbol(Symbol<Object> symbol) {
-
-		String printString = symbol.getValue().toString();
-
-		//if boolean change "true" and "false" to their lolcode counterparts
-		if(symbol.getDatatype() == TokenType.DATATYPE_BOOLEAN){
-			if(printString == "true"){
-				return "WIN";
-			}
-			return "FAIL";
+	public static String getStringFromSymbol(Symbol symbol) {
+
+		switch(symbol.getDatatype()){
+			case DATATYPE_INT:
+				return Integer.toString(symbol.getInt());
+			case DATATYPE_FLOAT:
+				return Double.toString(symbol.getDouble());
+			//boolean is printed as its lolcode counterpart
+			case DATATYPE_BOOLEAN:
+				return symbol.getBoolean() ? "WIN" : "FAIL";
+			default:
+				return symbol.getString();
 		}
-		return printString;
 	}
 
 	//get boolean from symbol value
-	public static boolean getBooleanFromSymbol(Symbol<Object> symbol) {
+	public static boolean getBooleanFromSymbol(Symbol symbol) {
 
 		if(symbol.getDatatype() != TokenType.DATATYPE_BOOLEAN){
 			return true;
 		}
-		return (boolean)symbol.getValue();
+		return symbol.getBoolean();
 	}
 
 	//get resultant datatype
-	private static TokenType getResultDatatype(Symbol<Object> operand1, Symbol<Object> operand2, int lineNo) {
+	private static TokenType getResultDatatype(Symbol operand1, Symbol operand2, int lineNo) {
 
 		if(operand1.getDatatype() == TokenType.DATATYPE_INT && operand2.getDatatype() == TokenType.DATATYPE_INT){
 			return TokenType.DATATYPE_INT;
@@ -291,227 +216,128 @@ public final class SemanticAnalyzer {
 
 	}
 
-	//checks if variable is in symbol table or not
-	public static boolean variableInSymbolTable(String variableName, SymbolTable st) {
-		return st.inSymbolTable(variableName);
-	}
-
-	//perform arithmetic operation
-	public static Symbol<Object> performArithmeticOperation(TokenType operator, Symbol<Object> operand1,
-			Symbol<Object> operand2, int lineNo) {
+	//perform arithmetic operation. the value is put in result (a new symbol of the Interpreter), which is returned
+	public static Symbol performArithmeticOperation(TokenType operator, Symbol operand1,
+			Symbol operand2, Symbol result, int lineNo) {
 
 
 		//determine the datatype of the result (int or double).
 		TokenType resultDatatype = getResultDatatype(operand1,operand2,lineNo);
 
-
-		if(resultDatatype != TokenType.DATATYPE_NONE){
-			switch(operator){
-			//addition
-			case EXPR_ADD:
-				return performAddition(resultDatatype,operand1,operand2);
-			//subtraction
-			case EXPR_SUB:
-				return performSubtraction(resultDatatype,operand1,operand2);
-			//multiplication
-			case EXPR_MUL:
-				return performMultiplication(resultDatatype,operand1,operand2);
-			//division
-			case EXPR_DIV:
-				return performDivision(resultDatatype,operand1,operand2,lineNo);
-			//modulo
-			case EXPR_MOD:
-				return performModulo(resultDatatype,operand1,operand2,lineNo);
-			//max
-			case EXPR_MAX:
-				return performMax(resultDatatype,operand1,operand2);
-			//min
-			case EXPR_MIN:
-				return performMin(resultDatatype,operand1,operand2);
-
-			default:
-				break;
-			}
-		}
-
-		return null;
-
-	}
-
-	private static Symbol<Object> performAddition(TokenType resultDatatype, Symbol<Object> operand1, Symbol<Object> operand2) {
-
 		//both operands are int
 		if(resultDatatype == TokenType.DATATYPE_INT){
-			return  new Symbol<Object>((int)operand1.getValue() + (int)operand2.getValue(),resultDatatype);
-		}
-		//only op 1 is int
-		if(operand1.getDatatype() == TokenType.DATATYPE_INT){
-			return new Symbol<Object>((int)operand1.getValue() + (double)operand2.getValue(),resultDatatype);
+			return performIntOperation(operator,operand1.getInt(),operand2.getInt(),result,lineNo);
 		}
-		//only op 2 is int
-		if(operand2.getDatatype() == TokenType.DATATYPE_INT){
-			return new Symbol<Object>((double)operand1.getValue() + (int)operand2.getValue(),resultDatatype);
+		//at least one operand is double, an int operand is typecasted
+		if(resultDatatype == TokenType.DATATYPE_FLOAT){
+			return performFloatOperation(operator,operand1.getNumber(),operand2.getNumber(),result);
 		}
-		//both operands are double
-		return new Symbol<Object>((double)operand1.getValue() + (double)operand2.getValue(),resultDatatype);
 
-	}
+		return null;
 
-	private static Symbol<Object> performSubtraction(TokenType resultDatatype, Symbol<Object> operand1,
-			Symbol<Object> operand2) {
-		//both operands are int
-		if(resultDatatype == TokenType.DATATYPE_INT){
-			return  new Symbol<Object>((int)operand1.getValue() - (int)operand2.getValue(),resultDatatype);
-		}
-		//only op 1 is int
-		if(operand1.getDatatype() == TokenType.DATATYPE_INT){
-			return new Symbol<Object>((int)operand1.getValue() - (double)operand2.getValue(),resultDatatype);
-		}
-		//only op 2 is int
-		if(operand2.getDatatype() == TokenType.DATATYPE_INT){
-			return new Symbol<Object>((double)operand1.getValue() - (int)operand2.getValue(),resultDatatype);
-		}
-		//both operands are double
-		return new Symbol<Object>((double)operand1.getValue() - (double)operand2.getValue(),resultDatatype);
 	}
 
-	private static Symbol<Object> performMultiplication(TokenType resultDatatype, Symbol<Object> operand1,
-			Symbol<Object> operand2) {
+	private static Symbol performIntOperation(TokenType operator, int operand1, int operand2, Symbol result, int lineNo) {
 
-		//both operands are int
-		if(resultDatatype == TokenType.DATATYPE_INT){
-			return  new Symbol<Object>((int)operand1.getValue() * (int)operand2.getValue(),resultDatatype);
-		}
-		//only op 1 is int
-		if(operand1.getDatatype() == TokenType.DATATYPE_INT){
-			return new Symbol<Object>((int)operand1.getValue() * (double)operand2.getValue(),resultDatatype);
-		}
-		//only op 2 is int
-		if(operand2.getDatatype() == TokenType.DATATYPE_INT){
-			return new Symbol<Object>((double)operand1.getValue() * (int)operand2.getValue(),resultDatatype);
-		}
-		//both operands are double
-		return new Symbol<Object>((double)operand1.getValue() * (double)operand2.getValue(),resultDatatype);
-
-	}
-
-	private static Symbol<Object> performDivision(TokenType resultDatatype, Symbol<Object> operand1,
-			Symbol<Object> operand2, int lineNo) {
-		try{
-			//both operands are int
-			if(resultDatatype == TokenType.DATATYPE_INT){
-				return  new Symbol<Object>((int)operand1.getValue() / (int)operand2.getValue(),resultDatatype);
-			}
-			//only op 1 is int
-			if(operand1.getDatatype() == TokenType.DATATYPE_INT){
-				return new Symbol<Object>((int)operand1.getValue() / (double)operand2.getValue(),resultDatatype);
+		switch(operator){
+		//addition
+		case EXPR_ADD:
+			result.setInt(operand1 + operand2);
+			return result;
+		//subtraction
+		case EXPR_SUB:
+			result.setInt(operand1 - operand2);
+			return result;
+		//multiplication
+		case EXPR_MUL:
+			result.setInt(operand1 * operand2);
+			return result;
+		//division
+		case EXPR_DIV:
+			if(operand2 == 0){
+				printErrorMsg(lineNo,"Zero Division.");
+				return null;
 			}
-			//only op 2 is int
-			if(operand2.getDatatype() == TokenType.DATATYPE_INT){
-				return new Symbol<Object>((double)operand1.getValue() / (int)operand2.getValue(),resultDatatype);
+			result.setInt(operand1 / operand2);
+			return result;
+		//modulo
+		case EXPR_MOD:
+			if(operand2 == 0){
+				printErrorMsg(lineNo,"Zero Division.");
+				return null;
 			}
-			//both operands are double
-			return new Symbol<Object>((double)operand1.getValue() / (double)operand2.getValue(),resultDatatype);
-
+			result.setInt(operand1 % operand2);
+			return result;
+		//max
+		case EXPR_MAX:
+			result.setInt(Math.max(operand1,operand2));
+			return result;
+		//min
+		case EXPR_MIN:
+			result.setInt(Math.min(operand1,operand2));
+			return result;
 
-		}catch(ArithmeticException e){
-			printErrorMsg(lineNo,"Zero Division.");
+		default:
 			return null;
 		}
 	}
 
-	private static Symbol<Object> performModulo(TokenType resultDatatype, Symbol<Object> operand1,
-			Symbol<Object> operand2,int lineNo) {
-
-		try{
-			//both operands are int
-			if(resultDatatype == TokenType.DATATYPE_INT){
-				return  new Symbol<Object>((int)operand1.getValue() % (int)operand2.getValue(),resultDatatype);
-			}
-			//only op 1 is int
-			if(operand1.getDatatype() == TokenType.DATATYPE_INT){
-				return new Symbol<Object>((int)operand1.getValue() % (double)operand2.getValue(),resultDatatype);
-			}
-			//only op 2 is int
-			if(operand2.getDatatype() == TokenType.DATATYPE_INT){
-				return new Symbol<Object>((double)operand1.getValue() % (int)operand2.getValue(),resultDatatype);
-			}
-			//both operands are double
-			return new Symbol<Object>((double)operand1.getValue() % (double)operand2.getValue(),resultDatatype);
+	//a double division by zero gives infinity (or NaN), it is not an error
+	private static Symbol performFloatOperation(TokenType operator, double operand1, double operand2, Symbol result) {
 
+		switch(operator){
+		//addition
+		case EXPR_ADD:
+			result.setDouble(operand1 + operand2);
+			return result;
+		//subtraction
+		case EXPR_SUB:
+			result.setDouble(operand1 - operand2);
+			return result;
+		//multiplication
+		case EXPR_MUL:
+			result.setDouble(operand1 * operand2);
+			return result;
+		//division
+		case EXPR_DIV:
+			result.setDouble(operand1 / operand2);
+			return result;
+		//modulo
+		case EXPR_MOD:
+			result.setDouble(operand1 % operand2);
+			return result;
+		//max
+		case EXPR_MAX:
+			result.setDouble(Math.max(operand1,operand2));
+			return result;
+		//min
+		case EXPR_MIN:
+			result.setDouble(Math.min(operand1,operand2));
+			return result;
 
-		}catch(ArithmeticException e){
-			printErrorMsg(lineNo,"Zero Division.");
+		default:
 			return null;
 		}
 	}
 
-	private static Symbol<Object> performMax(TokenType resultDatatype, Symbol<Object> operand1,
-			Symbol<Object> operand2) {
-		//both operands are int
-		if(resultDatatype == TokenType.DATATYPE_INT){
-			return new Symbol<Object>(Math.max((int)operand1.getValue(),(int)operand2.getValue()),resultDatatype);
-		}
-
-		double typecastedValue = 0;
-
-		//only op 1 is int
-		if(operand1.getDatatype() == TokenType.DATATYPE_INT){
-			typecastedValue = Double.parseDouble(operand1.getValue().toString());
-			return new Symbol<Object>(Math.max(typecastedValue,(double)operand2.getValue()),resultDatatype);
-		}
-		//only op 2 is int
-		if(operand2.getDatatype() == TokenType.DATATYPE_INT){
-			typecastedValue = Double.parseDouble(operand2.getValue().toString());
-			return new Symbol<Object>(Math.max((double)operand1.getValue(),typecastedValue),resultDatatype);
-		}
-		//both operands are double
-		return new Symbol<Object>(Math.max((double)operand1.getValue(),(double)operand2.getValue()),resultDatatype);
-
-	}
-
-	private static Symbol<Object> performMin(TokenType resultDatatype, Symbol<Object> operand1,
-			Symbol<Object> operand2) {
-		//both operands are int
-		if(resultDatatype == TokenType.DATATYPE_INT){
-			return new Symbol<Object>(Math.min((int)operand1.getValue(),(int)operand2.getValue()),resultDatatype);
-		}
-
-		double typecastedValue = 0;
-
-		//only op 1 is int
-		if(operand1.getDatatype() == TokenType.DATATYPE_INT){
-			typecastedValue = Double.parseDouble(operand1.getValue().toString());
-			return new Symbol<Object>(Math.min(typecastedValue,(double)operand2.getValue()),resultDatatype);
-		}
-		//only op 2 is int
-		if(operand2.getDatatype() == TokenType.DATATYPE_INT){
-			typecastedValue = Double.parseDouble(operand2.getValue().toString());
-			return new Symbol<Object>(Math.min((double)operand1.getValue(),typecastedValue),resultDatatype);
-		}
-		//both operands are double
-		return new Symbol<Object>(Math.min((double)operand1.getValue(),(double)operand2.getValue()),resultDatatype);
-
-	}
-
 	//comparison operation
-	public static Symbol<Object> performComparisonOperation(TokenType operator, Symbol<Object> operand1,
-			Symbol<Object> operand2) {
+	public static Symbol performComparisonOperation(TokenType operator, Symbol operand1,
+			Symbol operand2) {
 
 		//check for equality
-		boolean resultBoolean = operand1.getValue().equals(operand2.getValue());
+		boolean resultBoolean = operand1.sameValue(operand2);
 
 		//if not equal, flip the boolean result
 		if(operator == TokenType.COMP_NOT_EQUAL){
 			resultBoolean = !(resultBoolean);
 		}
 
-		return new Symbol<Object>(resultBoolean,TokenType.DATATYPE_BOOLEAN);
+		return Symbol.of(resultBoolean);
 	}
 
 	//boolean operation (binary operands)
-	public static Symbol<Object> performBooleanOperation(TokenType operator, Symbol<Object> operand1,
-			Symbol<Object> operand2) {
+	public static Symbol performBooleanOperation(TokenType operator, Symbol operand1,
+			Symbol operand2) {
 
 		//holds the boolean of the answer
 		boolean resultBoolean = false;
@@ -533,11 +359,11 @@ public final class SemanticAnalyzer {
 		default:
 		}
 
-		return new Symbol<Object>(resultBoolean,TokenType.DATATYPE_BOOLEAN);
+		return Symbol.of(resultBoolean);
 	}
 
 	//boolean operation (unary operands)
-	public static Symbol<Object> performBooleanOperation(TokenType operator, Symbol<Object> operand1) {
+	public static Symbol performBooleanOperation(TokenType operator, Symbol operand1) {
 
 		//holds the boolean of the answer
 		boolean resultBoolean = false;
@@ -550,37 +376,29 @@ public final class SemanticAnalyzer {
 			resultBoolean = !(bool1);
 		}
 
-		return new Symbol<Object>(resultBoolean,TokenType.DATATYPE_BOOLEAN);
+		return Symbol.of(resultBoolean);
 	}
 
-	public static Symbol<Object> performBoolInfOperation(TokenType operator, ArrayList<Symbol<Object>> operands) {
+	//repeated boolean operation, given how many of its operands are true
+	public static Symbol performBoolInfOperation(TokenType operator, int trueOperands, int operandCount) {
 
-		//holds the boolean of the answer
-		boolean resultBoolean = false;
-
-		//for repeated AND, change start to true
+		//repeated AND: every operand is true
 		if(operator == TokenType.BOOL_INF_AND){
-			resultBoolean = true;
+			return Symbol.of(trueOperands == operandCount);
 		}
-
-		for(Symbol<Object> operand: operands){
-			//if repeated AND is performed and one operand is false
-			if(operator == TokenType.BOOL_INF_AND && getBooleanFromSymbol(operand) == false){
-				resultBoolean = false;
-				break;
-				//if repeated OR is performed and one operand is true
-			}else if(operator == TokenType.BOOL_INF_OR && getBooleanFromSymbol(operand) == true){
-				resultBoolean = true;
-				break;
-			}
+		//repeated OR: one operand is true
+		if(operator == TokenType.BOOL_INF_OR){
+			return Symbol.of(trueOperands > 0);
 		}
-
-		return new Symbol<Object>(resultBoolean,TokenType.DATATYPE_BOOLEAN);
+		return Symbol.FAIL;
 	}
 
 	public static void printErrorMsg(int lineNo, String msg) {
 
 		System.out.println("Error at Line " + lineNo + " : " + msg);
+		if(Trace.ENABLED){
+			Trace.current().record(TraceEvent.RUNTIME_ERROR,lineNo,-1);
+		}
 
 	}
 
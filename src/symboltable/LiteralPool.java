@@ -0,0 +1,130 @@
+package symboltable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/*
+ Literal Pool
+
+ 	Holds the decoded value of every string literal of a program, each with an index. The lexical analyzer decodes a
+ string literal once, when it is found, and its lexeme carries the index in the pool. Literals with the same value
+ share an index.
+
+ 	The symbol made from a literal (see SemanticAnalyzer) is kept with it, so evaluating a literal again makes
+ no new String or Symbol.
+
+ 	Escape sequences:
+ 		:)  new line		:>  tab				:o  bell
+ 		:"  double quote	::  colon			:(<hex>)  the unicode code point <hex>
+ 	Any other colon is kept as is (including a colon at the end of the literal).
+
+ */
+public class LiteralPool {
+
+	private ArrayList<String> values;				//value of every index
+	private ArrayList<Symbol> symbols;		//symbol of every index, made on first use
+	private HashMap<String,Integer> indexes;		//index of every value
+
+	public LiteralPool() {
+		this.values = new ArrayList<String>();
+		this.symbols = new ArrayList<Symbol>();
+		this.indexes = new HashMap<String,Integer>();
+	}
+
+	//number of literals
+	public int size(){
+		return this.values.size();
+	}
+
+	public String getString(int index){
+		return this.values.get(index);
+	}
+
+	public Symbol getSymbol(int index){
+		return this.symbols.get(index);
+	}
+
+	public void setSymbol(int index,Symbol symbol){
+		this.symbols.set(index,symbol);
+	}
+
+	/*
+	 Intern
+
+	 	Decodes the escape sequences of the contents of a string literal (from start to end of the text, without the
+	 double quotes) and returns the index of the decoded value.
+	 */
+	public int intern(CharSequence text,int start,int end){
+		return intern(decode(text,start,end));
+	}
+
+	//index of an already decoded value
+	public int intern(String value){
+		Integer index = this.indexes.get(value);
+		if(index == null){
+			index = this.values.size();
+			this.values.add(value);
+			this.symbols.add(null);
+			this.indexes.put(value,index);
+		}
+		return index;
+	}
+
+	//value of the contents of a string literal, with its escape sequences replaced
+	public static String decode(CharSequence text,int start,int end){
+		StringBuilder value = new StringBuilder(end - start);
+		int i = start;
+		while(i < end){
+			char c = text.charAt(i++);
+			if(c != ':' || i == end){
+				value.append(c);
+				continue;
+			}
+
+			char escape = text.charAt(i);
+			switch(escape){
+				case ')':
+					value.append('\n');
+					i++;
+					break;
+				case '>':
+					value.append('\t');
+					i++;
+					break;
+				case 'o':
+					value.append('\u0007');
+					i++;
+					break;
+				case '"':
+				case ':':
+					value.append(escape);
+					i++;
+					break;
+				case '(':
+					int close = i + 1;
+					while(close < end && isHexDigit(text.charAt(close))){
+						close++;
+					}
+					//:(<hex>) with a valid code point
+					if(close < end && close > i + 1 && close - i - 1 <= 6 && text.charAt(close) == ')'){
+						int codePoint = Integer.parseInt(text.subSequence(i + 1,close).toString(),16);
+						if(Character.isValidCodePoint(codePoint)){
+							value.appendCodePoint(codePoint);
+							i = close + 1;
+							break;
+						}
+					}
+					value.append(c);
+					break;
+				default:
+					value.append(c);
+			}
+		}
+		return value.toString();
+	}
+
+	private static boolean isHexDigit(char c){
+		return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+	}
+
+}
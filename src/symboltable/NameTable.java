@@ -0,0 +1,123 @@
+package symboltable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/*
+ Name Table
+
+ 	Holds every variable name of a program, each with an integer ID. The lexical analyzer interns the names of
+ variable identifiers while lexing, so the lexemes carry the ID and symbol tables are keyed by the ID instead of the
+ name. Names are never removed. IDs start at 0 and are given in the order the names are first found.
+
+ 	The implicit variable IT always has the ID 0.
+
+ */
+public class NameTable {
+
+	public static final int IT = 0;		//ID of the implicit variable
+	public static final int NONE = -1;	//ID of lexemes that are not variables
+
+	private ArrayList<String> names;	//name of every ID
+	private int[] slots;				//open addressing hash table of ID + 1 (0 - empty slot)
+	private int mask;
+
+	public NameTable() {
+		this.names = new ArrayList<String>();
+		this.slots = new int[16];
+		this.mask = this.slots.length - 1;
+
+		intern("IT",0,2);
+	}
+
+	//number of names
+	public int size(){
+		return this.names.size();
+	}
+
+	//name of an ID
+	public String getName(int id){
+		return this.names.get(id);
+	}
+
+	//ID of a name, NONE if the name is not in the table
+	public int getId(String name){
+		int slot = hash(name,0,name.length()) & this.mask;
+		while(this.slots[slot] != 0){
+			int id = this.slots[slot] - 1;
+			if(equals(this.names.get(id),name,0,name.length())){
+				return id;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return NONE;
+	}
+
+	/*
+	 Intern
+
+	 	Returns the ID of the name from start to end of the text. The name is only made into a String
+	 the first time it is found.
+	 */
+	public int intern(CharSequence text,int start,int end){
+		int slot = hash(text,start,end) & this.mask;
+		while(this.slots[slot] != 0){
+			int id = this.slots[slot] - 1;
+			if(equals(this.names.get(id),text,start,end)){
+				return id;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+
+		//new name
+		int id = this.names.size();
+		this.names.add(text.subSequence(start,end).toString());
+		this.slots[slot] = id + 1;
+
+		//keep the table at most half full
+		if(this.names.size() * 2 > this.slots.length){
+			rehash();
+		}
+		return id;
+	}
+
+	private void rehash(){
+		this.slots = new int[this.slots.length * 2];
+		this.mask = this.slots.length - 1;
+		for(int id = 0; id < this.names.size(); id++){
+			String name = this.names.get(id);
+			int slot = hash(name,0,name.length()) & this.mask;
+			while(this.slots[slot] != 0){
+				slot = (slot + 1) & this.mask;
+			}
+			this.slots[slot] = id + 1;
+		}
+	}
+
+	//same hash as String.hashCode(), spread over the low bits
+	private static int hash(CharSequence text,int start,int end){
+		int h = 0;
+		for(int i = start; i < end; i++){
+			h = 31 * h + text.charAt(i);
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static boolean equals(String name,CharSequence text,int start,int end){
+		if(name.length() != end - start){
+			return false;
+		}
+		for(int i = 0; i < name.length(); i++){
+			if(name.charAt(i) != text.charAt(start + i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.names.toArray());
+	}
+
+}
@@ -2,33 +2,162 @@ package symboltable;
 
 import lexicalanalyzer.TokenType;
 
-public class Symbol<T> {
-	//TODO: Have the value attribute handle primitive datatypes
-	private T value;
-	private TokenType datatype;
+/*
+ Symbol
+
+ 	A value: its datatype (the tag) and the value itself. NUMBR, NUMBAR and TROOF values are kept in a long (the int,
+ the bits of the double, or 1/0) so they are never boxed, and a YARN is kept as its String.
+
+ 	A variable owns its symbol, and assigning the variable copies the new value into that symbol (set()), so
+ assignments make no new symbols. Every other symbol (the value of a literal, the TROOF constants WIN and FAIL, the
+ result kept by an operation) may be shared, and is only changed by its owner.
+ */
+public class Symbol {
 
 	public static String UNINITIALIZED = "unitialized";
 
+	public static final Symbol WIN = new Symbol(true);
+	public static final Symbol FAIL = new Symbol(false);
 
-	public Symbol(T value,TokenType datatype) {
-		this.value = value;
-		this.datatype = datatype;
+	private TokenType datatype;
+	private long bits;						//NUMBR, NUMBAR (Double.doubleToLongBits) or TROOF (1 or 0)
+	private String string;					//YARN, or UNINITIALIZED for NOOB
+
+	public Symbol(int value) {
+		setInt(value);
 	}
 
-	public T getValue(){
-		return this.value;
+	public Symbol(double value) {
+		setDouble(value);
 	}
-	public void setValue(T value){
-		this.value = value;
+
+	public Symbol(boolean value) {
+		setBoolean(value);
 	}
 
+	public Symbol(String value) {
+		setString(value);
+	}
+
+	//copy of another symbol
+	public Symbol(Symbol symbol) {
+		set(symbol);
+	}
+
+	//NOOB
+	public static Symbol uninitialized(){
+		Symbol symbol = new Symbol(UNINITIALIZED);
+		symbol.setUninitialized();
+		return symbol;
+	}
+
+	//TROOF constant of a boolean
+	public static Symbol of(boolean value){
+		return value ? WIN : FAIL;
+	}
 
 	public TokenType getDatatype(){
 		return this.datatype;
 	}
 
-	public void setDatatype(TokenType datatype){
+	public int getInt(){
+		return (int)this.bits;
+	}
+
+	public double getDouble(){
+		return Double.longBitsToDouble(this.bits);
+	}
+
+	//a NUMBR or NUMBAR as a double
+	public double getNumber(){
+		return this.datatype == TokenType.DATATYPE_INT ? (double)(int)this.bits : Double.longBitsToDouble(this.bits);
+	}
+
+	public boolean getBoolean(){
+		return this.bits != 0;
+	}
+
+	public String getString(){
+		return this.string;
+	}
+
+	//the payload of a NUMBR, NUMBAR or TROOF, as it is kept (see vm.ClassRuntime)
+	public long getBits(){
+		return this.bits;
+	}
+
+	//the value as an Object (boxed), where values are compared or printed as objects
+	public Object getValue(){
+		switch(this.datatype){
+			case DATATYPE_INT:
+				return getInt();
+			case DATATYPE_FLOAT:
+				return getDouble();
+			case DATATYPE_BOOLEAN:
+				return getBoolean();
+			default:
+				return this.string;
+		}
+	}
+
+	//equal values: the same datatype, and the same string for YARNs or the same bits otherwise (as Double.equals(),
+	//NaN is equal to itself). NOOB is only equal to NOOB, its string is never compared
+	public boolean sameValue(Symbol symbol){
+		if(this.datatype != symbol.datatype){
+			return false;
+		}
+		switch(this.datatype){
+			case DATATYPE_STRING:
+				return this.string.equals(symbol.string);
+			case DATATYPE_NONE:
+				return true;
+			default:
+				return this.bits == symbol.bits;
+		}
+	}
+
+	//copy the datatype and value of another symbol
+	public void set(Symbol symbol){
+		this.datatype = symbol.datatype;
+		this.bits = symbol.bits;
+		this.string = symbol.string;
+	}
+
+	//set the datatype and value as they are kept (see getBits())
+	public void set(TokenType datatype,long bits,String string){
 		this.datatype = datatype;
+		this.bits = bits;
+		this.string = string;
+	}
+
+	public void setInt(int value){
+		this.datatype = TokenType.DATATYPE_INT;
+		this.bits = value;
+		this.string = null;
+	}
+
+	public void setDouble(double value){
+		this.datatype = TokenType.DATATYPE_FLOAT;
+		this.bits = Double.doubleToLongBits(value);
+		this.string = null;
+	}
+
+	public void setBoolean(boolean value){
+		this.datatype = TokenType.DATATYPE_BOOLEAN;
+		this.bits = value ? 1 : 0;
+		this.string = null;
+	}
+
+	public void setString(String value){
+		this.datatype = TokenType.DATATYPE_STRING;
+		this.bits = 0;
+		this.string = value;
+	}
+
+	public void setUninitialized(){
+		this.datatype = TokenType.DATATYPE_NONE;
+		this.bits = 0;
+		this.string = UNINITIALIZED;
 	}
 
 }
@@ -1,32 +1,70 @@
 package symboltable;
 
-import java.util.HashMap;
+import java.io.PrintStream;
+import java.util.Arrays;
 
-import lexicalanalyzer.TokenType;
 
+/*
+ Symbol Table
 
+ 	Variables are keyed by the ID of their name in the name table of the program (see NameTable), so a lookup
+ hashes an int instead of a String. The symbols are held in an open addressing hash table (linear probing).
+
+ */
 public class SymbolTable {
 
-	private HashMap<String,Symbol<Object>> symbolTable;
+	private static final int EMPTY = -1;	//key of an empty slot
+
+	private int[] keys;						//name IDs
+	private Symbol[] symbols;				//symbol of each key
+	private int size;						//number of variables
+	private int mask;
+
+	//names of the variables
+	private NameTable names;
+
+	//string literals of the program
+	private LiteralPool literals;
 
 	//parent symbolTable
 	private SymbolTable parent;
 
+	//local symbol table, sharing the name table and literal pool of its parent
 	public SymbolTable(SymbolTable parent) {
-		this.symbolTable = new HashMap<String,Symbol<Object>>();
+		this(parent,parent.names,parent.literals);
+	}
+
+	public SymbolTable(SymbolTable parent,NameTable names,LiteralPool literals) {
+		this.keys = new int[8];
+		this.symbols = newSymbols(8);
+		this.mask = this.keys.length - 1;
+		this.size = 0;
+		Arrays.fill(this.keys, EMPTY);
+
+		this.names = names;
+		this.literals = literals;
 
 		//get the parent symbol table
 		this.parent = parent;
 
 		//an implicit variable IT is created
-		this.symbolTable.put("IT", new Symbol<Object>("unitialized",TokenType.DATATYPE_NONE));
+		declareValue(NameTable.IT, Symbol.uninitialized());
+	}
+
+	public NameTable getNameTable(){
+		return this.names;
+	}
+
+	public LiteralPool getLiteralPool(){
+		return this.literals;
 	}
 
 	//assignment - variable must exist.
-	public void assignValue(String key,Symbol<Object> s){
+	public void assignValue(int key,Symbol s){
 
-		if(this.symbolTable.containsKey(key)){
-			this.symbolTable.put(key, s);
+		int slot = find(key);
+		if(slot >= 0){
+			this.symbols[slot] = s;
 		}else if (this.parent != null){
 			this.parent.assignValue(key, s);
 		}
@@ -34,15 +72,32 @@ public class SymbolTable {
 	}
 
 	//declaration - declare variable in the current symbol table
-	public void declareValue(String key,Symbol<Object> s){
+	public void declareValue(int key,Symbol s){
+
+		int slot = find(key);
+		if(slot >= 0){
+			this.symbols[slot] = s;
+			return;
+		}
 
-		this.symbolTable.put(key, s);
+		//keep the table at most half full
+		if((this.size + 1) * 2 > this.keys.length){
+			rehash();
+		}
+		slot = home(key);
+		while(this.keys[slot] != EMPTY){
+			slot = (slot + 1) & this.mask;
+		}
+		this.keys[slot] = key;
+		this.symbols[slot] = s;
+		this.size++;
 	}
 
-	public  Symbol<Object> get(String key){
+	public  Symbol get(int key){
 
-		if(this.symbolTable.containsKey(key)){
-			return this.symbolTable.get(key);
+		int slot = find(key);
+		if(slot >= 0){
+			return this.symbols[slot];
 		}
 
 		if(this.parent != null){
@@ -52,9 +107,9 @@ public class SymbolTable {
 		return null;
 	}
 
-	public boolean inSymbolTable(String variablekey){
+	public boolean inSymbolTable(int variablekey){
 
-		if(this.symbolTable.containsKey(variablekey)){
+		if(find(variablekey) >= 0){
 			return true;
 		}
 
@@ -65,12 +120,57 @@ public class SymbolTable {
 		return false;
 	}
 
-	public void print() {
-		System.out.format("%-20s%-20s%-15s\n","Name","Type","Value");
-		for(String key:this.symbolTable.keySet()){
+	//first slot to probe for a key (IDs are small and dense, so they are scattered by a multiplicative hash)
+	private int home(int key){
+		int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & this.mask;
+	}
+
+	//slot of a key in this table, -1 if not found
+	private int find(int key){
+		int slot = home(key);
+		while(this.keys[slot] != EMPTY){
+			if(this.keys[slot] == key){
+				return slot;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return -1;
+	}
+
+	private void rehash(){
+		int[] oldKeys = this.keys;
+		Symbol[] oldSymbols = this.symbols;
+
+		this.keys = new int[oldKeys.length * 2];
+		this.symbols = newSymbols(oldKeys.length * 2);
+		this.mask = this.keys.length - 1;
+		Arrays.fill(this.keys, EMPTY);
+
+		for(int i = 0; i < oldKeys.length; i++){
+			if(oldKeys[i] != EMPTY){
+				int slot = home(oldKeys[i]);
+				while(this.keys[slot] != EMPTY){
+					slot = (slot + 1) & this.mask;
+				}
+				this.keys[slot] = oldKeys[i];
+				this.symbols[slot] = oldSymbols[i];
+			}
+		}
+	}
+
+	private static Symbol[] newSymbols(int capacity){
+		return new Symbol[capacity];
+	}
 
+	public void print(PrintStream out) {
+		out.format("%-20s%-20s%-15s\n","Name","Type","Value");
+		for(int i = 0; i < this.keys.length; i++){
+			if(this.keys[i] == EMPTY){
+				continue;
+			}
 
-			System.out.format("%-20s%-20s%-15s\n",key,this.symbolTable.get(key).getDatatype(),this.symbolTable.get(key).getValue());
+			out.format("%-20s%-20s%-15s\n",this.names.getName(this.keys[i]),this.symbols[i].getDatatype(),this.symbols[i].getValue());
 
 		}
 
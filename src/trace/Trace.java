@@ -0,0 +1,130 @@
+package trace;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import user.Main;
+
+/*
+ Trace
+
+ 	A ring buffer of the last CAPACITY events of a thread. Each record has a fixed size of 5 ints (20 bytes): the
+ event, the line, the index of the token being read (-1 when there is none) and a time as 2 ints. The buffer is
+ allocated once per thread and recording an event only stores these ints, so a traced program runs at close to full
+ speed and the trace is only written out (dump) when a program fails.
+
+ 	System.nanoTime() costs more than the rest of a record, so it is only read every TIME_SAMPLE records and the
+ records in between keep the last time read. Times in a trace are therefore exact to a run of TIME_SAMPLE events.
+
+ 	Tracing is off unless asked for (Main.tracing, read once when this class is loaded into ENABLED). ENABLED is not
+ a compile-time constant, so every if(Trace.ENABLED) around a record stays in the bytecode and is a field read while
+ it is interpreted. Once a method is JIT compiled the field, being static final, is folded into a constant by HotSpot
+ and the check and the record under it are left out.
+
+ 	Dump format (big endian):
+ 		int MAGIC, int VERSION, int number of records
+ 		the records, oldest first: int event, int line, int token index, long nanotime (sampled)
+ 	See TraceDecoder.
+ */
+public final class Trace {
+
+	public static final boolean ENABLED = Main.tracing;
+
+	public static final int MAGIC = 0x4C4F4C54;		//"LOLT"
+	public static final int VERSION = 2;
+	public static final int CAPACITY = 4096;		//records kept (a power of 2)
+	static final int TIME_SAMPLE = 64;				//records per read of System.nanoTime() (a power of 2)
+	static final int RECORD_INTS = 5;
+
+	private static final ThreadLocal<Trace> TRACES = new ThreadLocal<Trace>(){
+		@Override
+		protected Trace initialValue() {
+			return new Trace();
+		}
+	};
+
+	private final int[] records;
+	private long count;						//events recorded since the last clear()
+	private long time;						//System.nanoTime() of the last sample
+
+	private Trace() {
+		this.records = new int[CAPACITY * RECORD_INTS];
+		this.count = 0;
+		this.time = 0;
+	}
+
+	//the trace of the current thread
+	public static Trace current(){
+		return TRACES.get();
+	}
+
+	public void record(TraceEvent event,int lineNo,int tokenIndex){
+		if((this.count & (TIME_SAMPLE - 1)) == 0){
+			this.time = System.nanoTime();
+		}
+		long time = this.time;
+		int i = (int)(this.count++ & (CAPACITY - 1)) * RECORD_INTS;
+		this.records[i] = event.ordinal();
+		this.records[i + 1] = lineNo;
+		this.records[i + 2] = tokenIndex;
+		this.records[i + 3] = (int)(time >>> 32);
+		this.records[i + 4] = (int)time;
+	}
+
+	//forget every record (a new program starts)
+	public void clear(){
+		this.count = 0;
+	}
+
+	//number of records kept
+	public int size(){
+		return (int)Math.min(this.count,CAPACITY);
+	}
+
+	public void dump(File file) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))){
+			dump(out);
+		}
+	}
+
+	public void dump(OutputStream stream) throws IOException {
+		DataOutputStream out = new DataOutputStream(stream);
+		int size = size();
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(size);
+
+		long first = this.count - size;
+		for(long n = first; n < this.count; n++){
+			int i = (int)(n & (CAPACITY - 1)) * RECORD_INTS;
+			out.writeInt(this.records[i]);
+			out.writeInt(this.records[i + 1]);
+			out.writeInt(this.records[i + 2]);
+			out.writeInt(this.records[i + 3]);
+			out.writeInt(this.records[i + 4]);
+		}
+		out.flush();
+	}
+
+	//read the records of a dump, RECORD_INTS ints each
+	static int[] read(DataInputStream in) throws IOException {
+		if(in.readInt() != MAGIC){
+			throw new IOException("not a trace dump");
+		}
+		int version = in.readInt();
+		if(version != VERSION){
+			throw new IOException("trace dump of version " + version + ", expecting " + VERSION);
+		}
+
+		int[] records = new int[in.readInt() * RECORD_INTS];
+		for(int i = 0; i < records.length; i++){
+			records[i] = in.readInt();
+		}
+		return records;
+	}
+}
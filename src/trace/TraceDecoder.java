@@ -0,0 +1,86 @@
+package trace;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import lexicalanalyzer.LexicalAnalyzer;
+import lexicalanalyzer.TokenBuffer;
+import symboltable.SymbolTable;
+
+/*
+ Trace Decoder
+
+ 	Prints a trace dump as text, one record per line: the (sampled) time from the first record, the event, the line, and the
+ token index. When the source file of the program is given, it is lexed again to print the token at the index too.
+
+ 	usage: java trace.TraceDecoder <dump> [<source .lol file>]
+ */
+public class TraceDecoder {
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1){
+			System.out.println("usage: java trace.TraceDecoder <dump> [<source .lol file>]");
+			return;
+		}
+
+		int[] records;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(args[0])))){
+			records = Trace.read(in);
+		}
+
+		TokenBuffer tokens = null;
+		if(args.length > 1){
+			tokens = new LexicalAnalyzer().createTokenBuffer(new File(args[1]),false);
+		}
+		print(records,tokens,System.out);
+	}
+
+	//debug mode output of the parser: its trace (when tracing) and the final global symbol table
+	public static void print(Trace trace,SymbolTable global,PrintStream out){
+		if(trace != null){
+			out.println("Parser Trace");
+			print(trace,out);
+		}
+		out.println("\n Final Global Symbol Table");
+		global.print(out);
+	}
+
+	//print the records of the trace of the current thread (debug mode)
+	public static void print(Trace trace,PrintStream out){
+		try {
+			ByteArrayOutputStream dump = new ByteArrayOutputStream();
+			trace.dump(dump);
+			print(Trace.read(new DataInputStream(new ByteArrayInputStream(dump.toByteArray()))),null,out);
+		} catch (IOException e) {
+			//not thrown by byte array streams
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void print(int[] records,TokenBuffer tokens,PrintStream out){
+		out.format("%12s  %-28s%8s%8s  %s\n","time (us)","event","line","token",tokens != null ? "lexeme" : "");
+
+		long start = 0;
+		for(int i = 0; i < records.length; i += Trace.RECORD_INTS){
+			long time = ((long)records[i + 3] << 32) | (records[i + 4] & 0xFFFFFFFFL);
+			if(i == 0){
+				start = time;
+			}
+
+			TraceEvent event = TraceEvent.of(records[i]);
+			int tokenIndex = records[i + 2];
+			String lexeme = "";
+			if(tokens != null && tokenIndex >= 0 && tokenIndex < tokens.size()){
+				lexeme = tokens.getValue(tokenIndex);
+			}
+			out.format("%12.3f  %-28s%8d%8d  %s\n",(time - start) / 1e3,event != null ? event : "#" + records[i],
+					records[i + 1],tokenIndex,lexeme);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package trace;
+
+/*
+ Trace Event
+
+ 	The events recorded in a Trace. A record holds the ordinal of its event, so new events are added at the end and a
+ dump is read by a decoder of the same version (see Trace.VERSION).
+ */
+public enum TraceEvent {
+	//parser: program and statements
+	PROGRAM,
+	ALL_STATEMENT_END,
+	NEXT_STATEMENT,
+	STATEMENT,
+
+	//parser: control flow
+	CTRL_IF_THEN,
+	CTRL_IF,
+	IF_STATEMENT,
+	END_OF_IF_STATEMENT,
+	ELSE_STATEMENT,
+	END_OF_ELSE_STATEMENT,
+	END_OF_CTRL_FLOW_STATEMENT,
+	CTRL_SWITCH,
+	CTRL_CASE,
+	CASE_VALUE,
+	CASE_STATEMENT,
+	DEFAULT_CASE_STATEMENT,
+	LOOP,
+	LOOP_OPERATION,
+	LOOP_CONDITION,
+	LOOP_STATEMENT,
+	END_OF_LOOP,
+	BREAK,
+
+	//parser: functions
+	FUNCTION,
+	PARAMETER,
+	FUNCTION_STATEMENT,
+	END_OF_FUNCTION,
+	RETURN,
+
+	//parser: simple statements
+	IMPLICIT,
+	USER_INPUT,
+	VAR_INPUT,
+	ASSIGNMENT,
+	VAR_ASSIGN,
+	VAR_DECLARE,
+	VAR_INITIALIZE,
+	PRINT,
+	PRINT_START,
+	PRINT_VALUE,
+	AFTER_ADD_VALUE,
+	PRINT_END,
+
+	//parser: expressions
+	EXPRESSION,
+	BOOL_INF_EXPRESSION,
+	BOOL_INF_OPERAND1,
+	BOOL_INF_SEPARATOR,
+	BOOL_INF_OPERAND,
+	BOOL_INF_END,
+	BOOL_EXPRESSION,
+	BOOL_OP1,
+	BOOL_EXPRESSION_END,
+	BOOL_SEP,
+	BOOL_OP2,
+	COMP_EXPRESSION,
+	COMP_OP1,
+	COMP_SEP,
+	COMP_OP2,
+	COMP_EXPRESSION_END,
+	ARITH_EXPRESSION,
+	ARITH_OP1,
+	ARITH_SEP,
+	ARITH_OP2,
+	ARITH_EXPRESSION_END,
+	CALL,
+	ARGUMENT,
+	CALL_END,
+
+	//errors, and the start of the run
+	SYNTAX_ERROR,
+	RUN,
+	RUNTIME_ERROR;
+
+	private static final TraceEvent[] EVENTS = values();
+
+	//event of an ordinal, null if there is none (a dump of another version)
+	public static TraceEvent of(int ordinal){
+		return ordinal >= 0 && ordinal < EVENTS.length ? EVENTS[ordinal] : null;
+	}
+}
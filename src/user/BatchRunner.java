@@ -0,0 +1,481 @@
+package user;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+import lexicalanalyzer.TokenBuffer;
+import parser.Parser;
+import parser.ast.ErrorStatement;
+
+/*
+ Batch Runner
+
+ 	Batch mode: lexes, parses and runs many .lol files in one JVM, on a work stealing pool with the given number of
+ threads. The list of files is split in halves until a single file is left (the same way ParallelLexer splits a source),
+ so idle threads steal the files of busy ones.
+
+ 	Every file runs in isolation: whatever the program prints goes to <name>.out next to the file, and GIMMEH reads
+ from <name>.in next to the file (no input if there is none). System.out and System.in are replaced for the run by
+ streams that pass each read and print to the file of the thread doing it. Every file has a PrintStream of its own,
+ flushed once the file is done, so threads printing at the same time do not wait for each other.
+
+ 	When tracing is on (Main.tracing), the trace of a file that is not valid or fails is written to <name>.trace
+ next to it (see trace.Trace).
+
+ 	At the end, the status of every file (valid, not valid, or failed with an exception) and the total throughput
+ are printed. Any exception or error of a file (even an OutOfMemoryError or a class that does not verify) is
+ kept as its failure, the other files still run.
+
+ 	Check mode (--check) parses and checks the files without running them (see Parser.check()). Nothing is read or
+ printed by a file, its errors are kept in memory and printed under its status at the end. They are saved in the
+ .lolc file of the file, so a file that has not changed is not checked again (see Main.check()).
+
+ */
+public class BatchRunner {
+
+	public static final String SOURCE_EXTENSION = ".lol";
+	public static final String OUTPUT_EXTENSION = ".out";
+	public static final String INPUT_EXTENSION = ".in";
+
+	enum Status{
+		VALID,
+		NOT_VALID,
+		FAILED
+	}
+
+	//the outcome of running a file
+	private static class Result {
+		private Status status;
+		private long nanos;			//time to lex, parse and run the file
+		private String message;		//exception of a failed file
+		private ArrayList<ErrorStatement> errors;	//errors of a checked file
+	}
+
+	private ArrayList<File> files;
+	private Result[] results;
+	private int threads;
+	private boolean checkOnly;			//check the files instead of running them
+
+	private RoutedPrintStream out;
+	private RoutedInputStream in;
+
+	public BatchRunner(ArrayList<File> files,int threads) {
+		this(files,threads,false);
+	}
+
+	public BatchRunner(ArrayList<File> files,int threads,boolean checkOnly) {
+		this.files = files;
+		this.results = new Result[files.size()];
+		this.threads = threads;
+		this.checkOnly = checkOnly;
+	}
+
+	//the .lol files of the given paths. directories are searched (with their subdirectories) for .lol files
+	public static ArrayList<File> collectFiles(String[] paths) throws IOException {
+		ArrayList<File> files = new ArrayList<File>();
+		for(String path:paths){
+			File file = new File(path);
+			if(!(file.isDirectory())){
+				files.add(file);
+				continue;
+			}
+
+			ArrayList<File> found = new ArrayList<File>();
+			try (Stream<Path> walk = Files.walk(file.toPath())){
+				Iterator<Path> iter = walk.iterator();
+				while(iter.hasNext()){
+					Path p = iter.next();
+					if(Files.isRegularFile(p) && p.getFileName().toString().endsWith(SOURCE_EXTENSION)){
+						found.add(p.toFile());
+					}
+				}
+			}
+			Collections.sort(found);
+			files.addAll(found);
+		}
+		return files;
+	}
+
+	//run (or check) the files. returns whether every file is valid
+	public boolean run() {
+		PrintStream console = System.out;
+		InputStream consoleInput = System.in;
+
+		this.out = new RoutedPrintStream(console);
+		this.in = new RoutedInputStream(consoleInput);
+		System.setOut(this.out);
+		System.setIn(this.in);
+
+		ForkJoinPool pool = new ForkJoinPool(this.threads);
+		long start = System.nanoTime();
+		try {
+			if(!(this.files.isEmpty())){
+				pool.invoke(new RunFiles(0,this.files.size()));
+			}
+		} finally {
+			pool.shutdown();
+			System.setOut(console);
+			System.setIn(consoleInput);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		return report(elapsed);
+	}
+
+	//lex, parse and run a single file with its own output and input
+	private void runFile(int index){
+		if(this.checkOnly){
+			checkFile(index);
+			return;
+		}
+
+		File file = this.files.get(index);
+		Result result = new Result();
+		long start = System.nanoTime();
+
+		try (PrintStream fileOutput = new PrintStream(new BufferedOutputStream(new FileOutputStream(siblingOf(file,OUTPUT_EXTENSION))));
+				InputStream fileInput = openInput(file)){
+			this.out.route(fileOutput);
+			this.in.route(fileInput);
+
+			TokenBuffer tokenBuffer = Main.createTokenBuffer(file);
+			Parser p = new Parser(tokenBuffer.cursor());
+			p.start();
+			System.out.println();
+
+			result.status = p.isValid() ? Status.VALID : Status.NOT_VALID;
+		} catch (Throwable e) {
+			result.status = Status.FAILED;
+			result.message = e.toString();
+		} finally {
+			this.out.route(null);
+			this.in.route(null);
+		}
+		if(result.status != Status.VALID){
+			Main.dumpTrace(siblingOf(file,Main.TRACE_EXTENSION));
+		}
+
+		result.nanos = System.nanoTime() - start;
+		this.results[index] = result;
+	}
+
+	//lex, parse and check a single file, or read the errors of an earlier check from its .lolc file (see Main.check())
+	private void checkFile(int index){
+		File file = this.files.get(index);
+		Result result = new Result();
+		long start = System.nanoTime();
+
+		try {
+			result.errors = Main.check(file);
+			result.status = result.errors.isEmpty() ? Status.VALID : Status.NOT_VALID;
+		} catch (Throwable e) {
+			result.status = Status.FAILED;
+			result.message = e.toString();
+		}
+
+		result.nanos = System.nanoTime() - start;
+		this.results[index] = result;
+	}
+
+	//print the status of every file and the throughput of the batch. returns whether every file is valid
+	private boolean report(long elapsed){
+		int[] counts = new int[Status.values().length];
+		long bytes = 0;
+
+		for(int i = 0; i < this.files.size(); i++){
+			Result result = this.results[i];
+			counts[result.status.ordinal()]++;
+			bytes += this.files.get(i).length();
+
+			System.out.format("%-12s%10.1f ms  %s%s\n",result.status,result.nanos / 1e6,this.files.get(i).getPath(),
+					result.message == null ? "" : "  (" + result.message + ")");
+			if(result.errors != null){
+				for(ErrorStatement error:result.errors){
+					System.out.println("    Error at Line " + error.getLineNo() + " : " + error.getMessage());
+				}
+			}
+		}
+
+		double seconds = elapsed / 1e9;
+		System.out.format("\n%d files: %d valid, %d not valid, %d failed\n",this.files.size(),
+				counts[Status.VALID.ordinal()],counts[Status.NOT_VALID.ordinal()],counts[Status.FAILED.ordinal()]);
+		System.out.format("%.2f s on %d threads, %.1f files/s, %.2f MB/s\n",seconds,this.threads,
+				this.files.size() / seconds,bytes / (1024.0 * 1024.0) / seconds);
+		return counts[Status.VALID.ordinal()] == this.files.size();
+	}
+
+	//<name>.in next to the file, or an empty input
+	private static InputStream openInput(File file) throws IOException {
+		File inputFile = siblingOf(file,INPUT_EXTENSION);
+		if(inputFile.isFile()){
+			return new FileInputStream(inputFile);
+		}
+		return new ByteArrayInputStream(new byte[0]);
+	}
+
+	//the file next to the given one with the same name and another extension (input.lol - input.out)
+	static File siblingOf(File file,String extension){
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		if(dot > 0){
+			name = name.substring(0,dot);
+		}
+		return new File(file.getAbsoluteFile().getParentFile(),name + extension);
+	}
+
+	//run a range of files, dividing the range until a single file is left
+	private class RunFiles extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private int from;
+		private int to;
+
+		RunFiles(int from,int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from == 1){
+				runFile(this.from);
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new RunFiles(this.from,middle),new RunFiles(middle,this.to));
+		}
+	}
+
+	//prints to the stream routed to the current thread, or to the default stream. it has no buffer or lock of its own,
+	//every call is passed on as is
+	private static class RoutedPrintStream extends PrintStream {
+		private final PrintStream defaultStream;
+		private final ThreadLocal<PrintStream> routes = new ThreadLocal<PrintStream>();
+
+		RoutedPrintStream(PrintStream defaultStream) {
+			super(defaultStream);
+			this.defaultStream = defaultStream;
+		}
+
+		void route(PrintStream stream){
+			this.routes.set(stream);
+		}
+
+		private PrintStream target(){
+			PrintStream stream = this.routes.get();
+			return stream != null ? stream : this.defaultStream;
+		}
+
+		@Override
+		public void write(int b) {
+			target().write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			target().write(b, off, len);
+		}
+
+		@Override
+		public void flush() {
+			target().flush();
+		}
+
+		//the routed streams are closed by their runs, the default stream is not closed
+		@Override
+		public void close() {
+			target().flush();
+		}
+
+		@Override
+		public boolean checkError() {
+			return target().checkError();
+		}
+
+		@Override
+		public void print(boolean b) {
+			target().print(b);
+		}
+
+		@Override
+		public void print(char c) {
+			target().print(c);
+		}
+
+		@Override
+		public void print(int i) {
+			target().print(i);
+		}
+
+		@Override
+		public void print(long l) {
+			target().print(l);
+		}
+
+		@Override
+		public void print(float f) {
+			target().print(f);
+		}
+
+		@Override
+		public void print(double d) {
+			target().print(d);
+		}
+
+		@Override
+		public void print(char[] s) {
+			target().print(s);
+		}
+
+		@Override
+		public void print(String s) {
+			target().print(s);
+		}
+
+		@Override
+		public void print(Object obj) {
+			target().print(obj);
+		}
+
+		@Override
+		public void println() {
+			target().println();
+		}
+
+		@Override
+		public void println(boolean x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(char x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(int x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(long x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(float x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(double x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(char[] x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(String x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(Object x) {
+			target().println(x);
+		}
+
+		@Override
+		public PrintStream printf(String format, Object... args) {
+			target().printf(format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream printf(Locale l, String format, Object... args) {
+			target().printf(l, format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream format(String format, Object... args) {
+			target().format(format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream format(Locale l, String format, Object... args) {
+			target().format(l, format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream append(CharSequence csq) {
+			target().append(csq);
+			return this;
+		}
+
+		@Override
+		public PrintStream append(CharSequence csq, int start, int end) {
+			target().append(csq, start, end);
+			return this;
+		}
+
+		@Override
+		public PrintStream append(char c) {
+			target().append(c);
+			return this;
+		}
+	}
+
+	//reads from the stream routed to the current thread, or from the default stream
+	private static class RoutedInputStream extends InputStream {
+		private final InputStream defaultStream;
+		private final ThreadLocal<InputStream> routes = new ThreadLocal<InputStream>();
+
+		RoutedInputStream(InputStream defaultStream) {
+			this.defaultStream = defaultStream;
+		}
+
+		void route(InputStream stream){
+			this.routes.set(stream);
+		}
+
+		private InputStream target(){
+			InputStream stream = this.routes.get();
+			return stream != null ? stream : this.defaultStream;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return target().read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return target().read(b, off, len);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return target().available();
+		}
+	}
+}
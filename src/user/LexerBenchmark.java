@@ -0,0 +1,80 @@
+package user;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import lexicalanalyzer.LexicalAnalyzer;
+
+/*
+ Lexer Benchmark
+
+ 	Measures how fast a large .lol file is lexed through the memory mapped path, with the boundary scanner
+ reading 8 characters at a time (LexicalAnalyzer.wordScanning) and with every character looked at one at a time.
+
+ 	usage: LexerBenchmark [file] [iterations]
+ 	Without a file, a file of about 16 MB is made by repeating DATASET.
+ */
+public class LexerBenchmark {
+
+	private static final int GENERATED_SIZE = 16 << 20;
+
+	public static void main(String[] args) throws IOException {
+		File inputFile = args.length > 0 ? new File(args[0]) : generateInput();
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		//lex sequentially, only the scanner is measured
+		LexicalAnalyzer.parallelChunkSize = Integer.MAX_VALUE;
+
+		double megabytes = inputFile.length() / (1024.0 * 1024.0);
+		System.out.format("%s: %.1f MB, %d iterations\n",inputFile.getName(),megabytes,iterations);
+
+		//warm up both paths before measuring
+		run(inputFile,false,iterations);
+		run(inputFile,true,iterations);
+
+		double scalar = run(inputFile,false,iterations);
+		double words = run(inputFile,true,iterations);
+
+		System.out.format("%-20s%10.1f ms%10.1f MB/s\n","scalar",scalar,megabytes / scalar * 1000);
+		System.out.format("%-20s%10.1f ms%10.1f MB/s\n","8 characters",words,megabytes / words * 1000);
+		System.out.format("speedup: %.2fx\n",scalar / words);
+	}
+
+	//average time to lex the file in milliseconds
+	private static double run(File inputFile,boolean wordScanning,int iterations){
+		LexicalAnalyzer.wordScanning = wordScanning;
+		long tokens = 0;
+		long start = System.nanoTime();
+		for(int i = 0; i < iterations; i++){
+			tokens += new LexicalAnalyzer().createTokenBuffer(inputFile,true).size();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		//use the result so the work is not optimized away
+		if(tokens == 0){
+			System.out.println("no tokens");
+		}
+		return elapsed / 1e6 / iterations;
+	}
+
+	//a temporary file holding DATASET over and over
+	private static File generateInput() throws IOException {
+		ClassLoader cl = Thread.currentThread().getContextClassLoader();
+		URL URL = cl.getResource(Main.DATASET);
+		byte[] program = Files.readAllBytes(new File(URL.getPath()).toPath());
+
+		StringBuilder text = new StringBuilder(GENERATED_SIZE + program.length);
+		String programText = new String(program,StandardCharsets.ISO_8859_1);
+		while(text.length() < GENERATED_SIZE){
+			text.append(programText).append('\n');
+		}
+
+		File inputFile = File.createTempFile("benchmark",".lol");
+		inputFile.deleteOnExit();
+		Files.write(inputFile.toPath(),text.toString().getBytes(StandardCharsets.ISO_8859_1));
+		return inputFile;
+	}
+}
@@ -1,12 +1,18 @@
 package user;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 
-import lexicalanalyzer.Lexeme;
+import lexicalanalyzer.CompiledProgram;
 import lexicalanalyzer.LexicalAnalyzer;
+import lexicalanalyzer.TokenBuffer;
 import parser.Parser;
+import parser.ast.ErrorStatement;
+import trace.Trace;
 
 public class Main {
 	//TODO: Handle Errors
@@ -16,9 +22,81 @@ public class Main {
 	public static String OUTPUT = "src/user/output.txt";
 	//DEBUG: check if debug is on or not
 	public static boolean debugMode = false;
+	//read the input file through a memory map instead of a reader
+	public static boolean memoryMappedInput = true;
+	//load the lexed program from its .lolc file when the .lol file has not changed (see CompiledProgram)
+	public static boolean precompiledInput = true;
+	//run programs as generated JVM classes (see vm.ClassEngine) where they can be generated, on the tree-walking
+	//Interpreter otherwise. off by default (turned on by CLASS_ENGINE): generating, loading and verifying the class
+	//only pays off for programs that run long (large loops, deep recursion)
+	public static boolean classEngine = false;
+	//record the steps of the parser in a trace buffer (see trace.Trace), written to <name>.trace when a program fails.
+	//off by default, so no .trace file is written unless asked for
+	public static boolean tracing = false;
+	public static String TRACE_EXTENSION = ".trace";
 
 
-	public static void main(String[] args) {
+	//read the program from stdin instead of DATASET
+	public static String STDIN = "-";
+	//run the given file each time it changes
+	public static String WATCH = "--watch";
+	//run many files at once
+	public static String BATCH = "--batch";
+	//check many files at once without running them
+	public static String CHECK = "--check";
+	//run programs on the class engine, in any of the modes above: --class-engine [mode and its arguments]
+	public static String CLASS_ENGINE = "--class-engine";
+
+
+	public static void main(String[] args) throws Exception {
+
+		//class engine: turned on for the rest of the arguments
+		if(args.length > 0 && args[0].equals(Main.CLASS_ENGINE)){
+			Main.classEngine = true;
+			args = Arrays.copyOfRange(args,1,args.length);
+		}
+
+		//program piped on stdin: lexed on demand as the parser runs, and each statement is run once it is parsed, so it
+		//is never held in memory as a whole (see Parser.stream())
+		//(GIMMEH also reads from stdin, so piped programs should not ask for user input)
+		if(args.length > 0 && args[0].equals(Main.STDIN)){
+			LexicalAnalyzer la = new LexicalAnalyzer();
+			Parser p = new Parser(la.createTokenSource(System.in));
+			p.stream();
+			if(!(p.isValid())){
+				dumpTrace(new File("stdin" + Main.TRACE_EXTENSION));
+			}
+			return;
+		}
+
+		//watch mode: the file is run again after every change
+		if(args.length > 1 && args[0].equals(Main.WATCH)){
+			new Watcher(new File(args[1])).watch();
+			return;
+		}
+
+		//batch mode: --batch <threads> <directory or file>...
+		//exits with 1 if a file is not valid or fails
+		if(args.length > 2 && args[0].equals(Main.BATCH)){
+			int threads = Integer.parseInt(args[1]);
+			ArrayList<File> files = BatchRunner.collectFiles(Arrays.copyOfRange(args,2,args.length));
+			if(!(new BatchRunner(files,threads).run())){
+				System.exit(1);
+			}
+			return;
+		}
+
+		//check mode: --check <threads> <directory or file>...
+		//exits with 1 if a file is not valid
+		if(args.length > 2 && args[0].equals(Main.CHECK)){
+			int threads = Integer.parseInt(args[1]);
+			ArrayList<File> files = BatchRunner.collectFiles(Arrays.copyOfRange(args,2,args.length));
+			if(!(new BatchRunner(files,threads,true).run())){
+				System.exit(1);
+			}
+			return;
+		}
+
 		ClassLoader cl = Thread.currentThread().getContextClassLoader();
 		URL URL = cl.getResource(Main.DATASET);
 		File inputFile = new File(URL.getPath());
@@ -26,18 +104,101 @@ public class Main {
 
 
 
-		LexicalAnalyzer la = new LexicalAnalyzer();
 		//get the token stream
-		 ArrayList<Lexeme> tokenStream = la.createTokenStream(inputFile);
+		 TokenBuffer tokenBuffer = createTokenBuffer(inputFile);
 
 		 if(debugMode){
 			 System.out.println("Lexical Analyzer");
-			 la.print();
+			 tokenBuffer.print();
 		 }
 
-		 Parser p = new Parser(tokenStream);
+		 Parser p = new Parser(tokenBuffer.cursor());
 		 //start parsing
-		 p.start();
+		 boolean valid = false;
+		 try {
+			 p.start();
+			 valid = p.isValid();
+		 } finally {
+			 if(!(valid)){
+				 dumpTrace(BatchRunner.siblingOf(inputFile,Main.TRACE_EXTENSION));
+			 }
+		 }
+	}
+
+	//write the trace of the current thread to a file. the program has failed already, so a trace that cannot be
+	//written is left out
+	static void dumpTrace(File traceFile){
+		if(!(Trace.ENABLED)){
+			return;
+		}
+		try {
+			Trace.current().dump(traceFile);
+		} catch (IOException e) {
+			if(debugMode){
+				System.out.println("Could not save " + traceFile);
+			}
+		}
+	}
+
+	//lex the input file, or load its tokens from its .lolc file. the file is read once: the .lolc file is looked up
+	//and saved under the hash of the same bytes that are lexed
+	static TokenBuffer createTokenBuffer(File inputFile){
+		if(!(Main.precompiledInput)){
+			return new LexicalAnalyzer().createTokenBuffer(inputFile,Main.memoryMappedInput);
+		}
+
+		ByteBuffer source;
+		byte[] hash;
+		try {
+			source = LexicalAnalyzer.readSource(inputFile,Main.memoryMappedInput);
+			hash = CompiledProgram.hashOf(source);
+		} catch (IOException e) {
+			//lexed without a .lolc file
+			return new LexicalAnalyzer().createTokenBuffer(inputFile,Main.memoryMappedInput);
+		}
+
+		File compiledFile = CompiledProgram.compiledFileOf(inputFile);
+		TokenBuffer tokenBuffer = CompiledProgram.load(compiledFile,hash);
+		if(tokenBuffer == null){
+			tokenBuffer = new LexicalAnalyzer().createTokenBuffer(source);
+			savePrecompiled(compiledFile,hash,tokenBuffer,null);
+		}
+		return tokenBuffer;
+	}
+
+	//parse and check the input file without running it (see Parser.check()), or read the errors of an earlier check
+	//from its .lolc file when the .lol file has not changed
+	static ArrayList<ErrorStatement> check(File inputFile) throws IOException {
+		if(!(Main.precompiledInput)){
+			TokenBuffer tokenBuffer = new LexicalAnalyzer().createTokenBuffer(inputFile,Main.memoryMappedInput);
+			return new Parser(tokenBuffer.cursor()).check();
+		}
+
+		ByteBuffer source = LexicalAnalyzer.readSource(inputFile,Main.memoryMappedInput);
+		byte[] hash = CompiledProgram.hashOf(source);
+		File compiledFile = CompiledProgram.compiledFileOf(inputFile);
+		ArrayList<ErrorStatement> errors = CompiledProgram.loadErrors(compiledFile,hash);
+		if(errors == null){
+			TokenBuffer tokenBuffer = CompiledProgram.load(compiledFile,hash);
+			if(tokenBuffer == null){
+				tokenBuffer = new LexicalAnalyzer().createTokenBuffer(source);
+			}
+			errors = new Parser(tokenBuffer.cursor()).check();
+			savePrecompiled(compiledFile,hash,tokenBuffer,errors);
+		}
+		return errors;
+	}
+
+	//save the token buffer, and the errors found by checking it (null if it was not checked), into the .lolc file of
+	//the input. the program still runs if it cannot be saved
+	private static void savePrecompiled(File compiledFile,byte[] hash,TokenBuffer tokenBuffer,ArrayList<ErrorStatement> errors){
+		try {
+			CompiledProgram.write(compiledFile,hash,tokenBuffer,errors);
+		} catch (IOException e) {
+			if(debugMode){
+				System.out.println("Could not save " + compiledFile);
+			}
+		}
 	}
 
 }
@@ -0,0 +1,99 @@
+package user;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import lexicalanalyzer.IncrementalTokenStream;
+import parser.Parser;
+
+/*
+ Watcher
+
+ 	Watch mode: runs a .lol file, then waits for the file to change and runs it again.
+ The token stream of the file is kept between runs (see IncrementalTokenStream), so on each change
+ only the edited lines are lexed again before the program is parsed and run.
+
+ 	Only lexing is incremental. The file is still read and compared line by line, and every change parses, resolves
+ and runs the whole program again, so the time of a rerun grows with the size of the program and not of the edit.
+
+ 	A program that fails (an exception, or a StackOverflowError from a deep recursion that is not a tail call) has
+ its error printed, and the file is watched for the next change.
+
+ */
+public class Watcher {
+
+	private File inputFile;
+	private IncrementalTokenStream tokenStream;
+
+	public Watcher(File inputFile) {
+		this.inputFile = inputFile.getAbsoluteFile();
+	}
+
+	public void watch() throws IOException, InterruptedException {
+		this.tokenStream = new IncrementalTokenStream(this.inputFile);
+		run();
+
+		//the directory is watched since editors often replace the file instead of writing to it
+		Path directory = this.inputFile.getParentFile().toPath();
+		Path fileName = this.inputFile.toPath().getFileName();
+
+		try (WatchService watchService = FileSystems.getDefault().newWatchService()){
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+
+			while(true){
+				WatchKey key = watchService.take();
+
+				//an edit may come as several events, run only once for all of them
+				boolean changed = false;
+				for(WatchEvent<?> event:key.pollEvents()){
+					if(fileName.equals(event.context())){
+						changed = true;
+					}
+				}
+
+				if(changed && this.inputFile.exists()){
+					rerun();
+				}
+
+				if(!(key.reset())){
+					return;
+				}
+			}
+		}
+	}
+
+	//lex the edited lines, then run the program again
+	private void rerun(){
+		int relexed;
+		try {
+			relexed = this.tokenStream.update();
+		} catch (IOException e) {
+			System.out.println("Could not read " + this.inputFile.getName() + ": " + e.getMessage());
+			return;
+		}
+		if(Main.debugMode){
+			System.out.println("Lines lexed again: " + relexed);
+		}
+		run();
+	}
+
+	//parse and run the program from the retained token stream. an error of the program does not stop the watch
+	private void run(){
+		System.out.println("\n--- " + this.inputFile.getName() + " ---");
+		try {
+			Parser p = new Parser(this.tokenStream.cursor());
+			p.start();
+		} catch (Throwable e) {
+			System.out.println();
+			System.out.println("Failed: " + e);
+		}
+		System.out.println();
+	}
+
+}
@@ -0,0 +1,44 @@
+package vm;
+
+import parser.ast.ErrorStatement;
+import symboltable.NameTable;
+
+/*
+ Bytecode Program
+
+ 	A program compiled to instructions (see Compiler), as the ClassGenerator takes it: the chunk of the program body, the chunk of every
+ function (by its index), and what is kept from the syntax tree to run them.
+ */
+public class BytecodeProgram {
+	private Chunk main;
+	private Chunk[] functions;
+	private NameTable names;
+	private ErrorStatement syntaxError;		//syntax error in a branch of the program, null if there is none
+
+	BytecodeProgram(Chunk main,Chunk[] functions,NameTable names,ErrorStatement syntaxError) {
+		this.main = main;
+		this.functions = functions;
+		this.names = names;
+		this.syntaxError = syntaxError;
+	}
+
+	Chunk getMain(){
+		return this.main;
+	}
+
+	Chunk getFunction(int index){
+		return this.functions[index];
+	}
+
+	int getFunctionCount(){
+		return this.functions.length;
+	}
+
+	public NameTable getNameTable(){
+		return this.names;
+	}
+
+	public ErrorStatement getSyntaxError(){
+		return this.syntaxError;
+	}
+}
@@ -0,0 +1,44 @@
+package vm;
+
+import parser.ast.SwitchStatement;
+import symboltable.Symbol;
+
+/*
+ Chunk
+
+ 	The compiled code of the program body or of a function (see Compiler): the instructions (see Opcode), the line
+ of every instruction for its error messages, and the pools its operands refer to.
+
+ 	The frame of a chunk is its outermost scope: the global scope for the program body, the parameters and variables
+ of a function otherwise. Slot 0 of every scope is IT.
+ */
+final class Chunk {
+	final int[] code;
+	final int[] lines;						//line of the instruction starting at every index of the code
+	final int[] stackDepths;				//values on the stack before the instruction starting at an index,
+	final int[] scopeDepths;				//and its innermost open scope (see ClassGenerator)
+	final Symbol[] constants;
+	final String[] messages;				//messages of ERROR
+	final SwitchStatement[] switches;		//entries of every SWITCH,
+	final int[][] switchTargets;			//and the instruction each one starts at
+	final int maxStack;						//most values the chunk has on the stack at once
+	final int maxDepth;						//most scopes open at once, besides the frame
+	final int frameSize;					//slots of the frame
+	final int[] parameterSlots;				//slot of every parameter (a function)
+
+	Chunk(int[] code,int[] lines,int[] stackDepths,int[] scopeDepths,Symbol[] constants,String[] messages,SwitchStatement[] switches,
+			int[][] switchTargets,int maxStack,int maxDepth,int frameSize,int[] parameterSlots) {
+		this.code = code;
+		this.lines = lines;
+		this.stackDepths = stackDepths;
+		this.scopeDepths = scopeDepths;
+		this.constants = constants;
+		this.messages = messages;
+		this.switches = switches;
+		this.switchTargets = switchTargets;
+		this.maxStack = maxStack;
+		this.maxDepth = maxDepth;
+		this.frameSize = frameSize;
+		this.parameterSlots = parameterSlots;
+	}
+}
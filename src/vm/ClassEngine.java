@@ -0,0 +1,129 @@
+package vm;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import parser.ast.Block;
+import parser.ast.ErrorStatement;
+import parser.ast.FunctionDefinition;
+import parser.ast.Program;
+import parser.ast.Statement;
+import parser.ast.SwitchStatement;
+import trace.Trace;
+import trace.TraceEvent;
+
+/*
+ Class Engine
+
+ 	Runs a program compiled by the Compiler as a JVM class of its own (see ClassGenerator), which HotSpot compiles
+ to machine code once it runs hot. It gives the same output and errors as the Interpreter running the syntax tree.
+
+ 	The class is defined by a class loader made for it, so it is unloaded with the engine. Calls are Java calls, so
+ a deep recursion that is not a tail call overflows the stack. It is reported as an error at the line of the innermost
+ call, as in the Interpreter.
+
+ 	It is only used when Main.classEngine is on. Compiling the program and generating, loading and verifying its class
+ cost more than a short program takes to run on the Interpreter, so it is meant for long running programs.
+ */
+public class ClassEngine {
+	private static final String CLASS_NAME = "LolcodeProgram";
+
+	private BytecodeProgram program;
+	private Method main;
+	private ClassRuntime runtime;
+
+	//loads one generated class
+	private static final class Loader extends ClassLoader {
+		Loader() {
+			super(ClassEngine.class.getClassLoader());
+		}
+
+		Class<?> define(byte[] bytes){
+			return defineClass(CLASS_NAME,bytes,0,bytes.length);
+		}
+	}
+
+	private ClassEngine(BytecodeProgram program,Method main) {
+		this.program = program;
+		this.main = main;
+		SwitchStatement[][] switches = new SwitchStatement[program.getFunctionCount() + 1][];
+		switches[0] = program.getMain().switches;
+		for(int i = 0; i < program.getFunctionCount(); i++){
+			switches[i + 1] = program.getFunction(i).switches;
+		}
+		this.runtime = new ClassRuntime(program.getNameTable(),switches);
+	}
+
+	//the program body or a function has more statements than a method can hold bytes of code (every statement but a
+	//syntax error is at least one byte), so its class would not be generated. checked before the program is compiled
+	public static boolean tooLarge(Program program){
+		if(tooLarge(program.getBody())){
+			return true;
+		}
+		for(FunctionDefinition function:program.getFunctions()){
+			if(tooLarge(function.getBody())){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean tooLarge(Block body){
+		int statements = 0;
+		for(Statement statement:body.getStatements()){
+			if(!(statement instanceof ErrorStatement)){
+				statements++;
+			}
+		}
+		return statements > ClassGenerator.HUGE_METHOD;
+	}
+
+	//the engine of a program, null if its class can not be generated (it is run by another engine then)
+	public static ClassEngine generate(BytecodeProgram program){
+		byte[] bytes = ClassGenerator.generate(program,CLASS_NAME);
+		if(bytes == null){
+			return null;
+		}
+		try{
+			Class<?> generated = new Loader().define(bytes);
+			return new ClassEngine(program,generated.getMethod("main",ClassRuntime.class));
+		}catch(NoSuchMethodException e){
+			throw new IllegalStateException(e);
+		}
+	}
+
+	//run the program. returns whether it is valid
+	public boolean run(){
+		if(Trace.ENABLED){
+			Trace.current().record(TraceEvent.RUN,0,-1);
+		}
+		boolean valid;
+		try{
+			valid = (Integer)this.main.invoke(null,this.runtime) != ClassRuntime.HALT;
+		}catch(IllegalAccessException e){
+			throw new IllegalStateException(e);
+		}catch(InvocationTargetException e){
+			//an error of the program itself
+			Throwable cause = e.getCause();
+			if(cause instanceof StackOverflowError){
+				this.runtime.stackOverflow();
+				return false;
+			}
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException)cause;
+			}
+			if(cause instanceof Error){
+				throw (Error)cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+
+		//a syntax error in a branch that was not run
+		ErrorStatement syntaxError = this.program.getSyntaxError();
+		if(valid && syntaxError != null){
+			this.runtime.printErrorMsg(syntaxError.getLineNo(),syntaxError.getMessage());
+			return false;
+		}
+		return valid;
+	}
+}
@@ -0,0 +1,707 @@
+package vm;
+
+import symboltable.Symbol;
+import vm.ClassWriter.Code;
+
+/*
+ Class Generator
+
+ 	Turns a compiled program (see Compiler) into a JVM class, so HotSpot compiles a LOLCODE program to machine code
+ as it does any Java method. The program body and every function become static methods, and every instruction of
+ their chunks becomes the JVM code doing it: a jump is a JVM jump, a call a JVM call, and NUMBR arithmetic,
+ comparisons and boolean operations are done inline. ClassRuntime is only called for errors, output, input, WTF?
+ entries and the other arithmetic.
+
+ 	Values are not kept on a stack in memory. The Compiler knows how many values are on the stack, and
+ how many scopes are open, at every instruction, so every place on the stack and every slot of every scope is a
+ fixed value of the method: four locals, its datatype, payload (a long takes two) and string (see ClassRuntime).
+ The scopes at the same depth share their locals, as only one of them is open at a time. Opening a scope marks its
+ slots undeclared.
+
+ 	A program is not generated if a function makes a tail call to another function (it would need a Java call, so
+ it would no longer run in constant stack space), or if a method is too large for HotSpot to compile (HUGE_METHOD).
+ generate() returns null then, and the program is left to the Interpreter. A method is given up as soon as its
+ code passes HUGE_METHOD, and a program that surely would pass it is not compiled at all (see ClassEngine.tooLarge()).
+ */
+final class ClassGenerator {
+	static final int HUGE_METHOD = 8000;			//largest method HotSpot compiles (-XX:HugeMethodLimit)
+	private static final int VALUE_LOCALS = 4;			//locals of a value: datatype, payload (two), string
+
+	private static final String RUNTIME = "vm/ClassRuntime";
+	private static final String STRING = "Ljava/lang/String;";
+	private static final String VALUE = "IJ" + STRING;
+
+	private BytecodeProgram program;
+	private ClassWriter writer;
+
+	//method being generated
+	private Chunk chunk;
+	private int chunkIndex;					//0 for the program body, function + 1 otherwise
+	private Code code;
+	private int[] scopeLocals;				//first local of the slots of every depth
+	private int stackLocals;				//first local of the places on the stack
+	private int[] labels;					//label of the instruction at every index of the chunk code
+	private int startLabel;					//start of the body, after the locals are set
+
+	private ClassGenerator(BytecodeProgram program,String className) {
+		this.program = program;
+		this.writer = new ClassWriter(className);
+	}
+
+	//the class file of a program, null if it is not generated
+	static byte[] generate(BytecodeProgram program,String className){
+		return new ClassGenerator(program,className).generate();
+	}
+
+	private byte[] generate(){
+		try{
+			if(!(addMethod(this.program.getMain(),0,"main"))){
+				return null;
+			}
+			for(int i = 0; i < this.program.getFunctionCount(); i++){
+				if(!(addMethod(this.program.getFunction(i),i + 1,functionName(i)))){
+					return null;
+				}
+			}
+			return this.writer.toBytes();
+		}catch(IllegalStateException e){
+			//a jump or a string too long for a class file
+			return null;
+		}
+	}
+
+	static String functionName(int function){
+		return "function" + function;
+	}
+
+	//method of the program body (takes the runtime), or of a function (takes the runtime and the arguments)
+	private String descriptor(Chunk chunk){
+		StringBuilder descriptor = new StringBuilder("(L" + RUNTIME + ";");
+		int parameters = chunk.parameterSlots == null ? 0 : chunk.parameterSlots.length;
+		for(int i = 0; i < parameters; i++){
+			descriptor.append(VALUE);
+		}
+		return descriptor.append(")I").toString();
+	}
+
+	//generate the method of a chunk. returns false if it can not be generated
+	private boolean addMethod(Chunk chunk,int chunkIndex,String name){
+		this.chunk = chunk;
+		this.chunkIndex = chunkIndex;
+		this.code = new Code(this.writer);
+		int[] code = chunk.code;
+
+		//the largest scope at every depth, and the largest call
+		int[] scopeSizes = new int[chunk.maxDepth + 1];
+		scopeSizes[0] = chunk.frameSize;
+		int maxArguments = 0;
+		for(int pc = 0; pc < code.length; pc += Opcode.length(code,pc)){
+			int depth = chunk.scopeDepths[pc] + 1;
+			if(code[pc] == Opcode.ENTER_SCOPE){
+				scopeSizes[depth] = Math.max(scopeSizes[depth],code[pc + 1]);
+			}else if(code[pc] == Opcode.SWITCH){
+				scopeSizes[depth] = Math.max(scopeSizes[depth],code[pc + 2]);
+			}else if(code[pc] == Opcode.CALL){
+				maxArguments = Math.max(maxArguments,code[pc + 2]);
+			}else if(code[pc] == Opcode.TAIL_CALL && code[pc + 1] != chunkIndex - 1){
+				return false;
+			}
+		}
+
+		//the runtime, the parameters, the scopes, the stack
+		int parameters = chunk.parameterSlots == null ? 0 : chunk.parameterSlots.length;
+		int local = 1 + VALUE_LOCALS * parameters;
+		this.scopeLocals = new int[scopeSizes.length];
+		for(int depth = 0; depth < scopeSizes.length; depth++){
+			this.scopeLocals[depth] = local;
+			local += VALUE_LOCALS * scopeSizes[depth];
+		}
+		this.stackLocals = local;
+		local += VALUE_LOCALS * chunk.maxStack;
+		if(local > 0xFFFF){
+			return false;
+		}
+		this.code.maxLocals = local;
+		this.code.maxStack = 16 + VALUE_LOCALS * maxArguments;
+
+		this.labels = new int[code.length];
+		for(int pc = 0; pc < code.length; pc += Opcode.length(code,pc)){
+			this.labels[pc] = this.code.newLabel();
+		}
+		this.startLabel = this.code.newLabel();
+
+		//every local is set before the body, as the JVM checks that a local is set before it is read
+		for(int depth = 0; depth < scopeSizes.length; depth++){
+			for(int slot = 0; slot < scopeSizes[depth]; slot++){
+				setEmpty(scope(depth,slot));
+			}
+		}
+		for(int place = 0; place < chunk.maxStack; place++){
+			setEmpty(stack(place));
+		}
+		for(int i = 0; i < parameters; i++){
+			copy(1 + VALUE_LOCALS * i,scope(0,chunk.parameterSlots[i]));
+		}
+		setNoob(scope(0,0));
+		this.code.placeLabel(this.startLabel);
+
+		for(int pc = 0; pc < code.length; pc += Opcode.length(code,pc)){
+			this.code.placeLabel(this.labels[pc]);
+			instruction(pc);
+			if(this.code.size() > HUGE_METHOD){
+				return false;
+			}
+		}
+		this.writer.addMethod(name,descriptor(chunk),this.code);
+		return true;
+	}
+
+	//first local of a slot of a scope
+	private int scope(int depth,int slot){
+		return this.scopeLocals[depth] + VALUE_LOCALS * slot;
+	}
+
+	//first local of a place on the stack
+	private int stack(int place){
+		return this.stackLocals + VALUE_LOCALS * place;
+	}
+
+	//the JVM code of the instruction at pc
+	private void instruction(int pc){
+		int[] code = this.chunk.code;
+		int top = this.chunk.stackDepths[pc];		//values on the stack
+		int depth = this.chunk.scopeDepths[pc];		//innermost open scope
+		int lineNo = this.chunk.lines[pc];
+		int op = code[pc];
+		switch(op){
+			case Opcode.CONST: {
+				Symbol constant = this.chunk.constants[code[pc + 1]];
+				int datatype = ClassRuntime.datatypeNumber(constant.getDatatype());
+				if(datatype == ClassRuntime.NOOB){
+					setNoob(stack(top));
+				}else{
+					set(stack(top),datatype,constant.getBits(),constant.getString());
+				}
+				break;
+			}
+			case Opcode.LOAD: {
+				int found = this.code.newLabel();
+				int next = this.code.newLabel();
+				int count = code[pc + 2];
+				int[] labels = new int[count];
+				for(int i = 0; i < count; i++){
+					labels[i] = this.code.newLabel();
+					this.code.local(Code.ILOAD,variable(pc,i));
+					this.code.jump(Code.IFNE,labels[i]);
+				}
+				loadError(code[pc + 1],true,lineNo);
+				for(int i = 0; i < count; i++){
+					this.code.placeLabel(labels[i]);
+					copy(variable(pc,i),stack(top));
+					this.code.jump(Code.GOTO,found);
+				}
+				this.code.placeLabel(found);
+				this.code.local(Code.ILOAD,stack(top));
+				this.code.intConstant(ClassRuntime.NOOB);
+				this.code.jump(Code.IF_ICMPNE,next);
+				loadError(code[pc + 1],false,lineNo);
+				this.code.placeLabel(next);
+				break;
+			}
+			case Opcode.LOAD_LOCAL: {
+				int variable = scope(code[pc + 1],code[pc + 2]);
+				int next = this.code.newLabel();
+				this.code.local(Code.ILOAD,variable);
+				this.code.intConstant(ClassRuntime.NOOB);
+				this.code.jump(Code.IF_ICMPNE,next);
+				loadError(code[pc + 3],false,lineNo);
+				this.code.placeLabel(next);
+				copy(variable,stack(top));
+				break;
+			}
+			case Opcode.CHECK: {
+				int next = this.code.newLabel();
+				for(int i = 0; i < code[pc + 2]; i++){
+					this.code.local(Code.ILOAD,variable(pc,i));
+					this.code.jump(Code.IFNE,next);
+				}
+				callRuntime("undeclared",code[pc + 1],lineNo);
+				halt();
+				this.code.placeLabel(next);
+				break;
+			}
+			//the CHECK before it has found the variable
+			case Opcode.STORE: {
+				int next = this.code.newLabel();
+				for(int i = 0; i < code[pc + 2]; i++){
+					int skip = this.code.newLabel();
+					this.code.local(Code.ILOAD,variable(pc,i));
+					this.code.jump(Code.IFEQ,skip);
+					copy(stack(top - 1),variable(pc,i));
+					this.code.jump(Code.GOTO,next);
+					this.code.placeLabel(skip);
+				}
+				this.code.placeLabel(next);
+				break;
+			}
+			case Opcode.STORE_LOCAL:
+				copy(stack(top - 1),scope(code[pc + 1],code[pc + 2]));
+				break;
+			case Opcode.DECLARE:
+				copy(stack(top - 1),scope(depth,code[pc + 1]));
+				break;
+			case Opcode.DECLARE_NOOB:
+				setNoob(scope(depth,code[pc + 1]));
+				break;
+			case Opcode.SET_IT:
+				copy(stack(top - 1),scope(depth,0));
+				break;
+			case Opcode.INPUT: {
+				int next = this.code.newLabel();
+				int count = code[pc + 2];
+				int[] labels = new int[count];
+				for(int i = 0; i < count; i++){
+					labels[i] = this.code.newLabel();
+					this.code.local(Code.ILOAD,variable(pc,i));
+					this.code.jump(Code.IFNE,labels[i]);
+				}
+				callRuntime("undeclared",code[pc + 1],lineNo);
+				halt();
+				for(int i = 0; i < count; i++){
+					this.code.placeLabel(labels[i]);
+					this.code.op(Code.ALOAD_0);
+					this.code.intConstant(lineNo);
+					this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"input","(I)I");
+					storeResult(variable(pc,i));
+					this.code.jump(Code.GOTO,next);
+				}
+				this.code.placeLabel(next);
+				break;
+			}
+			case Opcode.PRINT:
+				this.code.op(Code.ALOAD_0);
+				this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"startLine","()V");
+				for(int place = top - code[pc + 1]; place < top; place++){
+					int printed = this.code.newLabel();
+					this.code.op(Code.ALOAD_0);
+					load(stack(place));
+					this.code.intConstant(lineNo);
+					this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"print","(" + VALUE + "I)Z");
+					this.code.jump(Code.IFNE,printed);
+					halt();
+					this.code.placeLabel(printed);
+				}
+				this.code.op(Code.ALOAD_0);
+				this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"endLine","()V");
+				break;
+			case Opcode.ADD:
+			case Opcode.SUB:
+			case Opcode.MUL:
+			case Opcode.DIV:
+			case Opcode.MOD:
+			case Opcode.MAX:
+			case Opcode.MIN:
+				arithmetic(op,stack(top - 2),stack(top - 1),lineNo);
+				break;
+			case Opcode.EQUAL:
+			case Opcode.NOT_EQUAL:
+				sameValue(stack(top - 2),stack(top - 1));
+				if(op == Opcode.NOT_EQUAL){
+					this.code.op(Code.ICONST_1);
+					this.code.op(Code.IXOR);
+				}
+				storeTroof(stack(top - 2));
+				break;
+			case Opcode.AND:
+			case Opcode.OR:
+			case Opcode.XOR:
+				truthValue(stack(top - 2));
+				truthValue(stack(top - 1));
+				this.code.op(op == Opcode.AND ? Code.IAND : op == Opcode.OR ? Code.IOR : Code.IXOR);
+				storeTroof(stack(top - 2));
+				break;
+			case Opcode.NOT:
+				truthValue(stack(top - 1));
+				this.code.op(Code.ICONST_1);
+				this.code.op(Code.IXOR);
+				storeTroof(stack(top - 1));
+				break;
+			case Opcode.ALL:
+			case Opcode.ANY: {
+				int count = code[pc + 1];
+				int first = top - count;
+				for(int place = first; place < top; place++){
+					truthValue(stack(place));
+					if(place > first){
+						this.code.op(Code.IADD);
+					}
+				}
+				//ALL: every operand is true, ANY: one of them is
+				int isFalse = this.code.newLabel();
+				int next = this.code.newLabel();
+				if(op == Opcode.ALL){
+					this.code.intConstant(count);
+					this.code.jump(Code.IF_ICMPNE,isFalse);
+				}else{
+					this.code.jump(Code.IFEQ,isFalse);
+				}
+				this.code.op(Code.ICONST_1);
+				this.code.jump(Code.GOTO,next);
+				this.code.placeLabel(isFalse);
+				this.code.op(Code.ICONST_0);
+				this.code.placeLabel(next);
+				storeTroof(stack(first));
+				break;
+			}
+			case Opcode.JUMP:
+				this.code.jump(Code.GOTO,this.labels[code[pc + 1]]);
+				break;
+			case Opcode.JUMP_IF_TRUE:
+			case Opcode.JUMP_IF_FALSE:
+				truthValue(stack(top - 1));
+				this.code.jump(op == Opcode.JUMP_IF_TRUE ? Code.IFNE : Code.IFEQ,this.labels[code[pc + 1]]);
+				break;
+			case Opcode.ENTER_SCOPE:
+				openScope(depth + 1,code[pc + 1]);
+				break;
+			case Opcode.EXIT_SCOPE:
+				break;
+			case Opcode.LOOP_INIT:
+				set(scope(depth,code[pc + 1]),ClassRuntime.NUMBR,0,null);
+				break;
+			//the loop variable may have been assigned (or declared again) in the body
+			case Opcode.LOOP_STEP: {
+				int variable = scope(depth,code[pc + 1]);
+				int next = this.code.newLabel();
+				this.code.local(Code.ILOAD,variable);
+				this.code.intConstant(ClassRuntime.NUMBR);
+				this.code.jump(Code.IF_ICMPEQ,next);
+				callRuntime("notNumbr",code[pc + 3],lineNo);
+				halt();
+				this.code.placeLabel(next);
+				this.code.local(Code.LLOAD,variable + 1);
+				this.code.op(Code.L2I);
+				this.code.intConstant(code[pc + 2]);
+				this.code.op(Code.IADD);
+				this.code.op(Code.I2L);
+				this.code.local(Code.LSTORE,variable + 1);
+				this.code.jump(Code.GOTO,this.labels[code[pc + 4]]);
+				break;
+			}
+			case Opcode.SWITCH: {
+				int table = code[pc + 1];
+				int noEntry = this.labels[code[pc + 3]];
+				int open = this.code.newLabel();
+				this.code.op(Code.ALOAD_0);
+				this.code.intConstant(this.chunkIndex);
+				this.code.intConstant(table);
+				load(stack(top - 1));
+				this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"switchEntry","(II" + VALUE + ")I");
+				this.code.op(Code.DUP);
+				this.code.jump(Code.IFGE,open);
+				this.code.op(Code.POP);
+				this.code.jump(Code.GOTO,noEntry);
+				//the entry stays on the operand stack while the scope is opened
+				this.code.placeLabel(open);
+				openScope(depth + 1,code[pc + 2]);
+				int[] targets = this.chunk.switchTargets[table];
+				int[] entries = new int[targets.length];
+				for(int i = 0; i < targets.length; i++){
+					entries[i] = this.labels[targets[i]];
+				}
+				this.code.tableSwitch(0,entries,noEntry);
+				break;
+			}
+			case Opcode.CALL: {
+				int count = code[pc + 2];
+				this.code.op(Code.ALOAD_0);
+				this.code.intConstant(lineNo);
+				this.code.field(Code.PUTFIELD,RUNTIME,"callLine","I");
+				this.code.op(Code.ALOAD_0);
+				for(int place = top - count; place < top; place++){
+					load(stack(place));
+				}
+				Chunk function = this.program.getFunction(code[pc + 1]);
+				this.code.invoke(Code.INVOKESTATIC,this.writer.getName(),functionName(code[pc + 1]),descriptor(function));
+				storeResult(stack(top - count));
+				break;
+			}
+			//a call of the function itself (see addMethod): the arguments become the parameters, and the body starts again
+			case Opcode.TAIL_CALL: {
+				int count = code[pc + 2];
+				for(int slot = 1; slot < this.chunk.frameSize; slot++){
+					this.code.op(Code.ICONST_0);
+					this.code.local(Code.ISTORE,scope(0,slot));
+				}
+				setNoob(scope(0,0));
+				for(int i = 0; i < count; i++){
+					copy(stack(top - count + i),scope(0,this.chunk.parameterSlots[i]));
+				}
+				this.code.jump(Code.GOTO,this.startLabel);
+				break;
+			}
+			case Opcode.RETURN:
+				returnValue(stack(top - 1));
+				break;
+			case Opcode.RETURN_NOOB:
+				this.code.op(Code.ALOAD_0);
+				this.code.op(Code.LCONST_0);
+				this.code.field(Code.PUTFIELD,RUNTIME,"bits","J");
+				this.code.op(Code.ALOAD_0);
+				this.code.field(Code.GETSTATIC,"symboltable/Symbol","UNINITIALIZED",STRING);
+				this.code.field(Code.PUTFIELD,RUNTIME,"string",STRING);
+				this.code.intConstant(ClassRuntime.NOOB);
+				this.code.op(Code.IRETURN);
+				break;
+			case Opcode.RETURN_IT:
+				returnValue(scope(0,0));
+				break;
+			case Opcode.ERROR:
+				if(code[pc + 1] >= 0){
+					this.code.op(Code.ALOAD_0);
+					this.code.stringConstant(this.chunk.messages[code[pc + 1]]);
+					this.code.intConstant(lineNo);
+					this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"error","(" + STRING + "I)V");
+				}
+				if(code[pc + 2] == 1){
+					halt();
+				}
+				break;
+			case Opcode.FAIL:
+				halt();
+				break;
+			default:
+				this.code.op(Code.ICONST_1);
+				this.code.op(Code.IRETURN);
+		}
+	}
+
+	//first local of the i-th scope that may hold the variable of the instruction at pc
+	private int variable(int pc,int i){
+		int[] code = this.chunk.code;
+		return scope(code[pc + 3 + 2 * i],code[pc + 4 + 2 * i]);
+	}
+
+	/*
+	 Arithmetic
+
+	 	Two NUMBRs are computed inline (but a division by 0), anything else by ClassRuntime.arithmetic().
+	 */
+	private void arithmetic(int op,int operand1,int operand2,int lineNo){
+		int slow = this.code.newLabel();
+		int next = this.code.newLabel();
+		this.code.local(Code.ILOAD,operand1);
+		this.code.intConstant(ClassRuntime.NUMBR);
+		this.code.jump(Code.IF_ICMPNE,slow);
+		this.code.local(Code.ILOAD,operand2);
+		this.code.intConstant(ClassRuntime.NUMBR);
+		this.code.jump(Code.IF_ICMPNE,slow);
+		if(op == Opcode.DIV || op == Opcode.MOD){
+			this.code.local(Code.LLOAD,operand2 + 1);
+			this.code.op(Code.L2I);
+			this.code.jump(Code.IFEQ,slow);
+		}
+		this.code.local(Code.LLOAD,operand1 + 1);
+		this.code.op(Code.L2I);
+		this.code.local(Code.LLOAD,operand2 + 1);
+		this.code.op(Code.L2I);
+		switch(op){
+			case Opcode.ADD:
+				this.code.op(Code.IADD);
+				break;
+			case Opcode.SUB:
+				this.code.op(Code.ISUB);
+				break;
+			case Opcode.MUL:
+				this.code.op(Code.IMUL);
+				break;
+			case Opcode.DIV:
+				this.code.op(Code.IDIV);
+				break;
+			case Opcode.MOD:
+				this.code.op(Code.IREM);
+				break;
+			case Opcode.MAX:
+				this.code.invoke(Code.INVOKESTATIC,"java/lang/Math","max","(II)I");
+				break;
+			default:
+				this.code.invoke(Code.INVOKESTATIC,"java/lang/Math","min","(II)I");
+		}
+		this.code.op(Code.I2L);
+		this.code.local(Code.LSTORE,operand1 + 1);
+		this.code.jump(Code.GOTO,next);
+
+		this.code.placeLabel(slow);
+		this.code.op(Code.ALOAD_0);
+		this.code.intConstant(op);
+		this.code.local(Code.ILOAD,operand1);
+		this.code.local(Code.LLOAD,operand1 + 1);
+		this.code.local(Code.ILOAD,operand2);
+		this.code.local(Code.LLOAD,operand2 + 1);
+		this.code.intConstant(lineNo);
+		this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"arithmetic","(IIJIJI)I");
+		this.code.op(Code.DUP);
+		int ok = this.code.newLabel();
+		this.code.jump(Code.IFGE,ok);
+		this.code.op(Code.IRETURN);
+		this.code.placeLabel(ok);
+		this.code.local(Code.ISTORE,operand1);
+		this.code.op(Code.ALOAD_0);
+		this.code.field(Code.GETFIELD,RUNTIME,"bits","J");
+		this.code.local(Code.LSTORE,operand1 + 1);
+		this.code.op(Code.ACONST_NULL);
+		this.code.local(Code.ASTORE,operand1 + 3);
+		this.code.placeLabel(next);
+	}
+
+	//push 1 if two values are equal, 0 otherwise (as Symbol.sameValue())
+	private void sameValue(int value1,int value2){
+		int strings = this.code.newLabel();
+		int different = this.code.newLabel();
+		int next = this.code.newLabel();
+		this.code.local(Code.ILOAD,value1);
+		this.code.local(Code.ILOAD,value2);
+		this.code.jump(Code.IF_ICMPNE,different);
+		//same datatype: YARNs compare their strings, anything else its payload (0 for NOOB)
+		this.code.local(Code.ILOAD,value1);
+		this.code.intConstant(ClassRuntime.YARN);
+		this.code.jump(Code.IF_ICMPEQ,strings);
+		this.code.local(Code.LLOAD,value1 + 1);
+		this.code.local(Code.LLOAD,value2 + 1);
+		this.code.op(Code.LCMP);
+		this.code.jump(Code.IFNE,different);
+		this.code.op(Code.ICONST_1);
+		this.code.jump(Code.GOTO,next);
+		this.code.placeLabel(different);
+		this.code.op(Code.ICONST_0);
+		this.code.jump(Code.GOTO,next);
+		this.code.placeLabel(strings);
+		this.code.local(Code.ALOAD,value1 + 3);
+		this.code.local(Code.ALOAD,value2 + 3);
+		this.code.invoke(Code.INVOKESTATIC,RUNTIME,"sameString","(" + STRING + STRING + ")Z");
+		this.code.placeLabel(next);
+	}
+
+	//push 1 if a value is true (anything but FAIL), 0 otherwise
+	private void truthValue(int value){
+		int notTroof = this.code.newLabel();
+		int next = this.code.newLabel();
+		this.code.local(Code.ILOAD,value);
+		this.code.intConstant(ClassRuntime.TROOF);
+		this.code.jump(Code.IF_ICMPNE,notTroof);
+		this.code.local(Code.LLOAD,value + 1);
+		this.code.op(Code.L2I);
+		this.code.jump(Code.GOTO,next);
+		this.code.placeLabel(notTroof);
+		this.code.op(Code.ICONST_1);
+		this.code.placeLabel(next);
+	}
+
+	//pop 1 or 0 into a value, as WIN or FAIL
+	private void storeTroof(int value){
+		this.code.op(Code.I2L);
+		this.code.local(Code.LSTORE,value + 1);
+		this.code.intConstant(ClassRuntime.TROOF);
+		this.code.local(Code.ISTORE,value);
+		this.code.op(Code.ACONST_NULL);
+		this.code.local(Code.ASTORE,value + 3);
+	}
+
+	//mark the slots of a scope undeclared but IT
+	private void openScope(int depth,int size){
+		for(int slot = 1; slot < size; slot++){
+			this.code.op(Code.ICONST_0);
+			this.code.local(Code.ISTORE,scope(depth,slot));
+		}
+		setNoob(scope(depth,0));
+	}
+
+	//pop the datatype a runtime method or a call returned into a value, with the payload and string it left. stop if
+	//it is HALT
+	private void storeResult(int value){
+		int ok = this.code.newLabel();
+		this.code.op(Code.DUP);
+		this.code.jump(Code.IFGE,ok);
+		this.code.op(Code.IRETURN);
+		this.code.placeLabel(ok);
+		this.code.local(Code.ISTORE,value);
+		this.code.op(Code.ALOAD_0);
+		this.code.field(Code.GETFIELD,RUNTIME,"bits","J");
+		this.code.local(Code.LSTORE,value + 1);
+		this.code.op(Code.ALOAD_0);
+		this.code.field(Code.GETFIELD,RUNTIME,"string",STRING);
+		this.code.local(Code.ASTORE,value + 3);
+	}
+
+	private void returnValue(int value){
+		this.code.op(Code.ALOAD_0);
+		this.code.local(Code.LLOAD,value + 1);
+		this.code.field(Code.PUTFIELD,RUNTIME,"bits","J");
+		this.code.op(Code.ALOAD_0);
+		this.code.local(Code.ALOAD,value + 3);
+		this.code.field(Code.PUTFIELD,RUNTIME,"string",STRING);
+		this.code.local(Code.ILOAD,value);
+		this.code.op(Code.IRETURN);
+	}
+
+	//ClassRuntime.loadError(), and stop
+	private void loadError(int varId,boolean unknown,int lineNo){
+		this.code.op(Code.ALOAD_0);
+		this.code.intConstant(varId);
+		this.code.op(unknown ? Code.ICONST_1 : Code.ICONST_0);
+		this.code.intConstant(lineNo);
+		this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,"loadError","(IZI)V");
+		halt();
+	}
+
+	//a runtime method reporting an error on a variable
+	private void callRuntime(String method,int varId,int lineNo){
+		this.code.op(Code.ALOAD_0);
+		this.code.intConstant(varId);
+		this.code.intConstant(lineNo);
+		this.code.invoke(Code.INVOKEVIRTUAL,RUNTIME,method,"(II)V");
+	}
+
+	private void halt(){
+		this.code.intConstant(ClassRuntime.HALT);
+		this.code.op(Code.IRETURN);
+	}
+
+	//push a value (datatype, payload and string)
+	private void load(int value){
+		this.code.local(Code.ILOAD,value);
+		this.code.local(Code.LLOAD,value + 1);
+		this.code.local(Code.ALOAD,value + 3);
+	}
+
+	private void copy(int from,int to){
+		this.code.local(Code.ILOAD,from);
+		this.code.local(Code.ISTORE,to);
+		this.code.local(Code.LLOAD,from + 1);
+		this.code.local(Code.LSTORE,to + 1);
+		this.code.local(Code.ALOAD,from + 3);
+		this.code.local(Code.ASTORE,to + 3);
+	}
+
+	private void set(int value,int datatype,long bits,String string){
+		this.code.intConstant(datatype);
+		this.code.local(Code.ISTORE,value);
+		this.code.longConstant(bits);
+		this.code.local(Code.LSTORE,value + 1);
+		this.code.stringConstant(string);
+		this.code.local(Code.ASTORE,value + 3);
+	}
+
+	private void setNoob(int value){
+		this.code.intConstant(ClassRuntime.NOOB);
+		this.code.local(Code.ISTORE,value);
+		this.code.op(Code.LCONST_0);
+		this.code.local(Code.LSTORE,value + 1);
+		this.code.field(Code.GETSTATIC,"symboltable/Symbol","UNINITIALIZED",STRING);
+		this.code.local(Code.ASTORE,value + 3);
+	}
+
+	private void setEmpty(int value){
+		set(value,ClassRuntime.UNDECLARED,0,null);
+	}
+}
@@ -0,0 +1,238 @@
+package vm;
+
+import java.util.NoSuchElementException;
+
+import lexicalanalyzer.TokenType;
+import parser.ast.SwitchStatement;
+import semanticanalyzer.SemanticAnalyzer;
+import symboltable.NameTable;
+import symboltable.Symbol;
+import trace.Trace;
+import trace.TraceEvent;
+
+/*
+ Class Runtime
+
+ 	What the code of a generated class (see ClassGenerator) calls for the cases it does not compute itself: errors,
+ printing, input, WTF? entries, and the arithmetic of anything but two NUMBRs. It is public, as the generated class is
+ in a class loader of its own.
+
+ 	In generated code a value is three locals, as in Symbol: its datatype as a number (NOOB to YARN below), its
+ payload and its string. A method returns the datatype of its value, or HALT if the program stopped on an error, and
+ leaves the payload and string in bits and string.
+ */
+public final class ClassRuntime {
+	public static final int UNDECLARED = 0;		//a slot no variable is declared in
+	public static final int NOOB = 1;
+	public static final int NUMBR = 2;
+	public static final int NUMBAR = 3;
+	public static final int TROOF = 4;
+	public static final int YARN = 5;
+	public static final int HALT = -1;
+
+	private static final TokenType[] DATATYPES = {
+		null,TokenType.DATATYPE_NONE,TokenType.DATATYPE_INT,TokenType.DATATYPE_FLOAT,TokenType.DATATYPE_BOOLEAN,
+		TokenType.DATATYPE_STRING
+	};
+
+	//value returned by a method or a helper, besides its datatype
+	public long bits;
+	public String string;
+	public int callLine;					//line of the innermost call, set before every call
+
+	private NameTable names;
+	private SwitchStatement[][] switches;	//WTF? statements of the program body and of every function
+	private boolean errorDetected;			//an error message was printed (halts printing of other errors)
+	private Symbol switchValue;				//value of IT given to a WTF?
+	private StringBuilder printLine;
+
+	ClassRuntime(NameTable names,SwitchStatement[][] switches) {
+		this.names = names;
+		this.switches = switches;
+		this.errorDetected = false;
+		this.switchValue = Symbol.uninitialized();
+		this.printLine = new StringBuilder();
+	}
+
+	//number of a datatype
+	static int datatypeNumber(TokenType datatype){
+		switch(datatype){
+			case DATATYPE_INT:
+				return NUMBR;
+			case DATATYPE_FLOAT:
+				return NUMBAR;
+			case DATATYPE_BOOLEAN:
+				return TROOF;
+			case DATATYPE_STRING:
+				return YARN;
+			default:
+				return NOOB;
+		}
+	}
+
+	//the error of a variable that has no value
+	public void loadError(int varId,boolean unknown,int lineNo){
+		String name = this.names.getName(varId);
+		if(unknown){
+			SemanticAnalyzer.printErrorMsg(lineNo,"Variable '" + name + "' unknown!.");
+		}else{
+			SemanticAnalyzer.printErrorMsg(lineNo,"Variable '" + name + "' not initialized.");
+		}
+	}
+
+	public void undeclared(int varId,int lineNo){
+		printErrorMsg(lineNo,"Variable '" + this.names.getName(varId) + "' undeclared.");
+	}
+
+	public void notNumbr(int varId,int lineNo){
+		printErrorMsg(lineNo,"Variable '" + this.names.getName(varId) + "' is not a NUMBR.");
+	}
+
+	public void error(String msg,int lineNo){
+		printErrorMsg(lineNo,msg);
+	}
+
+	//the calls of the program have used up the stack (as Interpreter reports it)
+	void stackOverflow(){
+		printErrorMsg(this.callLine,"Function calls are nested too deep.");
+	}
+
+	//read a value from stdin. returns its datatype, HALT on an error
+	public int input(int lineNo){
+		try{
+			Symbol value = SemanticAnalyzer.readUserInput();
+			this.bits = value.getBits();
+			this.string = value.getString();
+			return datatypeNumber(value.getDatatype());
+		}catch(NoSuchElementException e){
+			printErrorMsg(lineNo,"user input ends abruptly.");
+			return HALT;
+		}
+	}
+
+	//a line is printed a value at a time, as SemanticAnalyzer.getStringFromSymbol() does. NOOB is an error, as in the
+	//Interpreter, and the line is not printed
+	public void startLine(){
+		this.printLine.setLength(0);
+	}
+
+	public boolean print(int datatype,long bits,String string,int lineNo){
+		switch(datatype){
+			case NOOB:
+				printErrorMsg(lineNo,"NOOB cannot be printed.");
+				return false;
+			case NUMBR:
+				this.printLine.append((int)bits);
+				break;
+			case NUMBAR:
+				this.printLine.append(Double.toString(Double.longBitsToDouble(bits)));
+				break;
+			case TROOF:
+				this.printLine.append(bits != 0 ? "WIN" : "FAIL");
+				break;
+			default:
+				this.printLine.append(string);
+		}
+		return true;
+	}
+
+	public void endLine(){
+		System.out.println(this.printLine);
+	}
+
+	/*
+	 Arithmetic
+
+	 	An operation (Opcode.ADD to Opcode.MIN) as SemanticAnalyzer.performArithmeticOperation() does it. Returns the datatype of the
+	 result, HALT on an error.
+	 */
+	public int arithmetic(int op,int datatype1,long bits1,int datatype2,long bits2,int lineNo){
+		if(datatype1 == NUMBR && datatype2 == NUMBR){
+			int operand1 = (int)bits1;
+			int operand2 = (int)bits2;
+			int result;
+			switch(op){
+				case Opcode.ADD:
+					result = operand1 + operand2;
+					break;
+				case Opcode.SUB:
+					result = operand1 - operand2;
+					break;
+				case Opcode.MUL:
+					result = operand1 * operand2;
+					break;
+				case Opcode.DIV:
+				case Opcode.MOD:
+					if(operand2 == 0){
+						SemanticAnalyzer.printErrorMsg(lineNo,"Zero Division.");
+						return HALT;
+					}
+					result = op == Opcode.DIV ? operand1 / operand2 : operand1 % operand2;
+					break;
+				case Opcode.MAX:
+					result = Math.max(operand1,operand2);
+					break;
+				default:
+					result = Math.min(operand1,operand2);
+			}
+			this.bits = result;
+			return NUMBR;
+		}
+
+		if((datatype1 != NUMBR && datatype1 != NUMBAR) || (datatype2 != NUMBR && datatype2 != NUMBAR)){
+			SemanticAnalyzer.printErrorMsg(lineNo,"invalid datatype.");
+			return HALT;
+		}
+
+		//at least one operand is double, an int operand is typecasted
+		double operand1 = datatype1 == NUMBR ? (double)(int)bits1 : Double.longBitsToDouble(bits1);
+		double operand2 = datatype2 == NUMBR ? (double)(int)bits2 : Double.longBitsToDouble(bits2);
+		double result;
+		switch(op){
+			case Opcode.ADD:
+				result = operand1 + operand2;
+				break;
+			case Opcode.SUB:
+				result = operand1 - operand2;
+				break;
+			case Opcode.MUL:
+				result = operand1 * operand2;
+				break;
+			case Opcode.DIV:
+				result = operand1 / operand2;
+				break;
+			case Opcode.MOD:
+				result = operand1 % operand2;
+				break;
+			case Opcode.MAX:
+				result = Math.max(operand1,operand2);
+				break;
+			default:
+				result = Math.min(operand1,operand2);
+		}
+		this.bits = Double.doubleToLongBits(result);
+		return NUMBAR;
+	}
+
+	//two YARNs are equal (as Symbol.sameValue())
+	public static boolean sameString(String string1,String string2){
+		return string1.equals(string2);
+	}
+
+	//entry of a WTF? of a chunk (0 for the program body, function + 1 otherwise) for a value, -1 if it has none. the
+	//cases are keyed by boxed values
+	public int switchEntry(int chunk,int table,int datatype,long bits,String string){
+		this.switchValue.set(DATATYPES[datatype],bits,string);
+		return this.switches[chunk][table].getEntry(this.switchValue.getValue());
+	}
+
+	void printErrorMsg(int lineNo, String msg) {
+		if(!(errorDetected)){
+			System.out.println("Error at Line " + lineNo + " : " + msg);
+			errorDetected = true;
+			if(Trace.ENABLED){
+				Trace.current().record(TraceEvent.RUNTIME_ERROR,lineNo,-1);
+			}
+		}
+	}
+}
@@ -0,0 +1,411 @@
+package vm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/*
+ Class Writer
+
+ 	Writes a JVM class file: a public class with public static methods, the code of which is given as bytes (see
+ Code). Only what ClassGenerator needs is written.
+
+ 	The class file is of version 49 (Java 5), which has no stack map frames: the JVM checks the code by inferring
+ the types of the locals and of the operand stack itself, so the code need not describe them.
+ */
+final class ClassWriter {
+	private static final int VERSION = 49;
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_STATIC = 0x0008;
+	private static final int ACC_SUPER = 0x0020;
+
+	private String name;
+	private ByteArrayOutputStream pool;
+	private DataOutputStream poolOut;
+	private int poolCount;
+	private HashMap<String,Integer> poolIndex;		//index of every constant in the pool, by a key of its kind and value
+	private ArrayList<byte[]> methods;
+
+	ClassWriter(String name) {
+		this.name = name;
+		this.pool = new ByteArrayOutputStream();
+		this.poolOut = new DataOutputStream(this.pool);
+		this.poolCount = 1;
+		this.poolIndex = new HashMap<String,Integer>();
+		this.methods = new ArrayList<byte[]>();
+	}
+
+	String getName(){
+		return this.name;
+	}
+
+	//add a public static method
+	void addMethod(String methodName,String descriptor,Code code){
+		ByteArrayOutputStream method = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(method);
+		try{
+			out.writeShort(ACC_PUBLIC | ACC_STATIC);
+			out.writeShort(utf8(methodName));
+			out.writeShort(utf8(descriptor));
+			out.writeShort(1);
+			byte[] bytes = code.toBytes();
+			out.writeShort(utf8("Code"));
+			out.writeInt(12 + bytes.length);
+			out.writeShort(code.maxStack);
+			out.writeShort(code.maxLocals);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+			out.writeShort(0);		//exception table
+			out.writeShort(0);		//attributes
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+		this.methods.add(method.toByteArray());
+	}
+
+	byte[] toBytes(){
+		int thisClass = classRef(this.name);
+		int superClass = classRef("java/lang/Object");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try{
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(VERSION);
+			out.writeShort(this.poolCount);
+			this.pool.writeTo(out);
+			out.writeShort(ACC_PUBLIC | ACC_SUPER);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(0);		//interfaces
+			out.writeShort(0);		//fields
+			out.writeShort(this.methods.size());
+			for(byte[] method:this.methods){
+				out.write(method);
+			}
+			out.writeShort(0);		//attributes
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/*
+	 Constant Pool
+
+	 	Every constant is added once, the first time it is asked for.
+	 */
+	int utf8(String value){
+		Integer index = this.poolIndex.get("U" + value);
+		if(index != null){
+			return index;
+		}
+		try{
+			this.poolOut.writeByte(1);
+			this.poolOut.writeUTF(value);
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+		return addConstant("U" + value,1);
+	}
+
+	int classRef(String className){
+		return addReference("C",7,utf8(className),-1,className);
+	}
+
+	int string(String value){
+		return addReference("S",8,utf8(value),-1,value);
+	}
+
+	int integer(int value){
+		Integer index = this.poolIndex.get("I" + value);
+		if(index != null){
+			return index;
+		}
+		try{
+			this.poolOut.writeByte(3);
+			this.poolOut.writeInt(value);
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+		return addConstant("I" + value,1);
+	}
+
+	//a long takes two entries of the pool
+	int longValue(long value){
+		Integer index = this.poolIndex.get("J" + value);
+		if(index != null){
+			return index;
+		}
+		try{
+			this.poolOut.writeByte(5);
+			this.poolOut.writeLong(value);
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+		return addConstant("J" + value,2);
+	}
+
+	int fieldRef(String owner,String fieldName,String descriptor){
+		int nameAndType = nameAndType(fieldName,descriptor);
+		return addReference("F",9,classRef(owner),nameAndType,owner + "." + fieldName + ":" + descriptor);
+	}
+
+	int methodRef(String owner,String methodName,String descriptor){
+		int nameAndType = nameAndType(methodName,descriptor);
+		return addReference("M",10,classRef(owner),nameAndType,owner + "." + methodName + descriptor);
+	}
+
+	private int nameAndType(String memberName,String descriptor){
+		int nameIndex = utf8(memberName);
+		int descriptorIndex = utf8(descriptor);
+		return addReference("N",12,nameIndex,descriptorIndex,memberName + ":" + descriptor);
+	}
+
+	//a constant made of one or two other constants (second is -1 for one)
+	private int addReference(String kind,int tag,int first,int second,String value){
+		Integer index = this.poolIndex.get(kind + value);
+		if(index != null){
+			return index;
+		}
+		try{
+			this.poolOut.writeByte(tag);
+			this.poolOut.writeShort(first);
+			if(second >= 0){
+				this.poolOut.writeShort(second);
+			}
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+		return addConstant(kind + value,1);
+	}
+
+	private int addConstant(String key,int entries){
+		int index = this.poolCount;
+		this.poolIndex.put(key,index);
+		this.poolCount += entries;
+		return index;
+	}
+
+	/*
+	 Code
+
+	 	The code of a method, as JVM instructions. A jump is given a label, and its offset is set once the code is
+	 done. The operand stack is not counted: maxStack and maxLocals are set by the caller.
+	 */
+	static final class Code {
+		static final int ACONST_NULL = 0x01;
+		static final int ICONST_0 = 0x03;
+		static final int ICONST_1 = 0x04;
+		static final int LCONST_0 = 0x09;
+		static final int LDC_W = 0x13;
+		static final int LDC2_W = 0x14;
+		static final int ILOAD = 0x15;
+		static final int LLOAD = 0x16;
+		static final int ALOAD = 0x19;
+		static final int ALOAD_0 = 0x2a;
+		static final int ISTORE = 0x36;
+		static final int LSTORE = 0x37;
+		static final int ASTORE = 0x3a;
+		static final int POP = 0x57;
+		static final int DUP = 0x59;
+		static final int IADD = 0x60;
+		static final int ISUB = 0x64;
+		static final int IMUL = 0x68;
+		static final int IDIV = 0x6c;
+		static final int IREM = 0x70;
+		static final int IAND = 0x7e;
+		static final int IOR = 0x80;
+		static final int IXOR = 0x82;
+		static final int I2L = 0x85;
+		static final int L2I = 0x88;
+		static final int LCMP = 0x94;
+		static final int IFEQ = 0x99;
+		static final int IFNE = 0x9a;
+		static final int IFGE = 0x9c;
+		static final int IF_ICMPEQ = 0x9f;
+		static final int IF_ICMPNE = 0xa0;
+		static final int GOTO = 0xa7;
+		static final int TABLESWITCH = 0xaa;
+		static final int IRETURN = 0xac;
+		static final int GETSTATIC = 0xb2;
+		static final int GETFIELD = 0xb4;
+		static final int PUTFIELD = 0xb5;
+		static final int INVOKEVIRTUAL = 0xb6;
+		static final int INVOKESTATIC = 0xb8;
+		static final int IFNONNULL = 0xc7;
+		static final int WIDE = 0xc4;
+
+		private ClassWriter owner;
+		private byte[] bytes;
+		private int size;
+		private int[] labels;				//position of every label, -1 until it is placed
+		private int labelCount;
+		private ArrayList<int[]> jumps;		//position of every jump offset, the instruction it belongs to and its label,
+		private ArrayList<Boolean> wide;	//and whether the offset is an int
+		int maxStack;
+		int maxLocals;
+
+		Code(ClassWriter owner) {
+			this.owner = owner;
+			this.bytes = new byte[256];
+			this.size = 0;
+			this.labels = new int[16];
+			this.labelCount = 0;
+			this.jumps = new ArrayList<int[]>();
+			this.wide = new ArrayList<Boolean>();
+		}
+
+		int size(){
+			return this.size;
+		}
+
+		int newLabel(){
+			if(this.labelCount == this.labels.length){
+				this.labels = Arrays.copyOf(this.labels,this.labelCount * 2);
+			}
+			this.labels[this.labelCount] = -1;
+			return this.labelCount++;
+		}
+
+		void placeLabel(int label){
+			this.labels[label] = this.size;
+		}
+
+		void op(int opcode){
+			u1(opcode);
+		}
+
+		//a jump to a label
+		void jump(int opcode,int label){
+			int start = this.size;
+			u1(opcode);
+			this.jumps.add(new int[]{this.size,start,label});
+			this.wide.add(false);
+			u2(0);
+		}
+
+		//go to targets[value - low], or to defaultLabel if value is not in range
+		void tableSwitch(int low,int[] targets,int defaultLabel){
+			int start = this.size;
+			u1(TABLESWITCH);
+			while(this.size % 4 != 0){
+				u1(0);
+			}
+			switchTarget(start,defaultLabel);
+			u4(low);
+			u4(low + targets.length - 1);
+			for(int target:targets){
+				switchTarget(start,target);
+			}
+		}
+
+		private void switchTarget(int start,int label){
+			this.jumps.add(new int[]{this.size,start,label});
+			this.wide.add(true);
+			u4(0);
+		}
+
+		//load or store a local, ILOAD to ASTORE
+		void local(int opcode,int index){
+			if(index > 255){
+				u1(WIDE);
+				u1(opcode);
+				u2(index);
+			}else{
+				u1(opcode);
+				u1(index);
+			}
+		}
+
+		void intConstant(int value){
+			if(value >= -1 && value <= 5){
+				u1(ICONST_0 + value);
+			}else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE){
+				u1(0x10);		//bipush
+				u1(value);
+			}else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE){
+				u1(0x11);		//sipush
+				u2(value);
+			}else{
+				u1(LDC_W);
+				u2(this.owner.integer(value));
+			}
+		}
+
+		void longConstant(long value){
+			if(value == 0 || value == 1){
+				u1(LCONST_0 + (int)value);
+			}else{
+				u1(LDC2_W);
+				u2(this.owner.longValue(value));
+			}
+		}
+
+		void stringConstant(String value){
+			if(value == null){
+				u1(ACONST_NULL);
+			}else{
+				u1(LDC_W);
+				u2(this.owner.string(value));
+			}
+		}
+
+		//GETSTATIC to PUTFIELD
+		void field(int opcode,String className,String fieldName,String descriptor){
+			u1(opcode);
+			u2(this.owner.fieldRef(className,fieldName,descriptor));
+		}
+
+		//INVOKEVIRTUAL or INVOKESTATIC
+		void invoke(int opcode,String className,String methodName,String descriptor){
+			u1(opcode);
+			u2(this.owner.methodRef(className,methodName,descriptor));
+		}
+
+		//the code, with the offsets of the jumps set
+		byte[] toBytes(){
+			for(int i = 0; i < this.jumps.size(); i++){
+				int[] jump = this.jumps.get(i);
+				int offset = this.labels[jump[2]] - jump[1];
+				if(this.wide.get(i)){
+					putU4(jump[0],offset);
+				}else{
+					if(offset < Short.MIN_VALUE || offset > Short.MAX_VALUE){
+						throw new IllegalStateException("jump out of range");
+					}
+					this.bytes[jump[0]] = (byte)(offset >> 8);
+					this.bytes[jump[0] + 1] = (byte)offset;
+				}
+			}
+			return Arrays.copyOf(this.bytes,this.size);
+		}
+
+		private void u1(int value){
+			if(this.size == this.bytes.length){
+				this.bytes = Arrays.copyOf(this.bytes,this.size * 2);
+			}
+			this.bytes[this.size++] = (byte)value;
+		}
+
+		private void u2(int value){
+			u1(value >> 8);
+			u1(value);
+		}
+
+		private void u4(int value){
+			u2(value >> 16);
+			u2(value);
+		}
+
+		private void putU4(int position,int value){
+			this.bytes[position] = (byte)(value >> 24);
+			this.bytes[position + 1] = (byte)(value >> 16);
+			this.bytes[position + 2] = (byte)(value >> 8);
+			this.bytes[position + 3] = (byte)value;
+		}
+	}
+}
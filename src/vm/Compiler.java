@@ -0,0 +1,564 @@
+package vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import lexicalanalyzer.TokenType;
+import parser.ast.ArithmeticExpression;
+import parser.ast.AssignStatement;
+import parser.ast.Block;
+import parser.ast.BoolInfExpression;
+import parser.ast.BooleanExpression;
+import parser.ast.BreakStatement;
+import parser.ast.CallExpression;
+import parser.ast.ComparisonExpression;
+import parser.ast.DeclareStatement;
+import parser.ast.ErrorStatement;
+import parser.ast.Expression;
+import parser.ast.ExpressionStatement;
+import parser.ast.ExpressionVisitor;
+import parser.ast.FunctionDefinition;
+import parser.ast.IfThenStatement;
+import parser.ast.InputStatement;
+import parser.ast.LiteralExpression;
+import parser.ast.LoopStatement;
+import parser.ast.PrintStatement;
+import parser.ast.Program;
+import parser.ast.ReturnStatement;
+import parser.ast.Statement;
+import parser.ast.StatementVisitor;
+import parser.ast.SwitchStatement;
+import parser.ast.VariableExpression;
+import parser.ast.VariableLocation;
+import symboltable.NameTable;
+import symboltable.Symbol;
+
+/*
+ Compiler
+
+ 	Turns the syntax tree of a program into chunks of instructions (see Opcode) for the ClassGenerator: one for the
+ program body and one for every function. Every statement and expression is compiled once, in the order the
+ Interpreter runs them, so the program reports the same errors at the same points.
+
+ 	Scopes: every scope is an array of slots, as laid out by the Resolver (see semanticanalyzer.Resolver). An
+ instruction on a variable gives the scopes that declare it, innermost first, and the first of them holding it is
+ used. Where its location is resolved, the variable is found at compile time instead: LOAD_LOCAL and STORE_LOCAL give
+ its slot, and an assignment needs no CHECK.
+
+ 	Control flow becomes jumps: O RLY? is a conditional jump over its branches, a loop jumps back to its condition,
+ WTF? jumps to the entry of the value of IT, and GTFO closes the scopes it is in and jumps past its loop or WTF?.
+ */
+public class Compiler implements StatementVisitor<Void>,ExpressionVisitor<Void> {
+	private Program program;
+	private NameTable names;
+
+	//chunk being compiled
+	private int[] code;
+	private int[] lines;
+	private int[] stackDepths;
+	private int[] scopeDepths;
+	private int size;
+	private ArrayList<Symbol> constants;
+	private ArrayList<String> messages;
+	private ArrayList<SwitchStatement> switches;
+	private ArrayList<int[]> switchTargets;
+	private int stack;							//values on the stack at the instruction being compiled
+	private int maxStack;
+	private int maxDepth;
+
+	private int depth;							//innermost scope open at the statement being compiled (0 is the frame)
+	private ArrayList<Breakable> breakables;	//loops and WTF? statements the statement being compiled is in
+
+	//a loop or WTF? that GTFO can leave
+	private static class Breakable {
+		private int depth;						//depth of the scope of the statement
+		private ArrayList<Integer> exits;		//jumps to the end of the statement, set once it is compiled
+
+		Breakable(int depth) {
+			this.depth = depth;
+			this.exits = new ArrayList<Integer>();
+		}
+	}
+
+	public Compiler(Program program) {
+		this.program = program;
+		this.names = program.getNameTable();
+	}
+
+	//compile the program body and the functions
+	public BytecodeProgram compile(){
+		Chunk main = compileChunk(this.program.getBody(),null);
+
+		ArrayList<FunctionDefinition> functions = this.program.getFunctions();
+		Chunk[] chunks = new Chunk[functions.size()];
+		for(int i = 0; i < chunks.length; i++){
+			FunctionDefinition function = functions.get(i);
+			chunks[i] = compileChunk(function.getBody(),function);
+		}
+		return new BytecodeProgram(main,chunks,this.names,this.program.getSyntaxError());
+	}
+
+	//compile the body of a function, or the program body if function is null
+	private Chunk compileChunk(Block body,FunctionDefinition function){
+		this.code = new int[64];
+		this.lines = new int[64];
+		this.stackDepths = new int[64];
+		this.scopeDepths = new int[64];
+		this.size = 0;
+		this.constants = new ArrayList<Symbol>();
+		this.messages = new ArrayList<String>();
+		this.switches = new ArrayList<SwitchStatement>();
+		this.switchTargets = new ArrayList<int[]>();
+		this.stack = 0;
+		this.maxStack = 0;
+		this.maxDepth = 0;
+		this.depth = 0;
+		this.breakables = new ArrayList<Breakable>();
+
+		int frameSize = this.program.getGlobalNames().length;
+		int[] parameterSlots = null;
+		if(function != null){
+			frameSize = function.getFrameSize();
+			parameterSlots = new int[function.getParameterCount()];
+			for(int i = 0; i < parameterSlots.length; i++){
+				parameterSlots[i] = function.getParameterSlot(i);
+			}
+		}
+
+		body.accept(this);
+		if(function != null){
+			emit(Opcode.RETURN_IT,body.getLineNo());
+		}else{
+			emit(Opcode.END,body.getLineNo());
+		}
+
+		return new Chunk(Arrays.copyOf(this.code,this.size),Arrays.copyOf(this.lines,this.size),
+				Arrays.copyOf(this.stackDepths,this.size),Arrays.copyOf(this.scopeDepths,this.size),
+				this.constants.toArray(new Symbol[this.constants.size()]),this.messages.toArray(new String[this.messages.size()]),
+				this.switches.toArray(new SwitchStatement[this.switches.size()]),this.switchTargets.toArray(new int[this.switchTargets.size()][]),
+				this.maxStack,this.maxDepth,frameSize,parameterSlots);
+	}
+
+	@Override
+	public Void visitBlock(Block block) {
+		for(Statement statement:block.getStatements()){
+			statement.accept(this);
+		}
+		return null;
+	}
+
+	//literals are printed as they were written
+	@Override
+	public Void visitPrint(PrintStatement statement) {
+		ArrayList<Expression> values = statement.getValues();
+		for(Expression value:values){
+			if(value instanceof LiteralExpression){
+				emitConstant(new Symbol(((LiteralExpression)value).getPrintString()),value.getLineNo());
+			}else{
+				value.accept(this);
+			}
+		}
+		emit(Opcode.PRINT,values.size(),statement.getLineNo());
+		pop(values.size());
+		return null;
+	}
+
+	@Override
+	public Void visitDeclare(DeclareStatement statement) {
+		if(statement.getValue() == null){
+			emit(Opcode.DECLARE_NOOB,statement.getSlot(),statement.getLineNo());
+		}else{
+			statement.getValue().accept(this);
+			emit(Opcode.DECLARE,statement.getSlot(),statement.getLineNo());
+			pop(1);
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitAssign(AssignStatement statement) {
+		int varId = statement.getVarId();
+		VariableLocation location = statement.getLocation();
+		if(!(location.isResolved())){
+			emitVariable(Opcode.CHECK,varId,location,statement.getLineNo());
+		}
+		statement.getValue().accept(this);
+		if(!(location.isResolved())){
+			emitVariable(Opcode.STORE,varId,location,statement.getLineNo());
+		}else{
+			emit(Opcode.STORE_LOCAL,location.getDepth(0),location.getSlot(0),statement.getLineNo());
+		}
+		pop(1);
+		return null;
+	}
+
+	@Override
+	public Void visitExpression(ExpressionStatement statement) {
+		statement.getValue().accept(this);
+		emit(Opcode.SET_IT,statement.getLineNo());
+		pop(1);
+		return null;
+	}
+
+	@Override
+	public Void visitInput(InputStatement statement) {
+		emitVariable(Opcode.INPUT,statement.getVarId(),statement.getLocation(),statement.getLineNo());
+		return null;
+	}
+
+	//both branches are in one scope, only one of them runs
+	@Override
+	public Void visitIfThen(IfThenStatement statement) {
+		int lineNo = statement.getLineNo();
+		emitImplicitVariable(lineNo);
+		emit(Opcode.ENTER_SCOPE,statement.getScopeSize(),lineNo);
+		openScope();
+
+		int toElse = emit(Opcode.JUMP_IF_FALSE,0,lineNo);
+		pop(1);
+		statement.getThenBlock().accept(this);
+		int toEnd = emit(Opcode.JUMP,0,lineNo);
+		patch(toElse,this.size);
+		statement.getElseBlock().accept(this);
+		patch(toEnd,this.size);
+
+		closeScope(lineNo);
+		return null;
+	}
+
+	//the entries follow each other, so an entry falls through to the next one
+	@Override
+	public Void visitSwitch(SwitchStatement statement) {
+		int lineNo = statement.getLineNo();
+		emitImplicitVariable(lineNo);
+
+		ArrayList<Block> entries = statement.getEntries();
+		int[] targets = new int[entries.size()];
+		this.switches.add(statement);
+		this.switchTargets.add(targets);
+		int enter = emit(Opcode.SWITCH,this.switches.size() - 1,statement.getScopeSize(),0,lineNo);
+		pop(1);
+		openScope();
+
+		Breakable breakable = new Breakable(this.depth);
+		this.breakables.add(breakable);
+		for(int i = 0; i < entries.size(); i++){
+			targets[i] = this.size;
+			entries.get(i).accept(this);
+		}
+		this.breakables.remove(this.breakables.size() - 1);
+		for(int exit:breakable.exits){
+			patch(exit,this.size);
+		}
+
+		closeScope(lineNo);
+		this.code[enter + 3] = this.size;
+		return null;
+	}
+
+	@Override
+	public Void visitLoop(LoopStatement statement) {
+		int lineNo = statement.getLineNo();
+		boolean counting = statement.getOperation() != null;
+		emit(Opcode.ENTER_SCOPE,statement.getScopeSize(),lineNo);
+		openScope();
+		if(counting){
+			emit(Opcode.LOOP_INIT,statement.getVarSlot(),lineNo);
+		}
+
+		Breakable breakable = new Breakable(this.depth);
+		this.breakables.add(breakable);
+		int top = this.size;
+		if(statement.getCondition() != null){
+			statement.getCondition().accept(this);
+			//TIL stops once the condition is WIN, WILE once it is FAIL
+			int op = statement.getConditionType() == TokenType.LOOP_UNTIL ? Opcode.JUMP_IF_TRUE : Opcode.JUMP_IF_FALSE;
+			breakable.exits.add(emit(op,0,lineNo));
+			pop(1);
+		}
+		statement.getBody().accept(this);
+		if(counting){
+			int step = statement.getOperation() == TokenType.LOOP_DECREMENT ? -1 : 1;
+			emit(Opcode.LOOP_STEP,statement.getVarSlot(),step,statement.getVarId(),top,lineNo);
+		}else{
+			emit(Opcode.JUMP,top,lineNo);
+		}
+		this.breakables.remove(this.breakables.size() - 1);
+		for(int exit:breakable.exits){
+			patch(exit,this.size);
+		}
+
+		closeScope(lineNo);
+		return null;
+	}
+
+	@Override
+	public Void visitReturn(ReturnStatement statement) {
+		int lineNo = statement.getLineNo();
+		if(statement.getValue() == null){
+			emit(Opcode.RETURN_NOOB,lineNo);
+		}else if(statement.isTailCall()){
+			CallExpression call = (CallExpression)statement.getValue();
+			if(emitArguments(call)){
+				emit(Opcode.TAIL_CALL,call.getFunction().getIndex(),call.getArguments().size(),call.getLineNo());
+				pop(call.getArguments().size());
+			}
+		}else{
+			statement.getValue().accept(this);
+			emit(Opcode.RETURN,lineNo);
+			pop(1);
+		}
+		return null;
+	}
+
+	//GTFO outside a loop or WTF? stops the program
+	@Override
+	public Void visitBreak(BreakStatement statement) {
+		int lineNo = statement.getLineNo();
+		if(this.breakables.isEmpty()){
+			emit(Opcode.FAIL,lineNo);
+			return null;
+		}
+
+		Breakable breakable = this.breakables.get(this.breakables.size() - 1);
+		for(int depth = this.depth; depth > breakable.depth; depth--){
+			emit(Opcode.EXIT_SCOPE,lineNo);
+		}
+		breakable.exits.add(emit(Opcode.JUMP,0,lineNo));
+		return null;
+	}
+
+	@Override
+	public Void visitError(ErrorStatement statement) {
+		int message = -1;
+		if(statement.getMessage() != null){
+			this.messages.add(statement.getMessage());
+			message = this.messages.size() - 1;
+		}
+		emit(Opcode.ERROR,message,statement.halts() ? 1 : 0,statement.getLineNo());
+		return null;
+	}
+
+	@Override
+	public Void visitLiteral(LiteralExpression expression) {
+		emitConstant(expression.getValue(),expression.getLineNo());
+		return null;
+	}
+
+	@Override
+	public Void visitVariable(VariableExpression expression) {
+		emitVariable(Opcode.LOAD,expression.getVarId(),expression.getLocation(),expression.getLineNo());
+		return null;
+	}
+
+	@Override
+	public Void visitArithmetic(ArithmeticExpression expression) {
+		expression.getOperand1().accept(this);
+		expression.getOperand2().accept(this);
+		switch(expression.getOperator()){
+			case EXPR_ADD:
+				emit(Opcode.ADD,expression.getLineNo());
+				break;
+			case EXPR_SUB:
+				emit(Opcode.SUB,expression.getLineNo());
+				break;
+			case EXPR_MUL:
+				emit(Opcode.MUL,expression.getLineNo());
+				break;
+			case EXPR_DIV:
+				emit(Opcode.DIV,expression.getLineNo());
+				break;
+			case EXPR_MOD:
+				emit(Opcode.MOD,expression.getLineNo());
+				break;
+			case EXPR_MAX:
+				emit(Opcode.MAX,expression.getLineNo());
+				break;
+			default:
+				emit(Opcode.MIN,expression.getLineNo());
+		}
+		pop(1);
+		return null;
+	}
+
+	@Override
+	public Void visitComparison(ComparisonExpression expression) {
+		expression.getOperand1().accept(this);
+		expression.getOperand2().accept(this);
+		emit(expression.getOperator() == TokenType.COMP_NOT_EQUAL ? Opcode.NOT_EQUAL : Opcode.EQUAL,expression.getLineNo());
+		pop(1);
+		return null;
+	}
+
+	@Override
+	public Void visitBoolean(BooleanExpression expression) {
+		expression.getOperand1().accept(this);
+		if(expression.getOperand2() == null){
+			emit(Opcode.NOT,expression.getLineNo());
+			return null;
+		}
+
+		expression.getOperand2().accept(this);
+		switch(expression.getOperator()){
+			case BOOL_AND:
+				emit(Opcode.AND,expression.getLineNo());
+				break;
+			case BOOL_OR:
+				emit(Opcode.OR,expression.getLineNo());
+				break;
+			default:
+				emit(Opcode.XOR,expression.getLineNo());
+		}
+		pop(1);
+		return null;
+	}
+
+	@Override
+	public Void visitBoolInf(BoolInfExpression expression) {
+		ArrayList<Expression> operands = expression.getOperands();
+		for(Expression operand:operands){
+			operand.accept(this);
+		}
+		int op = expression.getOperator() == TokenType.BOOL_INF_AND ? Opcode.ALL : Opcode.ANY;
+		emit(op,operands.size(),expression.getLineNo());
+		pop(operands.size());
+		push(1);
+		return null;
+	}
+
+	@Override
+	public Void visitCall(CallExpression expression) {
+		if(emitArguments(expression)){
+			emit(Opcode.CALL,expression.getFunction().getIndex(),expression.getArguments().size(),expression.getLineNo());
+			pop(expression.getArguments().size());
+		}
+		push(1);
+		return null;
+	}
+
+	//push the arguments of a call. a call of a function that is not defined, or with the wrong number of arguments,
+	//is an error before its arguments are computed: the error is emitted instead, and false returned
+	private boolean emitArguments(CallExpression call){
+		FunctionDefinition function = call.getFunction();
+		String name = this.names.getName(call.getNameId());
+		String error = null;
+		if(function == null){
+			error = "Function '" + name + "' undefined.";
+		}else if(call.getArguments().size() != function.getParameterCount()){
+			error = "Function '" + name + "' takes " + function.getParameterCount() + " arguments.";
+		}
+		if(error != null){
+			this.messages.add(error);
+			emit(Opcode.ERROR,this.messages.size() - 1,1,call.getLineNo());
+			return false;
+		}
+
+		for(Expression argument:call.getArguments()){
+			argument.accept(this);
+		}
+		return true;
+	}
+
+	private void emitConstant(Symbol value,int lineNo){
+		this.constants.add(value);
+		emit(Opcode.CONST,this.constants.size() - 1,lineNo);
+	}
+
+	//an instruction on a variable, with the scopes that declare it from the innermost out. LOAD is LOAD_LOCAL if the
+	//location of the variable is resolved
+	private void emitVariable(int op,int varId,VariableLocation location,int lineNo){
+		if(op == Opcode.LOAD && location.isResolved()){
+			emit(Opcode.LOAD_LOCAL,location.getDepth(0),location.getSlot(0),varId,lineNo);
+			push(1);
+			return;
+		}
+
+		emit(op,varId,location.getCount(),lineNo);
+		for(int i = 0; i < location.getCount(); i++){
+			append(location.getDepth(i),lineNo);
+			append(location.getSlot(i),lineNo);
+		}
+		if(op == Opcode.LOAD){
+			push(1);
+		}
+	}
+
+	//load IT, slot 0 of the innermost scope
+	private void emitImplicitVariable(int lineNo){
+		emit(Opcode.LOAD_LOCAL,this.depth,0,NameTable.IT,lineNo);
+		push(1);
+	}
+
+	private void openScope(){
+		this.depth++;
+		this.maxDepth = Math.max(this.maxDepth,this.depth);
+	}
+
+	private void closeScope(int lineNo){
+		emit(Opcode.EXIT_SCOPE,lineNo);
+		this.depth--;
+	}
+
+	//emit an instruction, returns where it starts. values the instruction pushes are counted here, those it pops by
+	//the caller
+	private int emit(int op,int lineNo){
+		int start = this.size;
+		append(op,lineNo);
+		this.stackDepths[start] = this.stack;
+		this.scopeDepths[start] = this.depth;
+		if(op == Opcode.CONST){
+			push(1);
+		}
+		return start;
+	}
+
+	private int emit(int op,int operand,int lineNo){
+		int start = emit(op,lineNo);
+		append(operand,lineNo);
+		return start;
+	}
+
+	private int emit(int op,int operand1,int operand2,int lineNo){
+		int start = emit(op,operand1,lineNo);
+		append(operand2,lineNo);
+		return start;
+	}
+
+	private int emit(int op,int operand1,int operand2,int operand3,int lineNo){
+		int start = emit(op,operand1,operand2,lineNo);
+		append(operand3,lineNo);
+		return start;
+	}
+
+	private int emit(int op,int operand1,int operand2,int operand3,int operand4,int lineNo){
+		int start = emit(op,operand1,operand2,operand3,lineNo);
+		append(operand4,lineNo);
+		return start;
+	}
+
+	private void append(int value,int lineNo){
+		if(this.size == this.code.length){
+			this.code = Arrays.copyOf(this.code,this.size * 2);
+			this.lines = Arrays.copyOf(this.lines,this.size * 2);
+			this.stackDepths = Arrays.copyOf(this.stackDepths,this.size * 2);
+			this.scopeDepths = Arrays.copyOf(this.scopeDepths,this.size * 2);
+		}
+		this.code[this.size] = value;
+		this.lines[this.size] = lineNo;
+		this.size++;
+	}
+
+	//set the target of a jump
+	private void patch(int jump,int target){
+		this.code[jump + 1] = target;
+	}
+
+	private void push(int count){
+		this.stack += count;
+		this.maxStack = Math.max(this.maxStack,this.stack);
+	}
+
+	private void pop(int count){
+		this.stack -= count;
+	}
+}
@@ -0,0 +1,130 @@
+package vm;
+
+/*
+ Opcode
+
+ 	The instructions a program is compiled to (see Compiler), turned into JVM code by the ClassGenerator. An
+ instruction is an opcode followed by its operands, all ints in the code array of a chunk. Values are kept on a stack:
+ an expression pushes its value, and an operation pops its operands and pushes its result.
+
+ 	Variables are slots in the scopes of the running function (or of the program body), numbered by depth (0 is the
+ frame of the function, or the global scope). A variable is given as <name> <count> <depth> <slot> .. : the scopes
+ that may hold it, innermost first (see Compiler). The first of them that holds it when the instruction runs is used.
+
+ 	CONST <constant>					push a constant
+ 	LOAD <variable>						push the value of a variable
+ 	LOAD_LOCAL <depth> <slot> <name>	push the value of a variable found at compile time
+ 	CHECK <variable>					check that a variable is declared (before an assignment is computed)
+ 	STORE <variable>					pop a value into a variable
+ 	STORE_LOCAL <depth> <slot>			pop a value into a variable found at compile time
+ 	DECLARE <slot>						pop a value into a new variable of the innermost scope
+ 	DECLARE_NOOB <slot>					declare an uninitialized variable in the innermost scope
+ 	SET_IT								pop a value into IT
+ 	INPUT <variable>					read a value from stdin into a variable
+ 	PRINT <count>						pop values and print them on a line
+ 	ADD .. MIN							pop two numbers, push the result
+ 	EQUAL, NOT_EQUAL					pop two values, push WIN or FAIL
+ 	AND, OR, XOR						pop two values, push WIN or FAIL
+ 	NOT									pop a value, push WIN or FAIL
+ 	ALL <count>, ANY <count>			pop values, push WIN or FAIL
+ 	JUMP <target>						go to an instruction
+ 	JUMP_IF_TRUE <target>				pop a value, go to an instruction if it is true
+ 	JUMP_IF_FALSE <target>				pop a value, go to an instruction if it is false
+ 	ENTER_SCOPE <size>					open a scope with the given number of slots
+ 	EXIT_SCOPE							close the innermost scope
+ 	LOOP_INIT <slot>					declare the loop variable in the innermost scope, from 0
+ 	LOOP_STEP <slot> <step> <name> <target>
+ 										count the loop variable and go back to the condition
+ 	SWITCH <table> <size> <target>		pop a value, open a scope and go to its entry (to target if there is none)
+ 	CALL <function> <count>				pop the arguments and call a function, which pushes its value
+ 	TAIL_CALL <function> <count>		pop the arguments and call a function in place of the running one
+ 	RETURN								pop a value and return it
+ 	RETURN_NOOB							return NOOB
+ 	RETURN_IT							return the value of IT
+ 	ERROR <message> <halt>				report an error (no message for -1), stop if halt is 1
+ 	FAIL								stop, the program is not valid
+ 	END									stop, the program has run to its end
+ */
+final class Opcode {
+
+	static final int CONST = 0;
+	static final int LOAD = 1;
+	static final int LOAD_LOCAL = 2;
+	static final int CHECK = 3;
+	static final int STORE = 4;
+	static final int STORE_LOCAL = 5;
+	static final int DECLARE = 6;
+	static final int DECLARE_NOOB = 7;
+	static final int SET_IT = 8;
+	static final int INPUT = 9;
+	static final int PRINT = 10;
+	static final int ADD = 11;
+	static final int SUB = 12;
+	static final int MUL = 13;
+	static final int DIV = 14;
+	static final int MOD = 15;
+	static final int MAX = 16;
+	static final int MIN = 17;
+	static final int EQUAL = 18;
+	static final int NOT_EQUAL = 19;
+	static final int AND = 20;
+	static final int OR = 21;
+	static final int XOR = 22;
+	static final int NOT = 23;
+	static final int ALL = 24;
+	static final int ANY = 25;
+	static final int JUMP = 26;
+	static final int JUMP_IF_TRUE = 27;
+	static final int JUMP_IF_FALSE = 28;
+	static final int ENTER_SCOPE = 29;
+	static final int EXIT_SCOPE = 30;
+	static final int LOOP_INIT = 31;
+	static final int LOOP_STEP = 32;
+	static final int SWITCH = 33;
+	static final int CALL = 34;
+	static final int TAIL_CALL = 35;
+	static final int RETURN = 36;
+	static final int RETURN_NOOB = 37;
+	static final int RETURN_IT = 38;
+	static final int ERROR = 39;
+	static final int FAIL = 40;
+	static final int END = 41;
+
+	private Opcode(){
+	}
+
+	//number of ints an instruction takes, with its opcode
+	static int length(int[] code,int pc){
+		switch(code[pc]){
+			case LOAD:
+			case CHECK:
+			case STORE:
+			case INPUT:
+				return 3 + 2 * code[pc + 2];
+			case CONST:
+			case DECLARE:
+			case DECLARE_NOOB:
+			case PRINT:
+			case ALL:
+			case ANY:
+			case JUMP:
+			case JUMP_IF_TRUE:
+			case JUMP_IF_FALSE:
+			case ENTER_SCOPE:
+			case LOOP_INIT:
+				return 2;
+			case STORE_LOCAL:
+			case CALL:
+			case TAIL_CALL:
+			case ERROR:
+				return 3;
+			case LOAD_LOCAL:
+			case SWITCH:
+				return 4;
+			case LOOP_STEP:
+				return 5;
+			default:
+				return 1;
+		}
+	}
+}